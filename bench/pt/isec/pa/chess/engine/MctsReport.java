@@ -0,0 +1,43 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.BenchmarkPosition;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+
+/**
+ * Searches each corpus position with the Monte Carlo engine for a fixed time and prints the
+ * playouts per second, the size of the tree, the memory per node and whether the memory
+ * budget was filled, together with the move chosen.
+ *
+ * <p>Usage: {@code MctsReport [millis [threads [megabytes]]]} (default 1000 ms, one thread
+ * per core, {@value MonteCarloEngine#DEFAULT_MEMORY_MB} MB).</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class MctsReport {
+    private MctsReport() {}
+
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int megabytes = args.length > 2 ? Integer.parseInt(args[2]) : MonteCarloEngine.DEFAULT_MEMORY_MB;
+
+        MonteCarloEngine engine = new MonteCarloEngine();
+        engine.setThreads(threads);
+        engine.setMemory(megabytes);
+        engine.search(BenchmarkPosition.values()[0].load().getBoard(), SearchLimits.time(millis), null); // warm-up
+
+        System.out.printf("%-24s %10s %12s %10s %10s %6s %6s  %s%n",
+                "position", "playouts", "playouts/s", "nodes", "capacity", "B/node", "full", "best");
+        for (BenchmarkPosition position : BenchmarkPosition.values()) {
+            Board board = position.load().getBoard();
+            SearchInfo info = engine.search(board, SearchLimits.time(millis), null);
+            MonteCarloStats stats = engine.getStats();
+            System.out.printf("%-24s %10d %12d %10d %10d %6d %6s  %s%n",
+                    position, stats.playouts(), stats.playoutsPerSecond(), stats.nodes(), stats.capacity(),
+                    stats.bytesPerNode(), stats.isFull() ? "yes" : "no", Move.toString(info.bestMove()));
+        }
+        engine.shutdown();
+    }
+}
@@ -0,0 +1,72 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.BenchmarkPosition;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Measures the neural network evaluation on one core: for the scalar kernel and, when the JVM was
+ * started with {@code --add-modules jdk.incubator.vector}, the SIMD one, it prints how many
+ * evaluations per second the dense layers run on an up-to-date accumulator, and how many
+ * move, evaluation and take-back rounds per second the board plays with the accumulators
+ * updated incrementally (and rebuilt after king moves).
+ *
+ * <p>Usage: {@code NetworkReport [network file]}; without a file, a random network of
+ * 256 x 2 - 32 - 1 neurons is used (the speed does not depend on the weights).</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class NetworkReport {
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    private NetworkReport() {}
+
+    public static void main(String[] args) throws IOException {
+        Network network = args.length > 0 ? Network.load(Path.of(args[0])) : Network.random(256, 32, 6);
+        NetworkKernel best = NetworkKernel.best();
+        NetworkKernel[] kernels = best instanceof ScalarKernel
+                ? new NetworkKernel[]{best} : new NetworkKernel[]{new ScalarKernel(), best};
+
+        System.out.printf("network %d x 2 - %d - 1%n", network.getHiddenSize(), network.getDenseSize());
+        System.out.printf("%-22s %14s %16s %10s%n", "kernel", "evals/s", "move+eval/s", "refreshes");
+        for (NetworkKernel kernel : kernels) {
+            for (int round = 0; round < 2; round++) { // the first round warms up
+                long evaluations = 0, moves = 0, refreshes = 0;
+                long evaluationNanos = 0, moveNanos = 0;
+                for (BenchmarkPosition position : BenchmarkPosition.values()) {
+                    Board board = position.load().getBoard().clone();
+                    NetworkAccumulator accumulator = new NetworkAccumulator(network, board, kernel);
+                    MoveList list = new MoveList();
+                    int n = MoveGenerator.generate(board, board.isWhiteToMove(), list);
+
+                    long start = System.nanoTime();
+                    int sink = 0;
+                    for (int i = 0; i < 20_000; i++)
+                        sink += accumulator.evaluate(board.isWhiteToMove());
+                    evaluationNanos += System.nanoTime() - start;
+                    evaluations += 20_000;
+
+                    start = System.nanoTime();
+                    for (int i = 0; i < 20_000; i++) {
+                        board.makeMove(list.get(i % n));
+                        sink += accumulator.evaluate(board.isWhiteToMove());
+                        board.unmakeMove();
+                    }
+                    moveNanos += System.nanoTime() - start;
+                    moves += 20_000;
+                    refreshes += accumulator.refreshes();
+                    if (sink == 42)
+                        System.out.print(""); // keeps the evaluations from being optimised away
+                }
+                if (round == 1)
+                    System.out.printf("%-22s %14d %16d %10d%n", kernel,
+                            evaluations * MEASURE_NANOS / evaluationNanos, moves * MEASURE_NANOS / moveNanos, refreshes);
+            }
+        }
+    }
+}
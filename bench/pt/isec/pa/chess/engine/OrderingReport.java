@@ -0,0 +1,40 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.BenchmarkPosition;
+
+/**
+ * Reports the move ordering quality on the corpus: each position is searched to a fixed depth
+ * (with an empty transposition table) and the nodes, beta cutoffs and share of cutoffs made by
+ * the first move are printed, so the figures can be compared between versions of the engine.
+ *
+ * <p>Usage: {@code OrderingReport [depth]} (default 8).</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class OrderingReport {
+    private OrderingReport() {}
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+
+        Engine engine = new Engine();
+        long nodes = 0;
+        OrderingStats total = OrderingStats.NONE;
+        System.out.printf("%-22s %12s %12s %11s%n", "position", "nodes", "cutoffs", "first-move");
+        for (BenchmarkPosition position : BenchmarkPosition.values()) {
+            engine.clearHash();
+            SearchInfo info = engine.search(position.load().getBoard(), SearchLimits.depth(depth), null);
+            OrderingStats stats = engine.getOrderingStats();
+            nodes += info.nodes();
+            total = total.plus(stats);
+            print(position.name().toLowerCase(), info.nodes(), stats);
+        }
+        print("total", nodes, total);
+        engine.shutdown();
+    }
+
+    private static void print(String name, long nodes, OrderingStats stats) {
+        System.out.printf("%-22s %12d %12d %10.1f%%%n", name, nodes, stats.cutoffs(), stats.firstMoveRate() * 100);
+    }
+}
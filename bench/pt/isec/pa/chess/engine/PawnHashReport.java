@@ -0,0 +1,32 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.BenchmarkPosition;
+
+/**
+ * Reports how well the pawn hash table works on the corpus: each position is searched to a fixed
+ * depth (with empty tables) and the nodes, nodes per second, pawn hash probes and hit rate are printed.
+ *
+ * <p>Usage: {@code PawnHashReport [depth]} (default 8).</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class PawnHashReport {
+    private PawnHashReport() {}
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+
+        Engine engine = new Engine();
+        System.out.printf("%-22s %12s %10s %12s %9s%n", "position", "nodes", "knps", "probes", "hit rate");
+        for (BenchmarkPosition position : BenchmarkPosition.values()) {
+            engine.clearHash();
+            SearchInfo info = engine.search(position.load().getBoard(), SearchLimits.depth(depth), null);
+            PawnHashStats stats = engine.getPawnHashStats();
+            System.out.printf("%-22s %12d %10d %12d %8.1f%%%n", position.name().toLowerCase(), info.nodes(),
+                    info.nodes() / Math.max(1, info.timeMillis()), stats.hits() + stats.misses(), stats.hitRate() * 100);
+        }
+        System.out.println("tables: " + engine.getPawnHashStats());
+        engine.shutdown();
+    }
+}
@@ -0,0 +1,62 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.BenchmarkPosition;
+import pt.isec.pa.chess.model.data.Board;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Measures what each {@link Pruning} technique is worth: the corpus positions are searched to a
+ * fixed depth (with an empty transposition table) with no technique, with each technique alone and
+ * with all of them, and the total nodes, time to depth and how often the technique fired are printed.
+ *
+ * <p>Usage: {@code PruningComparison [depth]} (default 6).</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class PruningComparison {
+    private PruningComparison() {}
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+
+        Board[] boards = new Board[BenchmarkPosition.values().length];
+        for (BenchmarkPosition position : BenchmarkPosition.values())
+            boards[position.ordinal()] = position.load().getBoard();
+
+        Engine engine = new Engine();
+        run(engine, boards, depth, EnumSet.noneOf(Pruning.class)); // warm-up, so the first rows are not measured on cold code
+        run(engine, boards, depth, EnumSet.allOf(Pruning.class));
+
+        System.out.printf("%-22s %12s %15s %12s%n", "pruning", "nodes", "time-to-depth", "fired");
+        print("none", run(engine, boards, depth, EnumSet.noneOf(Pruning.class)), null);
+        for (Pruning technique : Pruning.values())
+            print(technique.name().toLowerCase(), run(engine, boards, depth, EnumSet.of(technique)), technique);
+        print("all", run(engine, boards, depth, EnumSet.allOf(Pruning.class)), null);
+        engine.shutdown();
+    }
+
+    private record Result(long nodes, long millis, PruningStats stats) {}
+
+    private static Result run(Engine engine, Board[] boards, int depth, Set<Pruning> enabled) {
+        for (Pruning technique : Pruning.values())
+            engine.setPruning(technique, enabled.contains(technique));
+
+        long nodes = 0;
+        PruningStats stats = PruningStats.NONE;
+        long start = System.nanoTime();
+        for (Board board : boards) {
+            engine.clearHash();
+            nodes += engine.search(board, SearchLimits.depth(depth), null).nodes();
+            stats = stats.plus(engine.getPruningStats());
+        }
+        return new Result(nodes, (System.nanoTime() - start) / 1_000_000, stats);
+    }
+
+    private static void print(String name, Result result, Pruning technique) {
+        System.out.printf("%-22s %12d %12d ms %12s%n", name, result.nodes(), result.millis(),
+                technique == null ? "-" : String.valueOf(result.stats().count(technique)));
+    }
+}
@@ -0,0 +1,47 @@
+package pt.isec.pa.chess.engine;
+
+import org.openjdk.jmh.annotations.*;
+import pt.isec.pa.chess.model.BenchmarkPosition;
+import pt.isec.pa.chess.model.data.Board;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to search each corpus position to a fixed depth, on the calling thread.
+ * The node count of the result is returned so the search cannot be optimized away.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    @Param
+    public BenchmarkPosition position;
+
+    @Param({"4"})
+    public int depth;
+
+    private Engine engine;
+    private Board board;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new Engine();
+        board = position.load().getBoard();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public long searchFixedDepth() {
+        return engine.search(board, SearchLimits.depth(depth), null).nodes();
+    }
+}
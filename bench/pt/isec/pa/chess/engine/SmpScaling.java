@@ -0,0 +1,54 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.BenchmarkPosition;
+import pt.isec.pa.chess.model.data.Board;
+
+/**
+ * Measures how the Lazy SMP search scales with the number of threads: for each thread count,
+ * every corpus position is searched to a fixed depth (with an empty transposition table) and
+ * the total time to depth, the nodes per second and the speed-up over one thread are printed.
+ *
+ * <p>Usage: {@code SmpScaling [depth [maxThreads]]} (default depth 6, up to the number of cores).
+ * Thread counts double from 1 up to {@code maxThreads}.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class SmpScaling {
+    private SmpScaling() {}
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Board[] boards = new Board[BenchmarkPosition.values().length];
+        for (BenchmarkPosition position : BenchmarkPosition.values())
+            boards[position.ordinal()] = position.load().getBoard();
+
+        Engine engine = new Engine();
+        for (Board board : boards) { // warm-up, so the first thread count is not measured on cold code
+            engine.clearHash();
+            engine.search(board, SearchLimits.depth(depth), null);
+        }
+
+        long baseMillis = 0;
+        System.out.printf("%7s %15s %12s %14s %8s%n", "threads", "time-to-depth", "nodes", "nps", "speedup");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            engine.setThreads(threads);
+
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (Board board : boards) {
+                engine.clearHash();
+                nodes += engine.search(board, SearchLimits.depth(depth), null).nodes();
+            }
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            if (threads == 1)
+                baseMillis = millis;
+
+            System.out.printf("%7d %12d ms %12d %14d %7.2fx%n",
+                    threads, millis, nodes, nodes * 1000 / millis, (double) baseMillis / millis);
+        }
+        engine.shutdown();
+    }
+}
@@ -0,0 +1,34 @@
+package pt.isec.pa.chess.model;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the model benchmarks with the GC profiler, so every result carries its allocation
+ * rate ({@code gc.alloc.rate.norm}, bytes per operation) next to the throughput.
+ * Results are also written as JSON for comparison between releases.
+ *
+ * <p>Usage: {@code BenchmarkMain [regex [result.json]]}; the regex selects benchmarks
+ * (default: all of them).</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "pt\\.isec\\.pa\\.chess\\..*Benchmark";
+        String result = args.length > 1 ? args[1] : "jmh-result.json";
+
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package pt.isec.pa.chess.model;
+
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+
+/**
+ * Fixed corpus of middlegame and endgame positions shared by all benchmarks.
+ * A {@code @Param} field of this type with no values runs a benchmark once per position,
+ * so results stay comparable from release to release as long as this list is not edited.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public enum BenchmarkPosition {
+    MIDDLEGAME_ITALIAN("r1bqk2r/pppp1ppp/2n2n2/2b1p3/2B1P3/2P2N2/PP1P1PPP/RNBQK2R w KQkq - 0 5"),
+    MIDDLEGAME_KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"),
+    MIDDLEGAME_TACTICAL("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"),
+    MIDDLEGAME_SYMMETRIC("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"),
+    ENDGAME_ROOK_PAWNS("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"),
+    ENDGAME_LUCENA("1K1k4/1P6/8/8/8/8/r7/2R5 w - - 0 1"),
+    ENDGAME_KRK("8/8/8/4k3/8/8/8/R3K3 w Q - 0 1"),
+    ENDGAME_PAWNS("8/pp3k2/2p5/3p1p2/3P1P2/2P5/PP3K2/8 b - - 0 1");
+
+    private final String fen;
+
+    BenchmarkPosition(String fen) {
+        this.fen = fen;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    /**
+     * Creates a game set up on this position.
+     *
+     * @return a new game ready to move
+     */
+    public ChessGame load() {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("White", "Black");
+        game.importFen(fen);
+        return game;
+    }
+
+    /**
+     * First legal non-promotion move of the side to move, in the coordinates taken by
+     * {@link ChessGame#move(String, String)}.
+     *
+     * @param game game set up on this position
+     * @return {from, to}, e.g. {"e2", "e4"}
+     */
+    public static String[] firstMove(ChessGame game) {
+        MoveList moves = new MoveList();
+        int n = MoveGenerator.generate(game.getBoard(), game.isWhiteTurn(), moves);
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            if (!Move.isPromotion(move))
+                return new String[]{Move.squareName(Move.from(move)), Move.squareName(Move.to(move))};
+        }
+        throw new IllegalStateException("Posição sem jogadas: " + game.exportGame());
+    }
+}
@@ -0,0 +1,71 @@
+package pt.isec.pa.chess.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the game-level queries and the text import/export over the position corpus.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+    @Param
+    public BenchmarkPosition position;
+
+    private ChessGame game;
+    private ChessGame scratch;
+    private String exported;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = position.load();
+        scratch = position.load();
+        exported = game.exportGame();
+    }
+
+    @Benchmark
+    public boolean isCheckmate() {
+        return game.isCheckmate(true);
+    }
+
+    @Benchmark
+    public boolean isStalemate() {
+        return game.isStalemate(true);
+    }
+
+    // What BoardCanvas asks on a click: which squares hold a piece with moves
+    @Benchmark
+    public int hasMovesAllSquares() {
+        int count = 0;
+        for (int row = 0; row < game.getBoardSize(); row++)
+            for (int col = 0; col < game.getBoardSize(); col++)
+                if (game.hasMoves(row, col))
+                    count++;
+        return count;
+    }
+
+    @Benchmark
+    public int legalMovesUncached() {
+        game.invalidateLegalMoves();
+        return game.getLegalMoves().size();
+    }
+
+    @Benchmark
+    public String exportGame() {
+        return game.exportGame();
+    }
+
+    @Benchmark
+    public ChessGame importGame() {
+        scratch.importGame(exported);
+        return scratch;
+    }
+}
@@ -0,0 +1,51 @@
+package pt.isec.pa.chess.model;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Measures the retained heap per {@link ChessGame} by keeping many independent games alive
+ * at once and comparing the used heap before and after (with a full GC on each side).
+ * The figure is approximate but stable enough to spot regressions in the object graph.
+ *
+ * <p>Usage: {@code GameFootprint [games]} (default 10000).</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class GameFootprint {
+    private GameFootprint() {}
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long measure(BenchmarkPosition position, int count, MemoryMXBean memory) {
+        ChessGame[] games = new ChessGame[count];
+        long before = usedHeapAfterGc(memory);
+        for (int i = 0; i < count; i++) {
+            if (position == null) {
+                games[i] = new ChessGame();
+                games[i].setPlayerNames("White", "Black");
+                games[i].startNewGame();
+            } else {
+                games[i] = position.load();
+            }
+        }
+        long after = usedHeapAfterGc(memory);
+        if (games[count - 1].getBoard() == null)
+            throw new IllegalStateException(); // keeps the games reachable up to here
+        return (after - before) / count;
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        System.out.printf("%-22s %10d bytes/game%n", "START", measure(null, count, memory));
+        for (BenchmarkPosition position : BenchmarkPosition.values())
+            System.out.printf("%-22s %10d bytes/game%n", position, measure(position, count, memory));
+    }
+}
@@ -0,0 +1,45 @@
+package pt.isec.pa.chess.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of playing one move through {@link ChessGame#move(String, String)}, end detection included.
+ * The move is not reversible from the game alone, so the position is reloaded before every
+ * invocation; that setup is outside the measured region.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveBenchmark {
+    @Param
+    public BenchmarkPosition position;
+
+    private ChessGame game;
+    private String from;
+    private String to;
+
+    @Setup(Level.Trial)
+    public void pickMove() {
+        String[] move = BenchmarkPosition.firstMove(position.load());
+        from = move[0];
+        to = move[1];
+    }
+
+    @Setup(Level.Invocation)
+    public void reload() {
+        game = position.load();
+    }
+
+    @Benchmark
+    public ChessGame.MoveResult move() {
+        return game.move(from, to);
+    }
+}
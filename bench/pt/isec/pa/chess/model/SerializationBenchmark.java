@@ -0,0 +1,55 @@
+package pt.isec.pa.chess.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ChessGameSerialization} round trips, in memory so disk I/O does not dominate the result.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    @Param
+    public BenchmarkPosition position;
+
+    private ChessGame game;
+    private byte[] serialized;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 * 1024);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        game = position.load();
+        ChessGameSerialization.serialize(game, buffer);
+        serialized = buffer.toByteArray();
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        buffer.reset();
+        ChessGameSerialization.serialize(game, buffer);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public ChessGame deserialize() throws IOException, ClassNotFoundException {
+        return ChessGameSerialization.deserialize(new ByteArrayInputStream(serialized));
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() throws IOException, ClassNotFoundException {
+        buffer.reset();
+        ChessGameSerialization.serialize(game, buffer);
+        return ChessGameSerialization.deserialize(new ByteArrayInputStream(buffer.toByteArray()));
+    }
+}
@@ -0,0 +1,59 @@
+package pt.isec.pa.chess.model.data;
+
+import org.openjdk.jmh.annotations.*;
+import pt.isec.pa.chess.model.BenchmarkPosition;
+import pt.isec.pa.chess.model.ChessGame;
+import pt.isec.pa.chess.model.data.pieces.King;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board-level hot paths over the position corpus: copying, check and attack queries and
+ * move generation for the whole position.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    @Param
+    public BenchmarkPosition position;
+
+    private Board board;
+    private boolean whiteToMove;
+    private King king;
+    private final MoveList moves = new MoveList();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ChessGame game = position.load();
+        board = game.getBoard();
+        whiteToMove = game.isWhiteTurn();
+        king = board.getKing(whiteToMove);
+    }
+
+    @Benchmark
+    public Board cloneBoard() {
+        return board.clone();
+    }
+
+    @Benchmark
+    public boolean kingIsInCheck() {
+        return king.isInCheck();
+    }
+
+    @Benchmark
+    public long attackersOfKing() {
+        return board.attackersOf(Board.square(king.getRow(), king.getCol()));
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return MoveGenerator.generate(board, whiteToMove, moves);
+    }
+}
@@ -0,0 +1,47 @@
+package pt.isec.pa.chess.model.data;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pt.isec.pa.chess.model.BenchmarkPosition;
+import pt.isec.pa.chess.model.data.PieceFactory.PieceType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Piece#calculateLegalMoves()} per piece type over the position corpus.
+ * Each invocation recalculates every piece of the type on the board, both colours;
+ * positions without such pieces measure an empty loop.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceBenchmark {
+    @Param
+    public BenchmarkPosition position;
+
+    @Param
+    public PieceType type;
+
+    private Piece[] pieces;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        pieces = position.load().getBoard().getPieces().stream()
+                .filter(p -> p.isAlive() && p.getType() == type)
+                .toArray(Piece[]::new);
+    }
+
+    @Benchmark
+    public void calculateLegalMoves(Blackhole bh) {
+        for (Piece piece : pieces) {
+            piece.calculateLegalMoves();
+            bh.consume(piece.getLegalTargets());
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.tablebase.Tablebases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Computer player: searches a position for the best move.
+ * Searches started with {@link #start} run on the engine's own background thread, so the caller
+ * (typically the JavaFX application thread) never blocks; progress and the result are handed to
+ * callbacks on that background thread.
+ *
+ * <p>With more than one thread the search is a Lazy SMP search: helper threads search the same
+ * position at the same time, sharing the transposition table, and the deepest completed result
+ * of any thread is played.</p>
+ *
+ * <p>The engine always searches copies of the board it is given, so the game may go on
+ * (or be redrawn) while it thinks.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ *
+ * @see SearchLimits
+ * @see SearchInfo
+ */
+public class Engine {
+    /** Default size of the transposition table, in megabytes. */
+    public static final int DEFAULT_HASH_MB = 16;
+    /** Largest transposition table, in megabytes. */
+    public static final int MAX_HASH_MB = 4096;
+    /** Most search threads the engine will run. */
+    public static final int MAX_THREADS = 256;
+    /** Most lines an analysis reports. */
+    public static final int MAX_LINES = 16;
+
+    private final ExecutorService worker;
+    private ExecutorService helperPool;
+    private int threads = 1;
+    private TranspositionTable table;
+    private int hashMegabytes = DEFAULT_HASH_MB;
+    private final EnumSet<Pruning> pruning = EnumSet.allOf(Pruning.class);
+    private PruningStats pruningStats = PruningStats.NONE;
+    private OrderingStats orderingStats = OrderingStats.NONE;
+    private PawnTable[] pawnTables = new PawnTable[0]; // one per search thread, kept between searches
+    private PawnHashStats pawnHashStats = PawnHashStats.NONE;
+    private Network network;           // null for the hand-written evaluation
+    private Tablebases tablebases;     // null without endgame tables
+    private volatile Search[] current; // main search first, then its helpers
+    private Search[] pondering;        // the current search, while it has no limits until a ponder hit
+
+    /**
+     * Creates a single-threaded engine with its background thread
+     * (a daemon, so it never keeps the application alive).
+     */
+    public Engine() {
+        worker = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "chess-engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        table = new TranspositionTable(DEFAULT_HASH_MB);
+    }
+
+    /**
+     * Sets the number of search threads, the main one included; applies from the next search.
+     *
+     * @param threads number of threads, from 1 to {@link #MAX_THREADS}
+     */
+    public synchronized void setThreads(int threads) {
+        if (threads < 1 || threads > MAX_THREADS)
+            throw new IllegalArgumentException("Número de threads inválido: " + threads);
+        if (threads != this.threads && helperPool != null) {
+            helperPool.shutdown();
+            helperPool = null;
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the number of search threads.
+     */
+    public synchronized int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the size of the transposition table, dropping its contents; applies from the next search.
+     *
+     * @param megabytes size in megabytes, from 1 to {@link #MAX_HASH_MB}; rounded down to a power of two number of entries
+     */
+    public synchronized void setHashSize(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_HASH_MB)
+            throw new IllegalArgumentException("Tamanho da tabela inválido: " + megabytes + " MB");
+        if (megabytes != hashMegabytes) {
+            hashMegabytes = megabytes;
+            table = new TranspositionTable(megabytes);
+        }
+    }
+
+    /**
+     * Gets the requested size of the transposition table, in megabytes.
+     */
+    public synchronized int getHashSize() {
+        return hashMegabytes;
+    }
+
+    /**
+     * Gets the transposition table counters (totals of the searches that have finished) and fill level.
+     */
+    public synchronized HashStats getHashStats() {
+        return table.stats();
+    }
+
+    /**
+     * Gets the size and the hit/miss counters of the pawn hash tables (totals of the searches that have finished).
+     */
+    public synchronized PawnHashStats getPawnHashStats() {
+        return pawnHashStats;
+    }
+
+    /**
+     * Forgets all stored search results and resets the counters, e.g. before an unrelated game.
+     * A search still winding down may store a few more entries, which stay valid for their positions.
+     * The pawn hash tables are dropped and created again by the next search.
+     */
+    public synchronized void clearHash() {
+        table.clear();
+        pawnTables = new PawnTable[0];
+        pawnHashStats = PawnHashStats.NONE;
+    }
+
+    /**
+     * Switches a selective search technique on or off; applies from the next search.
+     *
+     * @param technique technique to switch
+     * @param enabled whether the search uses it
+     */
+    public synchronized void setPruning(Pruning technique, boolean enabled) {
+        if (enabled)
+            pruning.add(technique);
+        else
+            pruning.remove(technique);
+    }
+
+    /**
+     * Checks whether a selective search technique is on.
+     */
+    public synchronized boolean isPruningEnabled(Pruning technique) {
+        return pruning.contains(technique);
+    }
+
+    /**
+     * Gets how often each pruning technique fired in the last search that finished.
+     */
+    public synchronized PruningStats getPruningStats() {
+        return pruningStats;
+    }
+
+    /**
+     * Gets the move ordering statistics (first-move cutoff rate) of the last search that finished.
+     */
+    public synchronized OrderingStats getOrderingStats() {
+        return orderingStats;
+    }
+
+    /**
+     * Sets the neural network that evaluates positions; applies from the next search.
+     *
+     * @param network network to use, or null for the hand-written evaluation (material, piece-square tables and pawn structure)
+     */
+    public synchronized void setNetwork(Network network) {
+        this.network = network;
+    }
+
+    /**
+     * Gets the neural network that evaluates positions, or null if the hand-written evaluation is used.
+     */
+    public synchronized Network getNetwork() {
+        return network;
+    }
+
+    /**
+     * Sets the endgame tables the search probes; applies from the next search. Positions they
+     * cover are scored exactly instead of searched, and a root position they cover is answered at once.
+     *
+     * @param tablebases tables to probe, or null to search every position
+     */
+    public synchronized void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Gets the endgame tables the search probes, or null if it has none.
+     */
+    public synchronized Tablebases getTablebases() {
+        return tablebases;
+    }
+
+    /**
+     * Searches a position on the calling thread (and the helper threads, if any).
+     *
+     * @param position position to search, with its side to move (left unchanged)
+     * @param limits depth and time limits
+     * @param listener receives every completed iteration, may be null
+     * @return the result of the deepest completed iteration
+     */
+    public SearchInfo search(Board position, SearchLimits limits, Consumer<SearchInfo> listener) {
+        Search[] searches = createSearches(position);
+        current = searches;
+        try {
+            return runSearches(searches, limits, listener);
+        } finally {
+            finish(searches);
+        }
+    }
+
+    /**
+     * Starts searching a position in the background, stopping any search already running.
+     *
+     * @param position position to search, with its side to move (copied before returning)
+     * @param limits depth and time limits
+     * @param listener receives every completed iteration on the engine thread, may be null
+     * @param onDone receives the final result on the engine thread, may be null
+     * @return the pending result
+     */
+    public synchronized Future<SearchInfo> start(Board position, SearchLimits limits,
+                                                 Consumer<SearchInfo> listener, Consumer<SearchInfo> onDone) {
+        stop();
+        pondering = null;
+        return submit(createSearches(position), limits, listener, onDone);
+    }
+
+    private Future<SearchInfo> submit(Search[] searches, SearchLimits limits,
+                                      Consumer<SearchInfo> listener, Consumer<SearchInfo> onDone) {
+        current = searches;
+        return worker.submit(() -> {
+            SearchInfo result;
+            try {
+                result = runSearches(searches, limits, listener);
+            } finally {
+                finish(searches);
+            }
+            if (onDone != null)
+                onDone.accept(result);
+            return result;
+        });
+    }
+
+    /**
+     * Starts analysing a position in the background: an endless search that reports its best
+     * lines, each one best among the moves the previous ones do not start with (multi-PV), after
+     * every iteration. It runs until {@link #stop()} or the next search; the transposition table is
+     * kept, so restarting on a nearby position (e.g. after a move) picks up where it left off.
+     *
+     * @param position position to analyse, with its side to move (copied before returning)
+     * @param lines number of lines, from 1 to {@link #MAX_LINES}; fewer if there are fewer legal moves
+     * @param listener receives the lines, best first, on the engine thread
+     * @return the pending result (the best line when stopped)
+     */
+    public synchronized Future<SearchInfo> analyse(Board position, int lines, Consumer<List<SearchInfo>> listener) {
+        if (lines < 1 || lines > MAX_LINES)
+            throw new IllegalArgumentException("Número de linhas inválido: " + lines);
+        stop();
+        pondering = null;
+        Search[] searches = createSearches(position);
+        searches[0].setMultiPv(lines, listener);
+        return submit(searches, SearchLimits.infinite(), null, null);
+    }
+
+    /**
+     * Starts pondering: searching, on the opponent's time, the position after the move the opponent
+     * is expected to play. The search has no limits until {@link #ponderHit} gives it some; if the
+     * opponent plays something else, it is simply stopped (or replaced by the next search).
+     * A ponder search that ends on its own (e.g. it finds a mate) reports its result at once.
+     *
+     * @param position position after the expected move (copied before returning)
+     * @param listener receives every completed iteration on the engine thread, may be null
+     * @param onDone receives the final result on the engine thread, may be null
+     * @return the pending result
+     */
+    public synchronized Future<SearchInfo> ponder(Board position, Consumer<SearchInfo> listener, Consumer<SearchInfo> onDone) {
+        Future<SearchInfo> result = start(position, SearchLimits.infinite(), listener, onDone);
+        pondering = current;
+        return result;
+    }
+
+    /**
+     * Tells the engine that the expected move was played: the ponder search goes on, keeping
+     * everything it has found so far, as a normal search with the given limits (counted from now).
+     *
+     * @param limits limits of the engine's move
+     * @return false if no ponder search is running (it was stopped or has ended on its own)
+     */
+    public synchronized boolean ponderHit(SearchLimits limits) {
+        Search[] searches = pondering;
+        pondering = null;
+        if (searches == null || searches != current)
+            return false;
+        searches[0].ponderHit(limits);
+        for (int i = 1; i < searches.length; i++)
+            searches[i].ponderHit(helperLimits(limits));
+        return true;
+    }
+
+    /**
+     * Whether the running search is a ponder search still waiting for its {@link #ponderHit}.
+     */
+    public synchronized boolean isPondering() {
+        return pondering != null && pondering == current;
+    }
+
+    /**
+     * Stops the running search, if any; it still reports its result to its {@code onDone} callback.
+     */
+    public void stop() {
+        Search[] searches = current;
+        if (searches != null) {
+            for (Search search : searches)
+                search.stop();
+        }
+    }
+
+    /**
+     * Whether a background search is running.
+     */
+    public boolean isSearching() {
+        return current != null;
+    }
+
+    /**
+     * Stops the running search and releases the background threads.
+     */
+    public synchronized void shutdown() {
+        stop();
+        worker.shutdown();
+        if (helperPool != null)
+            helperPool.shutdown();
+    }
+
+    private synchronized Search[] createSearches(Board position) {
+        table.newSearch();
+        if (pawnTables.length < threads) {
+            PawnTable[] tables = Arrays.copyOf(pawnTables, threads);
+            for (int i = pawnTables.length; i < threads; i++)
+                tables[i] = new PawnTable(PawnTable.DEFAULT_ENTRIES);
+            pawnTables = tables;
+        }
+        Search[] searches = new Search[threads];
+        for (int i = 0; i < threads; i++)
+            searches[i] = new Search(position.clone(), table, i, pruning, network, pawnTables[i], tablebases);
+        Search[] helpers = new Search[threads - 1];
+        System.arraycopy(searches, 1, helpers, 0, helpers.length);
+        searches[0].setHelpers(helpers);
+        return searches;
+    }
+
+    private synchronized ExecutorService helperPool() {
+        if (helperPool == null) {
+            helperPool = Executors.newFixedThreadPool(threads - 1, new ThreadFactory() {
+                private int count;
+
+                @Override
+                public Thread newThread(Runnable task) {
+                    Thread thread = new Thread(task, "chess-engine-helper-" + ++count);
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return helperPool;
+    }
+
+    // Runs the main search on the calling thread and the helpers on the pool; the helpers are
+    // stopped as soon as the main search is done, or on their own at the hard deadline, so that
+    // the main thread does not have to share the processor with them past it
+    private SearchInfo runSearches(Search[] searches, SearchLimits limits, Consumer<SearchInfo> listener) {
+        SearchLimits helperLimits = helperLimits(limits);
+        List<Future<SearchInfo>> pending = new ArrayList<>();
+        if (searches.length > 1) {
+            ExecutorService pool = helperPool();
+            for (int i = 1; i < searches.length; i++) {
+                Search helper = searches[i];
+                pending.add(pool.submit(() -> helper.run(helperLimits, null)));
+            }
+        }
+
+        SearchInfo main = searches[0].run(limits, listener);
+        for (int i = 1; i < searches.length; i++)
+            searches[i].stop();
+
+        SearchInfo best = main;
+        long nodes = searches[0].nodes();
+        PruningStats pruning = searches[0].pruningStats();
+        OrderingStats ordering = searches[0].orderingStats();
+        for (int i = 0; i < pending.size(); i++) {
+            SearchInfo helper;
+            try {
+                helper = pending.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falha numa thread de pesquisa", e.getCause());
+            }
+            nodes += helper.nodes();
+            pruning = pruning.plus(searches[i + 1].pruningStats());
+            ordering = ordering.plus(searches[i + 1].orderingStats());
+            if (helper.depth() > best.depth() && helper.pv().length > 0)
+                best = helper;
+        }
+        setStats(pruning, ordering);
+        return new SearchInfo(best.depth(), best.score(), best.pv(), nodes, main.timeMillis());
+    }
+
+    private synchronized void setStats(PruningStats pruning, OrderingStats ordering) {
+        pruningStats = pruning;
+        orderingStats = ordering;
+        long hits = 0, misses = 0;
+        for (PawnTable pawns : pawnTables) {
+            hits += pawns.hits();
+            misses += pawns.misses();
+        }
+        long entries = pawnTables.length == 0 ? 0 : pawnTables[0].capacity();
+        pawnHashStats = new PawnHashStats(pawnTables.length, entries,
+                pawnTables.length * entries * PawnTable.BYTES_PER_ENTRY / 1024, hits, misses);
+    }
+
+    private static SearchLimits helperLimits(SearchLimits limits) {
+        return new SearchLimits(limits.depth(), 0, limits.hardTimeMillis());
+    }
+
+    private synchronized void finish(Search[] searches) {
+        if (current == searches)
+            current = null;
+    }
+}
@@ -0,0 +1,23 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Board;
+
+//Static evaluation of a position: the neural network when one is loaded, otherwise the board's
+//incremental material and piece-square score plus the pawn structure, cached in the pawn table
+final class Evaluation {
+    private static final int MAX_SCORE = SearchInfo.MATE_BOUND - 1; // never mistaken for a mate
+    private static final int MAX_PHASE = Board.getMaxGamePhase(); // the board's own phase scale
+
+    private Evaluation() {}
+
+    // Score in centipawns from the point of view of the given side
+    static int evaluate(Board board, NetworkAccumulator network, PawnTable pawns, boolean white) {
+        if (network != null)
+            return Math.max(-MAX_SCORE, Math.min(MAX_SCORE, network.evaluate(white)));
+        int slot = pawns.probe(board);
+        int phase = board.getGamePhase();
+        int eg = pawns.endgame(slot) + PawnStructure.passers(board, pawns.passed(slot));
+        int score = board.evaluate() + (pawns.midgame(slot) * phase + eg * (MAX_PHASE - phase)) / MAX_PHASE;
+        return white ? score : -score;
+    }
+}
@@ -0,0 +1,30 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * State of the engine's transposition table.
+ *
+ * @param megabytes size of the table
+ * @param entries number of entries it can hold
+ * @param permilleFull share of the entries written by the latest search, in thousandths (sampled)
+ * @param hits probes that found the position
+ * @param misses probes that did not
+ * @param overwrites stores that replaced an entry of another position
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public record HashStats(long megabytes, long entries, int permilleFull, long hits, long misses, long overwrites) {
+    /**
+     * Share of the probes that found the position, from 0 to 1.
+     */
+    public double hitRate() {
+        long probes = hits + misses;
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    @Override
+    public String toString() {
+        return megabytes + " MB, " + permilleFull / 10.0 + "% full, hits " + hits + ", misses " + misses
+                + String.format(" (%.1f%% hit rate)", hitRate() * 100) + ", overwrites " + overwrites;
+    }
+}
@@ -0,0 +1,328 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+import pt.isec.pa.chess.model.data.StaticExchange;
+import pt.isec.pa.chess.model.data.pieces.King;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Computer player based on Monte Carlo tree search (MCTS), an alternative to the alpha-beta {@link Engine}.
+ *
+ * <p>Each playout walks down the tree choosing children by UCT (mean result plus an exploration
+ * bonus for the less visited ones), expands the leaf once it has been visited before, scores it
+ * and backs the result up the path. A playout does not play random moves to the end of the game:
+ * it resolves the winning captures greedily (by static exchange evaluation) and turns the static
+ * evaluation into a win probability, which is far less noisy for chess.</p>
+ *
+ * <p>The search is tree-parallel: all threads of a fork-join pool share one tree. A thread going down
+ * a path adds a virtual loss to every node on it, so the other threads see the branch as worse for a
+ * moment and spread out over different branches instead of repeating the same playout.</p>
+ *
+ * <p>The tree lives in a {@link MonteCarloTree} arena of flat arrays, sized once from a memory budget.
+ * When it is full the tree stops growing, but playouts go on refining the nodes it has.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ *
+ * @see MonteCarloStats
+ */
+public class MonteCarloEngine {
+    /** Default memory budget of the tree, in megabytes. */
+    public static final int DEFAULT_MEMORY_MB = 64;
+    /** Largest memory budget of the tree, in megabytes. */
+    public static final int MAX_MEMORY_MB = 4096;
+
+    private static final double EXPLORATION = 1.0;  // UCT constant, for results between 0 and 1
+    private static final int VIRTUAL_LOSS = 3;      // visits a thread going through a node counts as lost
+    private static final int PLAYOUT_PLIES = 8;     // captures a playout resolves at most
+    private static final int MAX_PATH = SearchLimits.MAX_DEPTH * 2;
+    private static final long REPORT_INTERVAL = 200_000_000; // nanoseconds between two progress reports
+    private static final int MAX_SCORE = SearchInfo.MATE_BOUND - 1;
+
+    private ForkJoinPool pool;
+    private int threads = 1;
+    private MonteCarloTree tree = new MonteCarloTree(DEFAULT_MEMORY_MB);
+    private int megabytes = DEFAULT_MEMORY_MB;
+    private final LongAdder playouts = new LongAdder();
+    private volatile boolean stopped;
+    private MonteCarloStats stats = MonteCarloStats.NONE;
+
+    /**
+     * Sets the number of threads; applies from the next search.
+     *
+     * @param threads number of threads, from 1 to {@link Engine#MAX_THREADS}
+     */
+    public synchronized void setThreads(int threads) {
+        if (threads < 1 || threads > Engine.MAX_THREADS)
+            throw new IllegalArgumentException("Número de threads inválido: " + threads);
+        if (threads != this.threads && pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Gets the number of threads.
+     */
+    public synchronized int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the memory budget of the tree; applies from the next search.
+     *
+     * @param megabytes budget in megabytes, from 1 to {@link #MAX_MEMORY_MB}
+     */
+    public synchronized void setMemory(int megabytes) {
+        if (megabytes < 1 || megabytes > MAX_MEMORY_MB)
+            throw new IllegalArgumentException("Memória inválida: " + megabytes + " MB");
+        if (megabytes != this.megabytes) {
+            this.megabytes = megabytes;
+            tree = null; // let the old arena go before the new one is allocated
+            tree = new MonteCarloTree(megabytes);
+        }
+    }
+
+    /**
+     * Gets the memory budget of the tree, in megabytes.
+     */
+    public synchronized int getMemory() {
+        return megabytes;
+    }
+
+    /**
+     * Gets the playout rate and tree size of the last search.
+     */
+    public synchronized MonteCarloStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Searches a position on the pool's threads, the calling thread waiting for the result.
+     * Only the time limit applies (the soft one, as there are no iterations to wait for);
+     * without one, the search runs until {@link #stop()}.
+     *
+     * @param position position to search, with its side to move (left unchanged)
+     * @param limits time limit
+     * @param listener receives the progress about every 200 ms, may be null
+     * @return the most visited move, with its line and score
+     */
+    public synchronized SearchInfo search(Board position, SearchLimits limits, Consumer<SearchInfo> listener) {
+        long start = System.nanoTime();
+        long deadline = limits.hasTimeLimit() ? start + limits.timeMillis() * 1_000_000 : Long.MAX_VALUE;
+        stopped = false;
+        playouts.reset();
+
+        tree.clear();
+        MoveList rootMoves = new MoveList();
+        int n = MoveGenerator.generate(position, position.isWhiteToMove(), rootMoves);
+        if (n == 0) {
+            stats = new MonteCarloStats(0, 0, 1, tree.capacity());
+            return new SearchInfo(0, 0, new int[0], 0, 0);
+        }
+        tree.tryLock(0);
+        tree.expand(0, toArray(rootMoves, n), n);
+
+        if (pool == null)
+            pool = new ForkJoinPool(threads);
+        List<ForkJoinTask<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Board board = position.clone();
+            Consumer<SearchInfo> reporter = i == 0 ? listener : null;
+            workers.add(pool.submit(() -> work(board, start, deadline, reporter)));
+        }
+        for (ForkJoinTask<?> worker : workers)
+            worker.join();
+
+        long time = (System.nanoTime() - start) / 1_000_000;
+        stats = new MonteCarloStats(playouts.sum(), time, tree.size(), tree.capacity());
+        return info(start);
+    }
+
+    /**
+     * Asks the running search to finish; it returns the best move found so far.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Stops the running search and releases the threads.
+     */
+    public synchronized void shutdown() {
+        stop();
+        if (pool != null)
+            pool.shutdown();
+    }
+
+    // One thread: playouts until stopped or out of time, with its own board and buffers
+    private void work(Board board, long start, long deadline, Consumer<SearchInfo> listener) {
+        int[] path = new int[MAX_PATH];
+        MoveList moves = new MoveList();
+        int[] buffer = new int[256];
+        int[] gains = new int[StaticExchange.MAX_CAPTURES];
+        long lastReport = start;
+        for (long done = 0; !stopped; done++) {
+            playout(board, path, moves, buffer, gains);
+            playouts.increment();
+            if ((done & 63) == 63) {
+                long now = System.nanoTime();
+                if (now > deadline)
+                    break;
+                if (listener != null && now - lastReport > REPORT_INTERVAL) {
+                    lastReport = now;
+                    listener.accept(info(start));
+                }
+            }
+        }
+    }
+
+    private void playout(Board board, int[] path, MoveList moves, int[] buffer, int[] gains) {
+        int node = 0;
+        int depth = 0;
+        path[0] = 0;
+        tree.addVirtualLoss(0, VIRTUAL_LOSS);
+
+        // Selection and expansion
+        int count;
+        while (true) {
+            count = tree.children(node);
+            if (count == MonteCarloTree.UNEXPANDED && tree.visits(node) > VIRTUAL_LOSS && tree.tryLock(node)) {
+                int n = MoveGenerator.generate(board, board.isWhiteToMove(), moves);
+                count = tree.expand(node, toArray(moves, n, buffer), n) ? n : MonteCarloTree.UNEXPANDED;
+            }
+            if (count <= 0 || depth == MAX_PATH - 1)
+                break;
+            node = select(node, count);
+            board.makeMove(tree.move(node));
+            path[++depth] = node;
+            tree.addVirtualLoss(node, VIRTUAL_LOSS);
+        }
+
+        // Simulation: the result for the side to move at the leaf
+        long result;
+        if (count == 0) {
+            King king = board.getKing(board.isWhiteToMove());
+            result = king != null && king.isInCheck() ? 0 : MonteCarloTree.ONE / 2;
+        } else {
+            result = simulate(board, moves, gains);
+        }
+
+        // Backpropagation: each node is valued for the side that moved into it
+        long value = MonteCarloTree.ONE - result;
+        for (int d = depth; d >= 0; d--) {
+            tree.update(path[d], VIRTUAL_LOSS, value);
+            value = MonteCarloTree.ONE - value;
+            if (d > 0)
+                board.unmakeMove();
+        }
+    }
+
+    // UCT: mean result plus an exploration bonus; virtual losses count as visits with no result
+    private int select(int node, int count) {
+        int first = tree.firstChild(node);
+        double logParent = Math.log(Math.max(1, tree.visits(node)));
+        int best = first;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + count; child++) {
+            int visits = tree.visits(child);
+            if (visits == 0)
+                return child;
+            double mean = (double) tree.value(child) / ((double) visits * MonteCarloTree.ONE);
+            double score = mean + EXPLORATION * Math.sqrt(logParent / visits);
+            if (score > bestScore) {
+                bestScore = score;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // Plays the best winning capture while there is one, then scores the position
+    private long simulate(Board board, MoveList captures, int[] gains) {
+        int plies = 0;
+        while (plies < PLAYOUT_PLIES) {
+            int n = MoveGenerator.generateCaptures(board, board.isWhiteToMove(), captures);
+            int best = Move.NONE;
+            int bestGain = 0;
+            for (int i = 0; i < n; i++) {
+                int gain = StaticExchange.evaluate(board, captures.get(i), gains);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    best = captures.get(i);
+                }
+            }
+            if (best == Move.NONE)
+                break;
+            board.makeMove(best);
+            plies++;
+        }
+
+        int score = board.isWhiteToMove() ? board.evaluate() : -board.evaluate();
+        if (plies % 2 == 1)
+            score = -score; // back to the side to move at the leaf
+        for (int i = 0; i < plies; i++)
+            board.unmakeMove();
+        return winProbability(score);
+    }
+
+    // Same logistic curve as the evaluation bar: +400 centipawns is about 91%
+    private static long winProbability(int centipawns) {
+        return Math.round(MonteCarloTree.ONE / (1 + Math.pow(10, -centipawns / 400.0)));
+    }
+
+    private static int centipawns(double probability) {
+        double p = Math.min(Math.max(probability, 1e-6), 1 - 1e-6);
+        long score = Math.round(400 * Math.log10(p / (1 - p)));
+        return (int) Math.max(-MAX_SCORE, Math.min(MAX_SCORE, score));
+    }
+
+    // The line of the most visited children, scored by the mean result of its first move
+    private SearchInfo info(long start) {
+        List<Integer> line = new ArrayList<>();
+        int node = 0;
+        int first = -1;
+        while (tree.children(node) > 0 && line.size() < MAX_PATH) {
+            int child = mostVisited(node);
+            if (tree.visits(child) == 0)
+                break;
+            line.add(tree.move(child));
+            if (first < 0)
+                first = child;
+            node = child;
+        }
+        int[] pv = line.stream().mapToInt(Integer::intValue).toArray();
+        int score = first < 0 ? 0 : centipawns((double) tree.value(first) / ((double) tree.visits(first) * MonteCarloTree.ONE));
+        return new SearchInfo(pv.length, score, pv, playouts.sum(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int mostVisited(int node) {
+        int first = tree.firstChild(node);
+        int best = first;
+        for (int child = first + 1; child < first + tree.children(node); child++) {
+            if (tree.visits(child) > tree.visits(best))
+                best = child;
+        }
+        return best;
+    }
+
+    private static int[] toArray(MoveList moves, int n) {
+        return toArray(moves, n, new int[n]);
+    }
+
+    private static int[] toArray(MoveList moves, int n, int[] buffer) {
+        for (int i = 0; i < n; i++)
+            buffer[i] = moves.get(i);
+        return buffer;
+    }
+}
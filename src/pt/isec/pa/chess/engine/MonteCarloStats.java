@@ -0,0 +1,52 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * Figures of the last Monte Carlo tree search.
+ *
+ * @param playouts playouts run, all threads together
+ * @param timeMillis time the search took
+ * @param nodes nodes of the tree
+ * @param capacity nodes the memory budget can hold
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public record MonteCarloStats(long playouts, long timeMillis, int nodes, int capacity) {
+    /** Figures before any search. */
+    public static final MonteCarloStats NONE = new MonteCarloStats(0, 0, 0, 0);
+
+    /**
+     * Playouts per second.
+     */
+    public long playoutsPerSecond() {
+        return playouts * 1000 / Math.max(1, timeMillis);
+    }
+
+    /**
+     * Memory taken by each node of the tree, in bytes.
+     */
+    public int bytesPerNode() {
+        return MonteCarloTree.BYTES_PER_NODE;
+    }
+
+    /**
+     * Memory reserved for the tree, in bytes.
+     */
+    public long memoryBytes() {
+        return (long) capacity * bytesPerNode();
+    }
+
+    /**
+     * Whether the tree filled its memory budget, after which it stopped growing.
+     */
+    public boolean isFull() {
+        return nodes >= capacity;
+    }
+
+    @Override
+    public String toString() {
+        return playouts + " playouts (" + playoutsPerSecond() + "/s), " + nodes + "/" + capacity + " nodes"
+                + (isFull() ? " (full)" : "") + ", " + bytesPerNode() + " bytes per node, "
+                + memoryBytes() / (1024 * 1024) + " MB";
+    }
+}
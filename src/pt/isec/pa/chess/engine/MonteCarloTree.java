@@ -0,0 +1,156 @@
+package pt.isec.pa.chess.engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Node arena of the Monte Carlo tree search, shared by all its threads.
+ *
+ * <p>Nodes are indexes into flat primitive arrays, one array per field, allocated once for the
+ * whole budget: no object is created per node, and the garbage collector never sees the tree.
+ * The children of a node take a contiguous block of indexes, reserved with a single atomic add
+ * when the node is expanded; node 0 is the root.</p>
+ *
+ * <p>Values are from the point of view of the side that played the move into the node, as win
+ * probabilities in fixed point ({@link #ONE} is a win). Counters are updated with atomic
+ * read-modify-write operations, so the virtual losses added during selection are always
+ * taken back exactly.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+final class MonteCarloTree {
+    /** Fixed-point value of a win. */
+    static final long ONE = 1 << 16;
+    /** Bytes of the arrays per node: move, first child, children, visits (ints) and value (long). */
+    static final int BYTES_PER_NODE = 4 * Integer.BYTES + Long.BYTES;
+
+    static final int UNEXPANDED = -2;
+    static final int EXPANDING = -1; // another thread is generating the children
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int[] moves;      // move that leads to the node
+    private final int[] firstChild;
+    private final int[] children;   // number of children, or UNEXPANDED / EXPANDING
+    private final int[] visits;     // playouts through the node, virtual losses included
+    private final long[] values;    // sum of the playout results, fixed point
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param megabytes memory budget of the arrays
+     */
+    MonteCarloTree(int megabytes) {
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) megabytes * 1024 * 1024 / BYTES_PER_NODE);
+        moves = new int[capacity];
+        firstChild = new int[capacity];
+        children = new int[capacity];
+        visits = new int[capacity];
+        values = new long[capacity];
+    }
+
+    /**
+     * Empties the tree, leaving only an unvisited root.
+     */
+    void clear() {
+        next.set(1);
+        init(0, 0);
+    }
+
+    private void init(int node, int move) {
+        moves[node] = move;
+        children[node] = UNEXPANDED;
+        visits[node] = 0;
+        values[node] = 0;
+    }
+
+    int capacity() {
+        return moves.length;
+    }
+
+    /**
+     * Number of nodes in use.
+     */
+    int size() {
+        return Math.min(next.get(), capacity());
+    }
+
+    int move(int node) {
+        return moves[node];
+    }
+
+    int firstChild(int node) {
+        return firstChild[node];
+    }
+
+    /**
+     * Number of children, or {@link #UNEXPANDED} / {@link #EXPANDING}; read with acquire semantics,
+     * so the children are fully written once their count is seen.
+     */
+    int children(int node) {
+        return (int) INTS.getAcquire(children, node);
+    }
+
+    int visits(int node) {
+        return (int) INTS.getOpaque(visits, node);
+    }
+
+    long value(int node) {
+        return (long) LONGS.getOpaque(values, node);
+    }
+
+    /**
+     * Claims the expansion of a node: only one thread gets true.
+     */
+    boolean tryLock(int node) {
+        return INTS.compareAndSet(children, node, UNEXPANDED, EXPANDING);
+    }
+
+    /**
+     * Gives a claimed node its children, or gives up the claim if the arena is full.
+     *
+     * @param node node claimed with {@link #tryLock}
+     * @param childMoves moves of the children
+     * @param count number of children (0 for a finished game)
+     * @return false if there was no room: the node stays a leaf
+     */
+    boolean expand(int node, int[] childMoves, int count) {
+        int first = next.getAndAdd(count);
+        if (first + count > capacity()) {
+            INTS.setRelease(children, node, UNEXPANDED);
+            return false;
+        }
+        for (int i = 0; i < count; i++)
+            init(first + i, childMoves[i]);
+        firstChild[node] = first;
+        INTS.setRelease(children, node, count);
+        return true;
+    }
+
+    /**
+     * Whether the arena has run out of room for new nodes.
+     */
+    boolean isFull() {
+        return next.get() >= capacity();
+    }
+
+    /**
+     * Counts a visit that has not returned a result yet, as a loss (virtual loss),
+     * so other threads are steered towards other branches meanwhile.
+     */
+    void addVirtualLoss(int node, int virtualLoss) {
+        INTS.getAndAdd(visits, node, virtualLoss);
+    }
+
+    /**
+     * Replaces the virtual loss of a visit by its result.
+     *
+     * @param result fixed-point value for the side that moved into the node
+     */
+    void update(int node, int virtualLoss, long result) {
+        INTS.getAndAdd(visits, node, 1 - virtualLoss);
+        LONGS.getAndAdd(values, node, result);
+    }
+}
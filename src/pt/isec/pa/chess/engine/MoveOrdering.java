@@ -0,0 +1,180 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveList;
+import pt.isec.pa.chess.model.data.Piece;
+import pt.isec.pa.chess.model.data.PieceFactory;
+import pt.isec.pa.chess.model.data.StaticExchange;
+
+/**
+ * Move ordering of one search thread. Alpha-beta cuts off as soon as a move is good enough,
+ * so the sooner the best move is tried, the fewer moves are searched. The order is:
+ * <ol>
+ *     <li>the previous principal variation move, then the transposition table move;</li>
+ *     <li>captures and promotions that do not lose material, most valuable victim first and,
+ *     among those, least valuable attacker first (MVV-LVA);</li>
+ *     <li>the two killer moves of the ply (quiet moves that caused a cutoff in a sibling node);</li>
+ *     <li>the countermove: the quiet move that last refuted the opponent's previous move;</li>
+ *     <li>the other quiet moves, by history score (how often and how deep each one caused a cutoff);</li>
+ *     <li>captures that lose material.</li>
+ * </ol>
+ *
+ * <p>All tables are flat primitive arrays, allocated once per search: nothing is allocated per node.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+final class MoveOrdering {
+    private static final int PIECES = 2 * PieceFactory.PieceType.values().length; // see Board.bitboardIndex
+    private static final int HASH_MOVE = Integer.MAX_VALUE - 1;
+    private static final int GOOD_CAPTURE = 3_000_000;
+    private static final int FIRST_KILLER = 2_000_002;
+    private static final int SECOND_KILLER = 2_000_001;
+    private static final int COUNTERMOVE = 2_000_000;
+    private static final int HISTORY_LIMIT = 1_000_000; // quiet moves always stay below the countermove
+    private static final int BAD_CAPTURE = -1_000_000;
+
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] RANK = {6, 5, 3, 2, 4, 1};
+
+    private final Board board;
+    private final int[] killers;                           // [ply * 2 + slot]
+    private final int[] history = new int[2 * 64 * 64];    // [colour][from][to], butterfly board
+    private final int[] countermoves = new int[PIECES * 64]; // [piece][to] of the previous move
+    private final int[] exchangeGains = new int[StaticExchange.MAX_CAPTURES];
+
+    private long cutoffs, firstMoveCutoffs;
+
+    /**
+     * @param board board of the search
+     * @param maxPly deepest ply the search can reach
+     */
+    MoveOrdering(Board board, int maxPly) {
+        this.board = board;
+        killers = new int[maxPly * 2];
+    }
+
+    /**
+     * Scores and sorts the moves of a node, best first.
+     *
+     * @param moves moves of the node
+     * @param n number of moves
+     * @param ply ply of the node
+     * @param pvMove previous principal variation move of this ply, or {@code Move.NONE}
+     * @param hashMove transposition table move, or {@code Move.NONE}
+     * @param previousMove opponent's move that led to the node (already played), or {@code Move.NONE}
+     * @param scores buffer for the scores, at least n long
+     */
+    void order(MoveList moves, int n, int ply, int pvMove, int hashMove, int previousMove, int[] scores) {
+        int counter = countermove(previousMove);
+        boolean white = board.isWhiteToMove();
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == pvMove) {
+                score = Integer.MAX_VALUE;
+            } else if (move == hashMove) {
+                score = HASH_MOVE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                score = captureScore(move);
+            } else if (move == killers[ply * 2]) {
+                score = FIRST_KILLER;
+            } else if (move == killers[ply * 2 + 1]) {
+                score = SECOND_KILLER;
+            } else if (move == counter) {
+                score = COUNTERMOVE;
+            } else {
+                score = history[historyIndex(white, move)];
+            }
+            scores[i] = score;
+        }
+        sort(moves, n, scores);
+    }
+
+    // MVV-LVA, with the exchange evaluation only to tell losing captures apart
+    private int captureScore(int move) {
+        Piece attacker = board.getPieceAt(Move.from(move));
+        Piece victim = board.getPieceAt(Move.to(move)); // null for en passant and quiet promotions
+        int victimRank = Move.isEnPassant(move) ? RANK[PieceFactory.PieceType.PAWN.ordinal()]
+                : victim == null ? 0 : RANK[victim.getType().ordinal()];
+        int mvvLva = victimRank * 8 - RANK[attacker.getType().ordinal()];
+        if (Move.isPromotion(move))
+            mvvLva += RANK[Move.promotion(move).ordinal()] * 8;
+
+        boolean safe = victimRank >= RANK[attacker.getType().ordinal()]
+                || StaticExchange.evaluate(board, move, exchangeGains) >= 0;
+        return (safe ? GOOD_CAPTURE : BAD_CAPTURE) + mvvLva;
+    }
+
+    /**
+     * Records a beta cutoff: updates the statistics and, for a quiet move, the killer,
+     * history and countermove tables.
+     *
+     * @param move move that caused the cutoff (not played on the board any more)
+     * @param moveIndex position of the move in the node's ordered list
+     * @param ply ply of the node
+     * @param depth depth left at the node
+     * @param previousMove opponent's move that led to the node, or {@code Move.NONE}
+     */
+    void cutoff(int move, int moveIndex, int ply, int depth, int previousMove) {
+        cutoffs++;
+        if (moveIndex == 0)
+            firstMoveCutoffs++;
+        if (Move.isCapture(move) || Move.isPromotion(move))
+            return;
+
+        if (killers[ply * 2] != move) {
+            killers[ply * 2 + 1] = killers[ply * 2];
+            killers[ply * 2] = move;
+        }
+
+        int index = historyIndex(board.isWhiteToMove(), move);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++)
+                history[i] /= 2; // keeps the table bounded and lets recent cutoffs weigh more
+        }
+
+        if (previousMove != Move.NONE) {
+            Piece previous = board.getPieceAt(Move.to(previousMove));
+            if (previous != null)
+                countermoves[Board.bitboardIndex(previous.getType(), previous.isWhite()) * 64 + Move.to(previousMove)] = move;
+        }
+    }
+
+    private int countermove(int previousMove) {
+        if (previousMove == Move.NONE)
+            return Move.NONE;
+        Piece previous = board.getPieceAt(Move.to(previousMove));
+        return previous == null ? Move.NONE
+                : countermoves[Board.bitboardIndex(previous.getType(), previous.isWhite()) * 64 + Move.to(previousMove)];
+    }
+
+    private static int historyIndex(boolean white, int move) {
+        return (white ? 0 : 64 * 64) + Move.from(move) * 64 + Move.to(move);
+    }
+
+    long cutoffs() {
+        return cutoffs;
+    }
+
+    long firstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    // Insertion sort by score, highest first: move lists are short and mostly ordered already
+    static void sort(MoveList moves, int n, int[] scores) {
+        for (int i = 1; i < n; i++) {
+            int move = moves.get(i), score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves.set(j + 1, moves.get(j));
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves.set(j + 1, move);
+            scores[j + 1] = score;
+        }
+    }
+}
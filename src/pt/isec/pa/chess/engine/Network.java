@@ -0,0 +1,238 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.PieceFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * Weights of an efficiently updatable neural network (NNUE) that evaluates positions in place
+ * of the hand-written evaluation. The network has three layers, all in integer arithmetic:
+ * <ol>
+ *     <li>a feature transformer: for each side, the sum of one weight row per piece other than the
+ *     kings, chosen by that side's king square, the piece and its square (HalfKP features, from the
+ *     side's own point of view). The sums are the accumulators, kept up to date move by move by a
+ *     {@link NetworkAccumulator};</li>
+ *     <li>a dense layer over both accumulators, side to move first, each clipped to 0..{@value #ACTIVATION_MAX};</li>
+ *     <li>an output neuron, in centipawns times {@value #OUTPUT_SCALE}, for the side to move.</li>
+ * </ol>
+ *
+ * <p>File format, little-endian: the magic number and version (ints), the accumulator size and the
+ * dense layer size (ints), then the feature weights ({@link #FEATURES} rows of int16), the feature
+ * biases (int16), the dense weights (one row of int16 per neuron), the dense biases (int32), the
+ * output weights (int16) and the output bias (int32). The file is read through a memory mapping.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ *
+ * @see Engine#setNetwork(Network)
+ */
+public final class Network {
+    /** Number of input features per side: king square x 10 pieces x square. */
+    public static final int FEATURES = 64 * 10 * 64;
+    /** Largest activation after a clipped ReLU. */
+    public static final int ACTIVATION_MAX = 127;
+    /** The dense layer's sums are divided by 2 to this power before their clipped ReLU. */
+    public static final int DENSE_SHIFT = 6;
+    /** The output neuron gives centipawns times this. */
+    public static final int OUTPUT_SCALE = 16;
+
+    private static final int MAGIC = 0x4E4E5545; // "NNUE" read as a big-endian int
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int MAX_SIZE = 4096;
+
+    private final int hidden;             // size of each side's accumulator
+    private final int dense;              // neurons of the dense layer
+    final short[] featureWeights;         // [feature][hidden]
+    final short[] featureBiases;          // [hidden]
+    private final int[] denseWeights;     // [2 * hidden][neuron]: transposed from the file, widened from int16
+    private final int[] denseBiases;      // [neuron]
+    private final int[] outputWeights;    // [neuron], widened from int16
+    private final int outputBias;
+
+    private Network(int hidden, int dense, short[] featureWeights, short[] featureBiases,
+                    int[] denseWeights, int[] denseBiases, int[] outputWeights, int outputBias) {
+        this.hidden = hidden;
+        this.dense = dense;
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+        this.denseWeights = denseWeights;
+        this.denseBiases = denseBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * Reads a network from a file.
+     *
+     * @param file network file, in the format described above
+     * @return the network
+     * @throws IOException if the file cannot be read or is not a network file
+     */
+    public static Network load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES)
+                throw new IOException("Ficheiro de rede inválido: " + file);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer in = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            int magic = in.getInt(), version = in.getInt(), hidden = in.getInt(), dense = in.getInt();
+            if (magic != MAGIC || version != VERSION || hidden < 1 || hidden > MAX_SIZE || dense < 1 || dense > MAX_SIZE
+                    || size != fileSize(hidden, dense))
+                throw new IOException("Ficheiro de rede inválido: " + file);
+
+            // Copied into arrays once: the kernels work on heap arrays, and the dense layers'
+            // weights are widened to int32 so they need no conversion on every evaluation,
+            // the first one also transposed so each input's weights for all the neurons are together
+            short[] featureWeights = new short[FEATURES * hidden];
+            short[] featureBiases = new short[hidden];
+            in.asShortBuffer().get(featureWeights).get(featureBiases);
+            in.position(in.position() + (featureWeights.length + featureBiases.length) * Short.BYTES);
+            int[] denseWeights = transpose(readShorts(in, dense * 2 * hidden), dense, 2 * hidden);
+            int[] denseBiases = new int[dense];
+            in.asIntBuffer().get(denseBiases);
+            in.position(in.position() + dense * Integer.BYTES);
+            int[] outputWeights = readShorts(in, dense);
+            int outputBias = in.getInt();
+            return new Network(hidden, dense, featureWeights, featureBiases, denseWeights, denseBiases, outputWeights, outputBias);
+        }
+    }
+
+    private static int[] readShorts(ByteBuffer in, int length) {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++)
+            values[i] = in.getShort();
+        return values;
+    }
+
+    // [rows][columns] into [columns][rows]
+    private static int[] transpose(int[] matrix, int rows, int columns) {
+        int[] transposed = new int[matrix.length];
+        for (int row = 0; row < rows; row++)
+            for (int column = 0; column < columns; column++)
+                transposed[column * rows + row] = matrix[row * columns + column];
+        return transposed;
+    }
+
+    /**
+     * Writes the network to a file, in the format {@link #load} reads.
+     *
+     * @param file file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate((int) fileSize(hidden, dense)).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(VERSION).putInt(hidden).putInt(dense);
+        for (short[] values : new short[][]{featureWeights, featureBiases})
+            for (short value : values)
+                out.putShort(value);
+        for (int weight : transpose(denseWeights, 2 * hidden, dense))
+            out.putShort((short) weight);
+        for (int bias : denseBiases)
+            out.putInt(bias);
+        for (int weight : outputWeights)
+            out.putShort((short) weight);
+        out.putInt(outputBias);
+        out.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining())
+                channel.write(out);
+        }
+    }
+
+    private static long fileSize(int hidden, int dense) {
+        return HEADER_BYTES
+                + ((long) FEATURES * hidden + hidden + (long) dense * 2 * hidden + dense) * Short.BYTES
+                + ((long) dense + 1) * Integer.BYTES;
+    }
+
+    // A network with small random weights, for tests and benchmarks
+    static Network random(int hidden, int dense, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        short[] featureWeights = randomShorts(random, FEATURES * hidden, 32);
+        short[] featureBiases = randomShorts(random, hidden, 64);
+        int[] denseWeights = random.ints(dense * 2 * hidden, -64, 65).toArray();
+        int[] denseBiases = random.ints(dense, -256, 256).toArray();
+        int[] outputWeights = random.ints(dense, -64, 65).toArray();
+        return new Network(hidden, dense, featureWeights, featureBiases, denseWeights, denseBiases, outputWeights,
+                random.nextInt(-256, 256));
+    }
+
+    private static short[] randomShorts(SplittableRandom random, int length, int bound) {
+        short[] values = new short[length];
+        for (int i = 0; i < length; i++)
+            values[i] = (short) random.nextInt(-bound, bound + 1);
+        return values;
+    }
+
+    /**
+     * Size of each side's accumulator.
+     */
+    public int getHiddenSize() {
+        return hidden;
+    }
+
+    /**
+     * Number of neurons of the dense layer.
+     */
+    public int getDenseSize() {
+        return dense;
+    }
+
+    /**
+     * Row of the feature weights for a piece, as seen from one side.
+     *
+     * @param white side whose accumulator the feature belongs to
+     * @param kingSquare that side's king square
+     * @param piece piece, as a {@link Board#bitboardIndex} other than a king
+     * @param square square of the piece
+     * @return offset of the row in the feature weights
+     */
+    int featureOffset(boolean white, int kingSquare, int piece, int square) {
+        int type = piece % PieceFactory.PieceType.values().length; // KING is 0, see Board.bitboardIndex
+        boolean own = (piece < PieceFactory.PieceType.values().length) == white;
+        int pieceFeature = (type - 1) * 2 + (own ? 0 : 1);
+        int flip = white ? 0 : 56; // black sees the board upside down
+        return (((kingSquare ^ flip) * 10 + pieceFeature) * 64 + (square ^ flip)) * hidden;
+    }
+
+    /**
+     * Runs the dense layers over the accumulators.
+     *
+     * @param us accumulator of the side to move
+     * @param them accumulator of the other side
+     * @param buffer scratch buffer of at least {@code 2 * hidden + 2 * dense} values
+     * @param active scratch buffer of at least {@code 2 * hidden} values
+     * @param kernel vector operations
+     * @return score in centipawns for the side to move
+     */
+    int forward(short[] us, short[] them, int[] buffer, int[] active, NetworkKernel kernel) {
+        kernel.clippedRelu(us, buffer, 0, (short) ACTIVATION_MAX);
+        kernel.clippedRelu(them, buffer, hidden, (short) ACTIVATION_MAX);
+        int inputs = 2 * hidden, sums = inputs + dense;
+        // Input by input rather than neuron by neuron: the inputs the clipped ReLU zeroed
+        // (often most of them) are skipped, and no sum has to be reduced across lanes.
+        // The others are listed first without branching, as whether an input is zero is unpredictable.
+        int count = 0;
+        for (int input = 0; input < inputs; input++) {
+            active[count] = input;
+            count += buffer[input] != 0 ? 1 : 0;
+        }
+        System.arraycopy(denseBiases, 0, buffer, sums, dense);
+        kernel.affine(buffer, 0, active, count, denseWeights, sums, dense);
+        for (int neuron = 0; neuron < dense; neuron++)
+            buffer[inputs + neuron] = Math.max(0, Math.min(ACTIVATION_MAX, buffer[sums + neuron] >> DENSE_SHIFT));
+        int output = outputBias + kernel.dot(buffer, inputs, outputWeights, 0, dense);
+        return output / OUTPUT_SCALE;
+    }
+}
@@ -0,0 +1,148 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.BoardObserver;
+import pt.isec.pa.chess.model.data.PieceFactory;
+
+import java.util.Arrays;
+
+/**
+ * The first layer of a {@link Network} for one board, kept up to date as pieces move.
+ *
+ * <p>Attached to a board as its {@link BoardObserver}, it adds the feature row of every piece
+ * placed and subtracts the row of every piece lifted, on both sides' accumulators: a move costs
+ * two or three row updates per side, and taking it back as many again. Only a king move changes
+ * every feature of its side (they depend on the king square); that side's accumulator is then
+ * marked stale and rebuilt from the bitboards on the next evaluation, while the other side's
+ * keeps being updated incrementally.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+final class NetworkAccumulator implements BoardObserver {
+    private static final int PIECE_TYPES = PieceFactory.PieceType.values().length;
+    private static final int KING = PieceFactory.PieceType.KING.ordinal();
+
+    private final Network network;
+    private final NetworkKernel kernel;
+    private final Board board;
+    private final short[][] values;                      // [0] white's accumulator, [1] black's
+    private final boolean[] stale = {true, true};        // rebuilt before the next evaluation
+    private final int[] buffer;                          // activations of the dense layers
+    private final int[] active;                          // indexes of the non-zero inputs of the first one
+    private long updates, refreshes;
+
+    /**
+     * Creates the accumulator of a board and attaches it as the board's observer.
+     *
+     * @param network network to evaluate with
+     * @param board board to follow; from now on, only this accumulator may observe it
+     * @param kernel vector operations
+     */
+    NetworkAccumulator(Network network, Board board, NetworkKernel kernel) {
+        this.network = network;
+        this.kernel = kernel;
+        this.board = board;
+        values = new short[2][network.getHiddenSize()];
+        buffer = new int[2 * network.getHiddenSize() + 2 * network.getDenseSize()];
+        active = new int[2 * network.getHiddenSize()];
+        board.setObserver(this);
+    }
+
+    @Override
+    public void pieceAdded(int piece, int square) {
+        update(piece, square, true);
+    }
+
+    @Override
+    public void pieceRemoved(int piece, int square) {
+        update(piece, square, false);
+    }
+
+    private void update(int piece, int square, boolean added) {
+        if (piece % PIECE_TYPES == KING) {
+            stale[piece < PIECE_TYPES ? 0 : 1] = true;
+            return;
+        }
+        for (int side = 0; side < 2; side++) {
+            if (stale[side])
+                continue; // rebuilt anyway
+            int offset = network.featureOffset(side == 0, kingSquare(side == 0), piece, square);
+            if (added)
+                kernel.add(values[side], network.featureWeights, offset);
+            else
+                kernel.subtract(values[side], network.featureWeights, offset);
+            updates++;
+        }
+    }
+
+    /**
+     * Evaluates the board.
+     *
+     * @param white side whose point of view the score takes
+     * @return score in centipawns, positive when that side is better
+     */
+    int evaluate(boolean white) {
+        for (int side = 0; side < 2; side++) {
+            if (stale[side])
+                refresh(side);
+        }
+        int us = white ? 0 : 1;
+        return network.forward(values[us], values[1 - us], buffer, active, kernel);
+    }
+
+    // Rebuilds a side's accumulator from the biases and every piece but the kings
+    private void refresh(int side) {
+        boolean white = side == 0;
+        int king = kingSquare(white);
+        short[] accumulator = values[side];
+        System.arraycopy(network.featureBiases, 0, accumulator, 0, accumulator.length);
+        for (int piece = 0; piece < 2 * PIECE_TYPES; piece++) {
+            if (piece % PIECE_TYPES == KING)
+                continue;
+            PieceFactory.PieceType type = PieceFactory.PieceType.values()[piece % PIECE_TYPES];
+            long bits = board.getBitboard(type, piece < PIECE_TYPES);
+            while (bits != 0) {
+                kernel.add(accumulator, network.featureWeights,
+                        network.featureOffset(white, king, piece, Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        stale[side] = false;
+        refreshes++;
+    }
+
+    // Square of a side's king; a board without one (only while editing) counts it on a8
+    private int kingSquare(boolean white) {
+        return Long.numberOfTrailingZeros(board.getBitboard(PieceFactory.PieceType.KING, white)) & 63;
+    }
+
+    /**
+     * Checks the incremental accumulators against accumulators rebuilt from scratch.
+     */
+    boolean isConsistent() {
+        for (int side = 0; side < 2; side++) {
+            if (stale[side])
+                continue;
+            short[] kept = values[side].clone();
+            refresh(side);
+            if (!Arrays.equals(kept, values[side]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Row updates made incrementally, one per side and piece placed or lifted.
+     */
+    long updates() {
+        return updates;
+    }
+
+    /**
+     * Accumulators rebuilt from scratch, after a king move.
+     */
+    long refreshes() {
+        return refreshes;
+    }
+}
@@ -0,0 +1,82 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * Integer vector operations of the neural network evaluation: int16 accumulators, int32 dense layers.
+ * Two implementations give bit-identical results: {@link VectorKernel} uses SIMD through the
+ * incubating Vector API, {@link ScalarKernel} plain loops for when that module is not available.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ *
+ * @see Network
+ */
+interface NetworkKernel {
+    /**
+     * Adds a row of weights to an accumulator, wrapping around on overflow.
+     *
+     * @param values accumulator, updated in place
+     * @param weights weight matrix
+     * @param offset start of the row in the matrix; the row is as long as the accumulator
+     */
+    void add(short[] values, short[] weights, int offset);
+
+    /**
+     * Subtracts a row of weights from an accumulator, wrapping around on overflow.
+     *
+     * @param values accumulator, updated in place
+     * @param weights weight matrix
+     * @param offset start of the row in the matrix; the row is as long as the accumulator
+     */
+    void subtract(short[] values, short[] weights, int offset);
+
+    /**
+     * Clipped ReLU: copies int16 values into an int32 buffer, clamped between 0 and {@code max}.
+     *
+     * @param values values to clamp
+     * @param target buffer for the result
+     * @param offset start of the result in the buffer
+     * @param max largest value
+     */
+    void clippedRelu(short[] values, int[] target, int offset, short max);
+
+    /**
+     * Sparse matrix-vector product added to a vector of sums: every output gains the sum, over the
+     * listed inputs, of the input times its weight for that output. Unlisted inputs count as zero.
+     *
+     * @param values array of the inputs and of the sums, which are updated in place
+     * @param inputOffset start of the inputs
+     * @param active indexes of the inputs to use, from the start of the inputs, in increasing order
+     * @param count number of indexes
+     * @param weights weight matrix, one row of {@code outputs} weights per input
+     * @param outputOffset start of the sums
+     * @param outputs number of sums
+     */
+    void affine(int[] values, int inputOffset, int[] active, int count, int[] weights, int outputOffset, int outputs);
+
+    /**
+     * Dot product of two int32 vectors.
+     *
+     * @param a first vector's array
+     * @param aOffset start of the first vector
+     * @param b second vector's array
+     * @param bOffset start of the second vector
+     * @param length number of values
+     * @return the sum of the products, wrapping around on overflow
+     */
+    int dot(int[] a, int aOffset, int[] b, int bOffset, int length);
+
+    /**
+     * The fastest kernel this JVM can run: the SIMD one when the {@code jdk.incubator.vector}
+     * module was added (e.g. with {@code --add-modules jdk.incubator.vector}), the scalar one otherwise.
+     */
+    static NetworkKernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return new VectorKernel();
+            } catch (LinkageError e) {
+                // the module is there but its classes could not be used: fall back to plain loops
+            }
+        }
+        return new ScalarKernel();
+    }
+}
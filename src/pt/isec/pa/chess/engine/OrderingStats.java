@@ -0,0 +1,35 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * Move ordering quality of a search (all threads together): in a well ordered search, almost
+ * every node that cuts off does so on the first move tried.
+ *
+ * @param cutoffs nodes of the main search (not the quiescence search) that failed high
+ * @param firstMoveCutoffs those that failed high on the first move tried
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public record OrderingStats(long cutoffs, long firstMoveCutoffs) {
+    /** No cutoffs. */
+    public static final OrderingStats NONE = new OrderingStats(0, 0);
+
+    /**
+     * Share of the cutoffs made by the first move, from 0 to 1.
+     */
+    public double firstMoveRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /**
+     * Sum of two sets of counters.
+     */
+    public OrderingStats plus(OrderingStats other) {
+        return new OrderingStats(cutoffs + other.cutoffs, firstMoveCutoffs + other.firstMoveCutoffs);
+    }
+
+    @Override
+    public String toString() {
+        return "cutoffs " + cutoffs + String.format(", %.1f%% on the first move", firstMoveRate() * 100);
+    }
+}
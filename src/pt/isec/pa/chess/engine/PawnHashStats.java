@@ -0,0 +1,32 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * State of the engine's pawn hash tables, one per search thread.
+ *
+ * @param tables number of tables
+ * @param entries slots of each table
+ * @param kilobytes memory taken by all the tables
+ * @param hits probes that found the pawn structure, over the searches that have finished
+ * @param misses probes that had to evaluate it
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public record PawnHashStats(int tables, long entries, long kilobytes, long hits, long misses) {
+    /** No tables yet. */
+    public static final PawnHashStats NONE = new PawnHashStats(0, 0, 0, 0, 0);
+
+    /**
+     * Share of the probes that found the pawn structure, from 0 to 1.
+     */
+    public double hitRate() {
+        long probes = hits + misses;
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    @Override
+    public String toString() {
+        return tables + " x " + entries + " entries (" + kilobytes + " KB), hits " + hits + ", misses " + misses
+                + String.format(" (%.1f%% hit rate)", hitRate() * 100);
+    }
+}
@@ -0,0 +1,122 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Attacks;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.PieceFactory;
+
+//Pawn-structure terms of the hand-written evaluation, in centipawns from white's point of view.
+//evaluate depends on the pawns alone, so PawnTable caches its result by pawn key; passers adds the
+//terms that also depend on the other pieces, from the cached mask of passed pawns.
+//Squares as in Board (row * 8 + col, a8 = 0): white pawns advance towards row 0, black ones towards row 7.
+final class PawnStructure {
+    private static final int DOUBLED_MG = -10, DOUBLED_EG = -25;
+    private static final int ISOLATED_MG = -8, ISOLATED_EG = -12;
+    private static final int BACKWARD_MG = -6, BACKWARD_EG = -10;
+    // By rank from the pawn's own side (index 1 is its starting rank)
+    private static final int[] PASSED_MG = {0, 2, 5, 8, 15, 30, 55, 0};
+    private static final int[] PASSED_EG = {0, 8, 12, 20, 35, 60, 100, 0};
+    private static final int[] BLOCKED_PASSER_EG = {0, 2, 4, 8, 14, 25, 40, 0};
+
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[][] FRONT = new long[2][64];   // [0] white, [1] black: squares ahead on the file
+    private static final long[][] PASSED = new long[2][64];  // the same, on the adjacent files too
+    private static final long[][] SUPPORT = new long[2][64]; // adjacent files, level with the pawn or behind
+
+    static {
+        long[] files = new long[8];
+        for (int sq = 0; sq < 64; sq++)
+            files[sq % 8] |= 1L << sq;
+        for (int col = 0; col < 8; col++)
+            ADJACENT_FILES[col] = (col > 0 ? files[col - 1] : 0L) | (col < 7 ? files[col + 1] : 0L);
+
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq / 8, col = sq % 8;
+            for (int other = 0; other < 64; other++) {
+                int otherRow = other / 8;
+                long bit = 1L << other;
+                boolean sameFile = other % 8 == col, adjacent = (ADJACENT_FILES[col] & bit) != 0;
+                if (sameFile && otherRow < row)
+                    FRONT[0][sq] |= bit;
+                if (sameFile && otherRow > row)
+                    FRONT[1][sq] |= bit;
+                if ((sameFile || adjacent) && otherRow < row)
+                    PASSED[0][sq] |= bit;
+                if ((sameFile || adjacent) && otherRow > row)
+                    PASSED[1][sq] |= bit;
+                if (adjacent && otherRow >= row)
+                    SUPPORT[0][sq] |= bit;
+                if (adjacent && otherRow <= row)
+                    SUPPORT[1][sq] |= bit;
+            }
+        }
+    }
+
+    private PawnStructure() {}
+
+    /**
+     * Static pawn-structure terms (doubled, isolated, backward and passed pawns) of a position;
+     * they depend on nothing but the pawns. Stores the middlegame and endgame scores and the mask
+     * of passed pawns of both sides in a slot of the pawn table.
+     */
+    static void evaluate(Board board, PawnTable table, int slot) {
+        long white = board.getBitboard(PieceFactory.PieceType.PAWN, true);
+        long black = board.getBitboard(PieceFactory.PieceType.PAWN, false);
+        int mg = 0, eg = 0;
+        long passed = 0L;
+
+        for (int side = 0; side < 2; side++) {
+            boolean isWhite = side == 0;
+            long own = isWhite ? white : black, enemy = isWhite ? black : white;
+            int sign = isWhite ? 1 : -1;
+            for (long bits = own; bits != 0; bits &= bits - 1) {
+                int sq = Long.numberOfTrailingZeros(bits);
+                int col = sq % 8, rank = isWhite ? 7 - sq / 8 : sq / 8;
+
+                if ((FRONT[side][sq] & own) != 0) {
+                    mg += sign * DOUBLED_MG;
+                    eg += sign * DOUBLED_EG;
+                }
+                if ((ADJACENT_FILES[col] & own) == 0) {
+                    mg += sign * ISOLATED_MG;
+                    eg += sign * ISOLATED_EG;
+                } else if ((SUPPORT[side][sq] & own) == 0) {
+                    // No pawn can ever defend it, and an enemy pawn stops it from catching up
+                    int stop = isWhite ? sq - 8 : sq + 8;
+                    if ((Attacks.pawn(stop, isWhite) & enemy) != 0) {
+                        mg += sign * BACKWARD_MG;
+                        eg += sign * BACKWARD_EG;
+                    }
+                }
+                if ((PASSED[side][sq] & enemy) == 0 && (FRONT[side][sq] & own) == 0) {
+                    passed |= 1L << sq;
+                    mg += sign * PASSED_MG[rank];
+                    eg += sign * PASSED_EG[rank];
+                }
+            }
+        }
+        table.store(slot, board.getPawnKey(), mg, eg, passed);
+    }
+
+    /**
+     * Terms of the passed pawns that depend on the other pieces too, so they cannot be cached:
+     * a passer whose next square is occupied loses part of its endgame bonus.
+     *
+     * @param passed mask of the passed pawns of both sides, from {@link #evaluate}
+     * @return endgame score, positive when white is better
+     */
+    static int passers(Board board, long passed) {
+        long white = board.getBitboard(PieceFactory.PieceType.PAWN, true);
+        long occupied = board.getOccupied();
+        int eg = 0;
+        // Each side's stop squares, all at once: one row up for white, one down for black
+        long blocked = ((passed & white) >>> 8 & occupied) << 8 | ((passed & ~white) << 8 & occupied) >>> 8;
+        for (long bits = blocked; bits != 0; bits &= bits - 1) {
+            int sq = Long.numberOfTrailingZeros(bits);
+            if ((white & 1L << sq) != 0)
+                eg -= BLOCKED_PASSER_EG[7 - sq / 8];
+            else
+                eg += BLOCKED_PASSER_EG[sq / 8];
+        }
+        return eg;
+    }
+}
@@ -0,0 +1,99 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Board;
+
+/**
+ * Pawn hash table: pawn-structure scores cached by {@link Board#getPawnKey() pawn key}.
+ *
+ * <p>The pawns change on few of the moves a search makes, so most positions it evaluates have
+ * a pawn structure already seen; the table turns the pawn terms of those into one probe.
+ * Each search thread has its own table (no locking, no torn entries), kept from one search to
+ * the next. Slots are flat primitive arrays: the key, the mask of passed pawns of both sides and
+ * the middlegame and endgame scores packed into one int. A slot holds the latest structure that
+ * maps to it.</p>
+ *
+ * <p>An empty slot reads as key 0 with no scores and no passers, which is the right entry for a
+ * board without pawns.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+final class PawnTable {
+    /** Slots of each thread's table. */
+    static final int DEFAULT_ENTRIES = 1 << 14;
+    /** Memory taken by a slot, in bytes. */
+    static final int BYTES_PER_ENTRY = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final long[] keys;
+    private final long[] passed;
+    private final int[] scores; // middlegame score in the high 16 bits, endgame score in the low 16 bits
+    private final int mask;
+    private long hits, misses;
+
+    /**
+     * @param entries number of slots, rounded down to a power of two
+     */
+    PawnTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, entries));
+        keys = new long[size];
+        passed = new long[size];
+        scores = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Finds the pawn structure of a board, evaluating and storing it if it is not in the table.
+     *
+     * @return the slot with the board's pawn structure, for {@link #midgame}, {@link #endgame} and {@link #passed}
+     */
+    int probe(Board board) {
+        long key = board.getPawnKey();
+        int slot = (int) key & mask;
+        if (keys[slot] == key) {
+            hits++;
+        } else {
+            misses++;
+            PawnStructure.evaluate(board, this, slot);
+        }
+        return slot;
+    }
+
+    void store(int slot, long key, int midgame, int endgame, long passers) {
+        keys[slot] = key;
+        passed[slot] = passers;
+        scores[slot] = (midgame << 16) + endgame;
+    }
+
+    int midgame(int slot) {
+        return (scores[slot] + 0x8000) >> 16; // undoes the borrow of a negative endgame score
+    }
+
+    int endgame(int slot) {
+        return (short) scores[slot];
+    }
+
+    long passed(int slot) {
+        return passed[slot];
+    }
+
+    /**
+     * Number of slots.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Probes that found the structure since the table was created.
+     */
+    long hits() {
+        return hits;
+    }
+
+    /**
+     * Probes that had to evaluate the structure since the table was created.
+     */
+    long misses() {
+        return misses;
+    }
+}
@@ -0,0 +1,20 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * Selective search techniques, which skip or shorten the search of moves unlikely to matter.
+ * All are enabled by default; each can be switched off (see {@link Engine#setPruning}) to
+ * measure what it is worth.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public enum Pruning {
+    /** Let the opponent move twice; if the position still fails high, cut it off with a shallower search. */
+    NULL_MOVE,
+    /** Search late quiet moves to a reduced depth, and again at full depth only if they look good. */
+    LATE_MOVE_REDUCTIONS,
+    /** Near the horizon, skip quiet moves that cannot bring a position far below alpha back up to it. */
+    FUTILITY,
+    /** Near the horizon, cut off positions whose static evaluation is far above beta. */
+    REVERSE_FUTILITY
+}
@@ -0,0 +1,46 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * How often each {@link Pruning} technique fired during a search (all threads together).
+ *
+ * @param nullMoveCutoffs nodes cut off by a null-move search
+ * @param reductions moves searched to a reduced depth
+ * @param reSearches reduced moves searched again at full depth
+ * @param futilityPruned quiet moves skipped by futility pruning
+ * @param reverseFutilityCutoffs nodes cut off by reverse futility pruning
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public record PruningStats(long nullMoveCutoffs, long reductions, long reSearches,
+                           long futilityPruned, long reverseFutilityCutoffs) {
+    /** No technique fired. */
+    public static final PruningStats NONE = new PruningStats(0, 0, 0, 0, 0);
+
+    /**
+     * Sum of two sets of counters.
+     */
+    public PruningStats plus(PruningStats other) {
+        return new PruningStats(nullMoveCutoffs + other.nullMoveCutoffs, reductions + other.reductions,
+                reSearches + other.reSearches, futilityPruned + other.futilityPruned,
+                reverseFutilityCutoffs + other.reverseFutilityCutoffs);
+    }
+
+    /**
+     * Counter of one technique: cutoffs, reductions or pruned moves.
+     */
+    public long count(Pruning technique) {
+        return switch (technique) {
+            case NULL_MOVE -> nullMoveCutoffs;
+            case LATE_MOVE_REDUCTIONS -> reductions;
+            case FUTILITY -> futilityPruned;
+            case REVERSE_FUTILITY -> reverseFutilityCutoffs;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "null move " + nullMoveCutoffs + ", reductions " + reductions + " (re-searched " + reSearches
+                + "), futility " + futilityPruned + ", reverse futility " + reverseFutilityCutoffs;
+    }
+}
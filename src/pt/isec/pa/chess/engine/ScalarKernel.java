@@ -0,0 +1,46 @@
+package pt.isec.pa.chess.engine;
+
+//Network kernel in plain loops, for JVMs started without the Vector API module
+final class ScalarKernel implements NetworkKernel {
+
+    @Override
+    public void add(short[] values, short[] weights, int offset) {
+        for (int i = 0; i < values.length; i++)
+            values[i] += weights[offset + i];
+    }
+
+    @Override
+    public void subtract(short[] values, short[] weights, int offset) {
+        for (int i = 0; i < values.length; i++)
+            values[i] -= weights[offset + i];
+    }
+
+    @Override
+    public void clippedRelu(short[] values, int[] target, int offset, short max) {
+        for (int i = 0; i < values.length; i++)
+            target[offset + i] = Math.max(0, Math.min(max, values[i]));
+    }
+
+    @Override
+    public void affine(int[] values, int inputOffset, int[] active, int count, int[] weights, int outputOffset, int outputs) {
+        for (int i = 0; i < count; i++) {
+            int value = values[inputOffset + active[i]];
+            int row = active[i] * outputs;
+            for (int output = 0; output < outputs; output++)
+                values[outputOffset + output] += value * weights[row + output];
+        }
+    }
+
+    @Override
+    public int dot(int[] a, int aOffset, int[] b, int bOffset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length; i++)
+            sum += a[aOffset + i] * b[bOffset + i];
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,583 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+import pt.isec.pa.chess.model.data.PieceFactory;
+import pt.isec.pa.chess.model.data.StaticExchange;
+import pt.isec.pa.chess.model.data.pieces.King;
+import pt.isec.pa.chess.model.tablebase.Tablebases;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * One search thread: negamax with alpha-beta pruning (principal variation search) and iterative
+ * deepening over a private {@link Board}.
+ * Each iteration starts with the principal variation of the previous one, which makes the
+ * deeper iterations cheap enough to be worth the repeated work. At the horizon, a quiescence search
+ * plays out the captures and promotions that do not lose material (by static exchange evaluation),
+ * so a position is never scored in the middle of an exchange. Away from the principal variation,
+ * the {@link Pruning} techniques that are enabled cut off or reduce the moves unlikely to matter.
+ *
+ * <p>Several searches of the same position may run at once (Lazy SMP): they share only the
+ * {@link TranspositionTable}, through which each thread profits from the others' results.
+ * Helper threads start one ply deeper on odd indexes so the threads do not all walk the same tree.</p>
+ *
+ * <p>For analysis, the main search can find several principal variations (multi-PV): each
+ * iteration searches the root once per line, leaving out the first moves of the lines already found.</p>
+ *
+ * <p>With {@link Tablebases}, positions with few pieces are not searched: their exact score is
+ * read from the tables, and a root position they cover is answered at once with the line of best
+ * play they give.</p>
+ *
+ * <p>Not thread-safe, except for {@link #stop()} and {@link #nodes()}, which may be called from any thread.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+final class Search {
+    private static final int INFINITY = SearchInfo.MATE + 1;
+    private static final int MAX_PLY = SearchLimits.MAX_DEPTH * 2;
+    private static final int CHECK_INTERVAL = 255; // nodes between clock checks, minus one: well under 1 ms
+    private static final int DELTA_MARGIN = 200; // captures that cannot bring the score near alpha are skipped
+    private static final int FUTILITY_DEPTH = 3; // futility and reverse futility pruning apply up to this depth
+    private static final int FUTILITY_MARGIN = 150; // per ply of depth left
+    private static final int REVERSE_FUTILITY_MARGIN = 120; // per ply of depth left
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVE = 4; // the first moves of a node are never reduced
+
+    private final Board board;
+    private final TranspositionTable table;
+    private final int threadIndex; // 0 for the main thread
+    private Search[] helpers = new Search[0];
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY]; // triangular PV table
+    private final int[] pvLength = new int[MAX_PLY];
+    private final long[] pathKeys = new long[MAX_PLY + 1]; // position keys along the current line
+    private final int[] line = new int[MAX_PLY]; // moves along the current line
+    private final boolean[] onPv = new boolean[MAX_PLY]; // whether the line so far is the previous PV
+    private final int[][] orderScores = new int[MAX_PLY][256]; // per ply: the quiescence search reads them back while recursing
+    private final int[] exchangeGains = new int[StaticExchange.MAX_CAPTURES];
+    private final MoveOrdering ordering;
+    private final NetworkAccumulator network; // null with the hand-written evaluation
+    private final PawnTable pawns;
+    private final Tablebases tablebases; // null without endgame tables
+
+    private int[] previousPv = new int[0];
+    private int multiPv = 1;
+    private Consumer<List<SearchInfo>> linesListener;
+    private int[][] previousLines = new int[0][]; // principal variations of the last iteration, one per line
+    private final int[] excluded = new int[256];  // root moves left out: first moves of the lines already found
+    private int excludedCount;
+    private long nodes;
+    private volatile long publishedNodes; // nodes as seen from other threads, updated on every clock check
+    private long hashHits, hashMisses, hashOverwrites;
+    private final boolean nullMove, lateMoveReductions, futility, reverseFutility;
+    private long nullMoveCutoffs, reductions, reSearches, futilityPruned, reverseFutilityCutoffs;
+    private volatile long startNanos;
+    private volatile SearchLimits limits; // replaced on a ponder hit
+    private volatile long deadlineNanos;
+    private volatile int completedDepth;  // depth of the last completed iteration
+    private volatile boolean stopped;
+    private boolean aborted;
+
+    /**
+     * @param board position to search, owned by this search from now on
+     * @param table table shared by all the threads of the search
+     * @param threadIndex 0 for the main thread, 1 and up for the helpers
+     * @param pruning selective search techniques to use
+     * @param network network to evaluate with, or null for the hand-written evaluation
+     * @param pawns this thread's pawn hash table
+     * @param tablebases endgame tables to probe, or null
+     */
+    Search(Board board, TranspositionTable table, int threadIndex, Set<Pruning> pruning, Network network,
+           PawnTable pawns, Tablebases tablebases) {
+        this.board = board;
+        this.table = table;
+        this.pawns = pawns;
+        this.tablebases = tablebases;
+        this.threadIndex = threadIndex;
+        nullMove = pruning.contains(Pruning.NULL_MOVE);
+        lateMoveReductions = pruning.contains(Pruning.LATE_MOVE_REDUCTIONS);
+        futility = pruning.contains(Pruning.FUTILITY);
+        reverseFutility = pruning.contains(Pruning.REVERSE_FUTILITY);
+        ordering = new MoveOrdering(board, MAX_PLY);
+        this.network = network == null ? null : new NetworkAccumulator(network, board, NetworkKernel.best());
+        for (int i = 0; i < MAX_PLY; i++)
+            moveLists[i] = new MoveList();
+    }
+
+    /**
+     * Sets the helper threads of a main search, whose nodes are included in its reports.
+     */
+    void setHelpers(Search[] helpers) {
+        this.helpers = helpers;
+    }
+
+    /**
+     * Makes the search find several principal variations, each one best among the moves the
+     * previous ones do not start with. Must be called before {@link #run}.
+     *
+     * @param lines number of lines, at least 1
+     * @param listener receives the lines (best first) after every completed iteration
+     */
+    void setMultiPv(int lines, Consumer<List<SearchInfo>> listener) {
+        multiPv = lines;
+        linesListener = listener;
+    }
+
+    /**
+     * Nodes searched so far, as last published by the searching thread.
+     */
+    long nodes() {
+        return publishedNodes;
+    }
+
+    private long totalNodes() {
+        long total = nodes;
+        for (Search helper : helpers)
+            total += helper.nodes();
+        return total;
+    }
+
+    /**
+     * How often each pruning technique fired; complete once {@link #run} has returned.
+     */
+    PruningStats pruningStats() {
+        return new PruningStats(nullMoveCutoffs, reductions, reSearches, futilityPruned, reverseFutilityCutoffs);
+    }
+
+    /**
+     * Beta cutoffs and how many of them came from the first move; complete once {@link #run} has returned.
+     */
+    OrderingStats orderingStats() {
+        return new OrderingStats(ordering.cutoffs(), ordering.firstMoveCutoffs());
+    }
+
+    /**
+     * Replaces the limits of a running search: a search started on a predicted move, with no
+     * limits, becomes a normal search once the move is played. The time already spent counts
+     * towards the soft limit, so a search that has pondered long enough answers at once with as
+     * deep a result as it would have found in its own time; the hard limit counts from now.
+     *
+     * @param limits new depth and time limits
+     */
+    void ponderHit(SearchLimits limits) {
+        setLimits(limits, System.nanoTime(), true);
+        int depth = completedDepth;
+        if (depth > 0 && (depth >= limits.maxDepth()
+                || limits.hasTimeLimit() && elapsedMillis() * 2 > limits.timeMillis()))
+            stopped = true; // the last completed iteration is the answer
+    }
+
+    // A ponder hit may come before the search thread has started: its limits are then kept
+    private synchronized void setLimits(SearchLimits limits, long now, boolean replace) {
+        if (this.limits != null && !replace)
+            return;
+        deadlineNanos = limits.hardTimeMillis() > 0 ? now + limits.hardTimeMillis() * 1_000_000 : Long.MAX_VALUE;
+        this.limits = limits;
+    }
+
+    /**
+     * Asks the search to finish as soon as possible; the last completed iteration is returned.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Runs the iterative deepening loop.
+     *
+     * @param limits depth and time limits
+     * @param listener receives the result of every completed iteration, may be null
+     * @return the last completed iteration (depth 0 if the search was stopped before completing one)
+     */
+    SearchInfo run(SearchLimits limits, Consumer<SearchInfo> listener) {
+        startNanos = System.nanoTime();
+        setLimits(limits, startNanos, false);
+        boolean white = board.isWhiteToMove();
+
+        int lines = Math.min(multiPv, MoveGenerator.generate(board, white, moveLists[0]));
+
+        // A root position the tables cover needs no search
+        SearchInfo last = multiPv == 1 && tablebases != null ? tablebaseLine() : null;
+        if (last != null) {
+            completedDepth = last.depth();
+            if (listener != null)
+                listener.accept(last);
+        } else {
+            for (int depth = 1 + threadIndex % 2; depth <= this.limits.maxDepth(); depth++) {
+                SearchInfo[] found = lines > 1 ? searchLines(white, depth, lines) : searchLine(white, depth);
+                if (aborted)
+                    break;
+
+                last = found[0];
+                previousPv = last.pv();
+                completedDepth = depth;
+                if (listener != null)
+                    listener.accept(last);
+                if (linesListener != null)
+                    linesListener.accept(List.of(found));
+
+                // A mate found is a mate proven; the next iteration would need more time than it left
+                // (with several lines, the others may still be improving)
+                if ((last.isMate() && lines == 1) || previousPv.length == 0)
+                    break;
+                // Each iteration takes a few times longer than the last: past half the soft budget,
+                // the next one would most likely be cut off by the hard limit and wasted
+                SearchLimits current = this.limits;
+                if (current.hasTimeLimit() && elapsedMillis() * 2 > current.timeMillis())
+                    break;
+            }
+        }
+
+        if (last == null) {
+            // Stopped during the first iteration: fall back on any legal move
+            MoveList moves = moveLists[0];
+            int n = MoveGenerator.generate(board, white, moves);
+            int[] fallback = pvLength[0] > 0 ? Arrays.copyOf(pv[0], 1) : n > 0 ? new int[] { moves.get(0) } : new int[0];
+            last = new SearchInfo(0, 0, fallback, totalNodes(), elapsedMillis());
+        }
+        publishedNodes = nodes;
+        table.addStats(hashHits, hashMisses, hashOverwrites);
+        return last;
+    }
+
+    // The line of best play the tables give from the root: to the mate, or a single drawing move;
+    // null if they do not cover the position or it has no legal move
+    private SearchInfo tablebaseLine() {
+        int result = tablebases.probe(board);
+        if (result == Tablebases.UNKNOWN)
+            return null;
+        int score = tablebaseScore(result, 0);
+        int length = 0;
+        while (length < MAX_PLY && result != Tablebases.UNKNOWN) {
+            int move = tablebaseMove(board.isWhiteToMove(), result, moveLists[length]);
+            if (move == Move.NONE)
+                break;
+            pv[0][length++] = move;
+            board.makeMove(move);
+            result = result == Tablebases.DRAW ? Tablebases.UNKNOWN : tablebases.probe(board);
+        }
+        for (int i = 0; i < length; i++)
+            board.unmakeMove();
+        if (length == 0)
+            return null;
+        return new SearchInfo(length, score, Arrays.copyOf(pv[0], length), totalNodes(), elapsedMillis());
+    }
+
+    // A move that keeps the result: to a loss one ply nearer for the winner, to a win one ply
+    // nearer for the loser, to a draw in a drawn position
+    private int tablebaseMove(boolean white, int result, MoveList moves) {
+        int n = MoveGenerator.generate(board, white, moves);
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            int after = tablebases.probe(board);
+            board.unmakeMove();
+            if (result == Tablebases.DRAW ? after == Tablebases.DRAW
+                    : after > 0 && Tablebases.plies(after) == Tablebases.plies(result) - 1)
+                return move;
+        }
+        return Move.NONE;
+    }
+
+    // The score of a table result, for the side to move ply plies from the root
+    private static int tablebaseScore(int result, int ply) {
+        if (result == Tablebases.DRAW)
+            return 0;
+        int mate = SearchInfo.MATE - ply - Tablebases.plies(result);
+        return Tablebases.isWin(result) ? mate : -mate;
+    }
+
+    private SearchInfo[] searchLine(boolean white, int depth) {
+        int score = negamax(white, depth, -INFINITY, INFINITY, 0, false);
+        if (aborted)
+            return null;
+        return new SearchInfo[] { new SearchInfo(depth, score, Arrays.copyOf(pv[0], pvLength[0]), totalNodes(), elapsedMillis()) };
+    }
+
+    // One iteration of a multi-PV search: the root is searched once per line, without the moves
+    // that start the lines found before; the best moves so far are left out of the hash table
+    private SearchInfo[] searchLines(boolean white, int depth, int lines) {
+        SearchInfo[] found = new SearchInfo[lines];
+        int[][] pvs = new int[lines][];
+        for (int k = 0; k < lines; k++) {
+            previousPv = k < previousLines.length ? previousLines[k] : new int[0];
+            int score = negamax(white, depth, -INFINITY, INFINITY, 0, false);
+            if (aborted)
+                break;
+            pvs[k] = Arrays.copyOf(pv[0], pvLength[0]);
+            found[k] = new SearchInfo(depth, score, pvs[k], totalNodes(), elapsedMillis());
+            excluded[excludedCount++] = pvs[k][0]; // lines never outnumber the legal moves, so there is one
+        }
+        excludedCount = 0;
+        if (aborted)
+            return null;
+        previousLines = pvs;
+        return found;
+    }
+
+    // Drops the excluded root moves, keeping the others in order
+    private int removeExcluded(MoveList moves, int n) {
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            boolean skip = false;
+            for (int j = 0; j < excludedCount && !skip; j++)
+                skip = excluded[j] == move;
+            if (!skip)
+                moves.set(kept++, move);
+        }
+        return kept;
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Counts a node and, every CHECK_INTERVAL nodes, checks whether the search must stop
+    private boolean countNode() {
+        if ((++nodes & CHECK_INTERVAL) == 0) {
+            publishedNodes = nodes;
+            if (stopped || System.nanoTime() > deadlineNanos)
+                aborted = true;
+        }
+        return aborted;
+    }
+
+    private int negamax(boolean white, int depth, int alpha, int beta, int ply, boolean nullAllowed) {
+        pvLength[ply] = 0;
+        if (countNode())
+            return 0;
+
+        pathKeys[ply] = board.getKey();
+        onPv[ply] = ply == 0 || (onPv[ply - 1] && ply - 1 < previousPv.length && line[ply - 1] == previousPv[ply - 1]);
+        if (ply > 0 && isRepetition(ply))
+            return 0;
+        if (ply > 0 && tablebases != null && Long.bitCount(board.getOccupied()) <= Tablebases.MAX_PIECES) {
+            int result = tablebases.probe(board);
+            if (result != Tablebases.UNKNOWN)
+                return tablebaseScore(result, ply);
+        }
+        if (depth <= 0)
+            return quiescence(white, alpha, beta, ply);
+        if (ply == MAX_PLY - 1)
+            return Evaluation.evaluate(board, network, pawns, white);
+
+        int hashMove = Move.NONE;
+        long entry = table.probe(pathKeys[ply]);
+        if (entry == 0) {
+            hashMisses++;
+        } else {
+            hashHits++;
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        // Selective search, only away from the principal variation and never in check
+        boolean inCheck = inCheck(white);
+        boolean selective = ply > 0 && beta - alpha == 1 && !inCheck && Math.abs(beta) < SearchInfo.MATE_BOUND;
+        int staticEval = selective ? Evaluation.evaluate(board, network, pawns, white) : 0;
+
+        if (selective && reverseFutility && depth <= FUTILITY_DEPTH && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+            reverseFutilityCutoffs++;
+            return staticEval;
+        }
+
+        if (selective && nullMove && nullAllowed && depth >= NULL_MOVE_MIN_DEPTH && staticEval >= beta && hasPieces(white)) {
+            int reduction = depth > 6 ? 3 : 2;
+            int enPassant = board.getEnPassantSquare();
+            line[ply] = Move.NONE;
+            board.setEnPassantSquare(-1);
+            board.setWhiteToMove(!white);
+            int score = -negamax(!white, depth - 1 - reduction, -beta, -beta + 1, ply + 1, false);
+            board.setWhiteToMove(white);
+            board.setEnPassantSquare(enPassant);
+            if (aborted)
+                return 0;
+            if (score >= beta) {
+                nullMoveCutoffs++;
+                return score >= SearchInfo.MATE_BOUND ? beta : score; // a mate behind a null move is not proven
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        int n = MoveGenerator.generate(board, white, moves);
+        if (n == 0)
+            return inCheck ? -SearchInfo.MATE + ply : 0;
+        int pvMove = onPv[ply] && ply < previousPv.length ? previousPv[ply] : Move.NONE;
+        int previousMove = ply > 0 ? line[ply - 1] : Move.NONE;
+        ordering.order(moves, n, ply, pvMove, hashMove, previousMove, orderScores[ply]);
+        if (ply == 0 && excludedCount > 0)
+            n = removeExcluded(moves, n);
+
+        boolean frontier = selective && futility && depth <= FUTILITY_DEPTH
+                && staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            boolean quiet = !Move.isCapture(move) && !Move.isPromotion(move);
+            line[ply] = move;
+            board.makeMove(move);
+            boolean givesCheck = inCheck(!white);
+
+            if (frontier && quiet && !givesCheck && best > -INFINITY) {
+                board.unmakeMove();
+                futilityPruned++;
+                continue;
+            }
+
+            // Principal variation search: the first move with the full window, the others with a null
+            // window that only proves them worse, and a full re-search for any that turns out better
+            int score;
+            if (i == 0) {
+                score = -negamax(!white, depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                int reduction = 0;
+                if (lateMoveReductions && i >= LMR_MIN_MOVE && depth >= LMR_MIN_DEPTH && quiet && !inCheck && !givesCheck) {
+                    reduction = i >= 2 * LMR_MIN_MOVE && depth >= 6 ? 2 : 1;
+                    reductions++;
+                }
+                score = -negamax(!white, depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+                if (score > alpha && reduction > 0 && !aborted) {
+                    reSearches++;
+                    score = -negamax(!white, depth - 1, -alpha - 1, -alpha, ply + 1, true);
+                }
+                if (score > alpha && score < beta && !aborted)
+                    score = -negamax(!white, depth - 1, -beta, -alpha, ply + 1, true);
+            }
+            board.unmakeMove();
+            if (aborted)
+                return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        ordering.cutoff(move, i, ply, depth, previousMove);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT
+                : TranspositionTable.UPPER;
+        if ((ply > 0 || excludedCount == 0) && table.store(pathKeys[ply], bestMove, TranspositionTable.toTable(best, ply), depth, bound))
+            hashOverwrites++;
+        return best;
+    }
+
+    // Null-move pruning is unsafe in zugzwang, which is common when only the king and pawns are left
+    private boolean hasPieces(boolean white) {
+        return (board.getBitboard(PieceFactory.PieceType.KNIGHT, white) | board.getBitboard(PieceFactory.PieceType.BISHOP, white)
+                | board.getBitboard(PieceFactory.PieceType.ROOK, white) | board.getBitboard(PieceFactory.PieceType.QUEEN, white)) != 0;
+    }
+
+    // Captures and promotions only, until the position is quiet. The side to move may always
+    // "stand pat" on the static evaluation instead of capturing; checks are not searched here.
+    private int quiescence(boolean white, int alpha, int beta, int ply) {
+        pvLength[ply] = 0;
+        if (countNode())
+            return 0;
+
+        int standPat = Evaluation.evaluate(board, network, pawns, white);
+        if (standPat >= beta || ply == MAX_PLY - 1)
+            return standPat;
+        if (standPat > alpha)
+            alpha = standPat;
+
+        MoveList moves = moveLists[ply];
+        int n = MoveGenerator.generateCaptures(board, white, moves);
+        n = orderCaptures(moves, n, ply);
+
+        int best = standPat;
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            if (standPat + orderScores[ply][i] + DELTA_MARGIN <= alpha)
+                break; // sorted by exchange value: the remaining captures gain even less
+            line[ply] = move;
+            board.makeMove(move);
+            int score = -quiescence(!white, -beta, -alpha, ply + 1);
+            board.unmakeMove();
+            if (aborted)
+                return 0;
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta)
+                        break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][0] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], 0, pv[ply], 1, childLength);
+        pvLength[ply] = childLength + 1;
+    }
+
+    // A position seen earlier on the line, with the same side to move, is scored as a draw
+    // (a null move on the way breaks the line: passing twice is not a repetition)
+    private boolean isRepetition(int ply) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (line[i] == Move.NONE || line[i + 1] == Move.NONE)
+                return false;
+            if (pathKeys[i] == pathKeys[ply])
+                return true;
+        }
+        return false;
+    }
+
+    private boolean inCheck(boolean white) {
+        King king = board.getKing(white);
+        return king != null && king.isInCheck();
+    }
+
+    // Keeps the captures and queen promotions that do not lose material, best exchange first;
+    // orderScores[ply][i] is left holding each kept move's exchange value
+    private int orderCaptures(MoveList moves, int n, int ply) {
+        int[] scores = orderScores[ply];
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            if (Move.isPromotion(move) && Move.promotion(move) != PieceFactory.PieceType.QUEEN)
+                continue;
+            int exchange = StaticExchange.evaluate(board, move, exchangeGains);
+            if (exchange < 0)
+                continue;
+            moves.set(kept, move);
+            scores[kept++] = exchange;
+        }
+        MoveOrdering.sort(moves, kept, scores);
+        return kept;
+    }
+
+}
@@ -0,0 +1,76 @@
+package pt.isec.pa.chess.engine;
+
+import pt.isec.pa.chess.model.data.Move;
+
+/**
+ * Progress of a search, reported after every completed iteration, and its final result.
+ * Scores are in centipawns from the point of view of the side to move at the root;
+ * mate scores are {@link #MATE} minus the distance to mate in plies.
+ *
+ * @param depth depth of the completed iteration
+ * @param score score of the position
+ * @param pv principal variation as packed {@link Move}s, best move first; do not modify
+ * @param nodes nodes searched so far
+ * @param timeMillis time spent so far
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public record SearchInfo(int depth, int score, int[] pv, long nodes, long timeMillis) {
+    /** Score of a mate at the root; a mate in n plies scores {@code MATE - n}. */
+    public static final int MATE = 32_000;
+    /** Scores at least this far from zero are mates. */
+    public static final int MATE_BOUND = MATE - SearchLimits.MAX_DEPTH * 2;
+
+    /**
+     * Best move found, or {@link Move#NONE} if the side to move has no legal move.
+     */
+    public int bestMove() {
+        return pv.length > 0 ? pv[0] : Move.NONE;
+    }
+
+    /**
+     * Nodes searched per second.
+     */
+    public long nps() {
+        return nodes * 1000 / Math.max(1, timeMillis);
+    }
+
+    /**
+     * Whether the score announces a mate (for either side).
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= MATE_BOUND;
+    }
+
+    /**
+     * Moves to mate: positive if the side to move mates, negative if it is mated, 0 if no mate.
+     */
+    public int mateIn() {
+        if (!isMate())
+            return 0;
+        int plies = MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+
+    /**
+     * The principal variation in coordinate notation, e.g. "e2e4 e7e5 g1f3".
+     */
+    public String pvString() {
+        StringBuilder sb = new StringBuilder();
+        for (int move : pv) {
+            if (!sb.isEmpty())
+                sb.append(' ');
+            sb.append(Move.toString(move));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth
+                + (isMate() ? " score mate " + mateIn() : " score cp " + score)
+                + " nodes " + nodes + " nps " + nps() + " time " + timeMillis
+                + " pv " + pvString();
+    }
+}
@@ -0,0 +1,90 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * Limits of one engine search: a maximum depth, a time budget, or both (whichever is hit first).
+ * A limit of zero or less means "no limit"; a search with neither limit runs until stopped.
+ * <p>The time budget has two deadlines. The soft one is the time the search aims to use: no new
+ * iteration is started once it is unlikely to finish before it. The hard one is never passed:
+ * the search is cut off mid-iteration when it is reached.</p>
+ *
+ * @param depth maximum depth in plies, or 0 for no depth limit
+ * @param timeMillis soft time budget in milliseconds, or 0 for no time limit
+ * @param hardTimeMillis hard time limit in milliseconds, or 0 for none; at least timeMillis when both are set
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public record SearchLimits(int depth, long timeMillis, long hardTimeMillis) {
+    /** Deepest iteration a search will start, whatever the limits. */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * Limits whose soft and hard time limits are the same.
+     *
+     * @param depth maximum depth in plies, or 0 for no depth limit
+     * @param timeMillis time budget in milliseconds, or 0 for no time limit
+     */
+    public SearchLimits(int depth, long timeMillis) {
+        this(depth, timeMillis, timeMillis);
+    }
+
+    /**
+     * Searches to a fixed depth.
+     *
+     * @param depth depth in plies, at least 1
+     * @return the limits
+     */
+    public static SearchLimits depth(int depth) {
+        if (depth < 1)
+            throw new IllegalArgumentException("Profundidade inválida: " + depth);
+        return new SearchLimits(depth, 0);
+    }
+
+    /**
+     * Searches for a fixed time.
+     *
+     * @param timeMillis time budget in milliseconds, at least 1
+     * @return the limits
+     */
+    public static SearchLimits time(long timeMillis) {
+        if (timeMillis < 1)
+            throw new IllegalArgumentException("Tempo inválido: " + timeMillis);
+        return new SearchLimits(0, timeMillis);
+    }
+
+    /**
+     * Searches with a soft and a hard deadline, as given by a {@link TimeManager}.
+     *
+     * @param softMillis time the search aims to use, in milliseconds, at least 1
+     * @param hardMillis time the search must never exceed, in milliseconds, at least softMillis
+     * @return the limits
+     */
+    public static SearchLimits clock(long softMillis, long hardMillis) {
+        if (softMillis < 1 || hardMillis < softMillis)
+            throw new IllegalArgumentException("Tempo inválido: " + softMillis + "/" + hardMillis);
+        return new SearchLimits(0, softMillis, hardMillis);
+    }
+
+    /**
+     * Searches until stopped.
+     *
+     * @return the limits
+     */
+    public static SearchLimits infinite() {
+        return new SearchLimits(0, 0);
+    }
+
+    /**
+     * Deepest iteration allowed by these limits.
+     */
+    public int maxDepth() {
+        return depth > 0 ? Math.min(depth, MAX_DEPTH) : MAX_DEPTH;
+    }
+
+    /**
+     * Whether the search has a time budget.
+     */
+    public boolean hasTimeLimit() {
+        return timeMillis > 0;
+    }
+}
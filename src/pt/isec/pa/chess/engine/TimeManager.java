@@ -0,0 +1,38 @@
+package pt.isec.pa.chess.engine;
+
+/**
+ * Splits a player's remaining clock time into the budget of one move.
+ * <p>The soft limit assumes the game lasts another {@value #MOVES_TO_GO} moves and spends most of
+ * the increment, which comes back after the move. The hard limit lets a search that is about to
+ * finish an important iteration run a few times longer, but never more than a fraction of the
+ * time left, and always keeps a safety margin for the time the move takes to reach the clock.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class TimeManager {
+    /** Moves the remaining time is assumed to be shared among. */
+    public static final int MOVES_TO_GO = 30;
+    /** Time kept back for the overhead of playing a move, in milliseconds. */
+    public static final long SAFETY_MARGIN = 30;
+
+    private static final int HARD_FACTOR = 4;        // hard limit, in soft limits
+    private static final int MAX_SHARE_OF_CLOCK = 4; // hard limit, at most 1/4 of the time left
+
+    private TimeManager() {}
+
+    /**
+     * Works out the limits of a search on the clock.
+     *
+     * @param remainingMillis time left on the engine's clock, in milliseconds
+     * @param incrementMillis time added to the clock after the move, in milliseconds
+     * @return soft and hard time limits (see {@link SearchLimits#clock(long, long)})
+     */
+    public static SearchLimits limits(long remainingMillis, long incrementMillis) {
+        long available = Math.max(1, remainingMillis - Math.min(SAFETY_MARGIN, remainingMillis / 10));
+        long soft = Math.min(available / MOVES_TO_GO + incrementMillis * 3 / 4, available / 2);
+        soft = Math.max(1, soft);
+        long hard = Math.max(soft, Math.min(soft * HARD_FACTOR, available / MAX_SHARE_OF_CLOCK));
+        return SearchLimits.clock(soft, hard);
+    }
+}
@@ -0,0 +1,185 @@
+package pt.isec.pa.chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared transposition table: search results indexed by position key, so a position reached
+ * again (by another move order, by another search thread or on a later move) is not searched twice.
+ *
+ * <p>The table has a power of two number of slots, each a pair of longs in one primitive array:
+ * {@code key ^ data} and {@code data}. Threads read and write slots without locking; a slot torn
+ * by two concurrent writers fails the XOR check on the next probe and simply reads as a miss.</p>
+ *
+ * <p>Entry layout: move (bits 0-17) | score (18-33, signed) | depth (34-41) | bound (42-43) |
+ * generation (44-49) | used (63).</p>
+ *
+ * <p>Replacement: a slot keeps its entry against a shallower result for another position,
+ * unless the entry was stored by an earlier search ({@link #newSearch()}) or the new result is exact.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+final class TranspositionTable {
+    /** The score is exact. */
+    static final int EXACT = 0;
+    /** The score is a lower bound (the search failed high). */
+    static final int LOWER = 1;
+    /** The score is an upper bound (the search failed low). */
+    static final int UPPER = 2;
+
+    private static final long USED = 1L << 63;
+    private static final int BYTES_PER_SLOT = 16;
+    private static final int MAX_ENTRIES = 1 << 28;
+    private static final int GENERATION_MASK = 0x3F;
+    private static final int FULL_SAMPLE = 1000;
+
+    private final long[] slots;
+    private final int mask;
+    private volatile int generation;
+
+    // Totals, added by each search thread when it finishes (see addStats)
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder overwrites = new LongAdder();
+
+    /**
+     * @param megabytes table size; rounded down to a power of two number of slots
+     */
+    TranspositionTable(int megabytes) {
+        long count = Math.max(1L, (long) megabytes * 1024 * 1024 / BYTES_PER_SLOT);
+        int entries = Integer.highestOneBit((int) Math.min(count, MAX_ENTRIES));
+        slots = new long[entries * 2];
+        mask = entries - 1;
+    }
+
+    /**
+     * Number of entries the table can hold.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Starts a new search: entries stored before now become the first to be replaced.
+     */
+    void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key position key
+     * @return the entry, or 0 if the position is not stored
+     */
+    long probe(long key) {
+        int index = ((int) key & mask) << 1;
+        long data = slots[index + 1];
+        return (slots[index] ^ data) == key ? data : 0L;
+    }
+
+    /**
+     * Stores a search result, unless the slot holds a more valuable entry of another position.
+     *
+     * @param key position key
+     * @param move best move found, or {@code Move.NONE}
+     * @param score score, already adjusted with {@link #toTable(int, int)}
+     * @param depth depth searched
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @return true if an entry of another position was overwritten
+     */
+    boolean store(long key, int move, int score, int depth, int bound) {
+        int index = ((int) key & mask) << 1;
+        long old = slots[index + 1];
+        boolean samePosition = (slots[index] ^ old) == key;
+        boolean overwrite = false;
+
+        if (samePosition) {
+            if (move == 0)
+                move = move(old); // keep the best move of an earlier search of the position
+        } else if (old != 0) {
+            if (generation(old) == generation && depth(old) > depth && bound != EXACT)
+                return false;
+            overwrite = true;
+        }
+
+        long data = USED | move | (long) (score & 0xFFFF) << 18 | (long) depth << 34
+                | (long) bound << 42 | (long) generation << 44;
+        slots[index] = key ^ data;
+        slots[index + 1] = data;
+        return overwrite;
+    }
+
+    /**
+     * Adds the counters of one search thread to the totals.
+     */
+    void addStats(long hits, long misses, long overwrites) {
+        this.hits.add(hits);
+        this.misses.add(misses);
+        this.overwrites.add(overwrites);
+    }
+
+    /**
+     * Counters since the table was created or cleared, and how full it is.
+     */
+    HashStats stats() {
+        int sample = Math.min(FULL_SAMPLE, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = slots[(i << 1) + 1];
+            if (data != 0 && generation(data) == generation)
+                used++;
+        }
+        return new HashStats(capacity() * (long) BYTES_PER_SLOT / (1024 * 1024), capacity(),
+                used * 1000 / sample, hits.sum(), misses.sum(), overwrites.sum());
+    }
+
+    /**
+     * Empties the table and resets its counters.
+     */
+    void clear() {
+        Arrays.fill(slots, 0L);
+        hits.reset();
+        misses.reset();
+        overwrites.reset();
+    }
+
+    static int move(long entry) {
+        return (int) (entry & 0x3FFFF);
+    }
+
+    static int score(long entry) {
+        return (short) (entry >>> 18);
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> 34) & 0xFF;
+    }
+
+    static int bound(long entry) {
+        return (int) (entry >>> 42) & 0x3;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 44) & GENERATION_MASK;
+    }
+
+    // Mate scores are stored as distance from the node rather than from the root, so they stay
+    // right when the position is reached at another ply
+    static int toTable(int score, int ply) {
+        if (score >= SearchInfo.MATE_BOUND)
+            return score + ply;
+        if (score <= -SearchInfo.MATE_BOUND)
+            return score - ply;
+        return score;
+    }
+
+    static int fromTable(int score, int ply) {
+        if (score >= SearchInfo.MATE_BOUND)
+            return score - ply;
+        if (score <= -SearchInfo.MATE_BOUND)
+            return score + ply;
+        return score;
+    }
+}
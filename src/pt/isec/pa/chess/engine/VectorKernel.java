@@ -0,0 +1,90 @@
+package pt.isec.pa.chess.engine;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+//Network kernel on SIMD registers through the Vector API (incubating, needs --add-modules jdk.incubator.vector).
+//Accumulator updates work on int16 lanes; the clipped ReLU widens each int16 register into two int32
+//registers of the same width, so the dense layers multiply and add int32 lanes with no conversion.
+//affine keeps a register of sums for as many neurons, adding each active input times its weights to it.
+//Tails shorter than a register are done in plain loops, so any length works.
+final class VectorKernel implements NetworkKernel {
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED; // half as many lanes
+
+    @Override
+    public void add(short[] values, short[] weights, int offset) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(values.length); i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, values, i)
+                    .add(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(values, i);
+        }
+        for (; i < values.length; i++)
+            values[i] += weights[offset + i];
+    }
+
+    @Override
+    public void subtract(short[] values, short[] weights, int offset) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(values.length); i < bound; i += SHORTS.length()) {
+            ShortVector.fromArray(SHORTS, values, i)
+                    .sub(ShortVector.fromArray(SHORTS, weights, offset + i))
+                    .intoArray(values, i);
+        }
+        for (; i < values.length; i++)
+            values[i] -= weights[offset + i];
+    }
+
+    @Override
+    public void clippedRelu(short[] values, int[] target, int offset, short max) {
+        int i = 0;
+        for (int bound = SHORTS.loopBound(values.length); i < bound; i += SHORTS.length()) {
+            ShortVector clipped = ShortVector.fromArray(SHORTS, values, i).max((short) 0).min(max);
+            for (int part = 0; part < 2; part++) {
+                ((IntVector) clipped.convertShape(VectorOperators.S2I, INTS, part))
+                        .intoArray(target, offset + i + part * INTS.length());
+            }
+        }
+        for (; i < values.length; i++)
+            target[offset + i] = Math.max(0, Math.min(max, values[i]));
+    }
+
+    @Override
+    public void affine(int[] values, int inputOffset, int[] active, int count, int[] weights, int outputOffset, int outputs) {
+        int output = 0;
+        for (int bound = INTS.loopBound(outputs); output < bound; output += INTS.length()) {
+            IntVector sums = IntVector.fromArray(INTS, values, outputOffset + output);
+            for (int i = 0; i < count; i++) {
+                int value = values[inputOffset + active[i]];
+                sums = sums.add(IntVector.fromArray(INTS, weights, active[i] * outputs + output).mul(value));
+            }
+            sums.intoArray(values, outputOffset + output);
+        }
+        for (; output < outputs; output++) {
+            int sum = 0;
+            for (int i = 0; i < count; i++)
+                sum += values[inputOffset + active[i]] * weights[active[i] * outputs + output];
+            values[outputOffset + output] += sum;
+        }
+    }
+
+    @Override
+    public int dot(int[] a, int aOffset, int[] b, int bOffset, int length) {
+        IntVector sums = IntVector.zero(INTS);
+        int i = 0;
+        for (int bound = INTS.loopBound(length); i < bound; i += INTS.length())
+            sums = sums.add(IntVector.fromArray(INTS, a, aOffset + i).mul(IntVector.fromArray(INTS, b, bOffset + i)));
+        int sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++)
+            sum += a[aOffset + i] * b[bOffset + i];
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "vector (" + SHORTS.length() + " x int16)";
+    }
+}
@@ -4,9 +4,10 @@ import pt.isec.pa.chess.model.data.*;
 import pt.isec.pa.chess.model.data.pieces.King;
 import pt.isec.pa.chess.model.data.pieces.Pawn;
 import pt.isec.pa.chess.model.data.pieces.Rook;
+import pt.isec.pa.chess.model.tablebase.Tablebases;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * Manages the whole chess game logic, including board state, player turns, move validation, special moves like castling, en passant, promotion, etc.
@@ -26,7 +27,7 @@ public class ChessGame implements Serializable {
      * Serial version UID for serialization compatibility.
      * Increment this value when making incompatible class changes.
      */
-    private static final long serialVersionUID = 3L;
+    private static final long serialVersionUID = 6L;
 
     private Board board;
     private Player white;
@@ -34,8 +35,17 @@ public class ChessGame implements Serializable {
 
     private Piece pawnToPromote;
 
-    private static boolean whiteTurn = true;
+    private boolean whiteTurn = true;
     private GameState gameState = GameState.NOT_STARTED;
+    private GameClock clock; // null for an untimed game
+    private transient MoveOutcome lastOutcome;
+    private transient Tablebases tablebases; // null without endgame tables
+
+    // Legal move cache, one entry per colour ([0] white, [1] black), see legalMoves()
+    private transient MoveList[] legalMoves;
+    private transient long[][] legalTargets; // destinations per origin square
+    private transient long[] legalMovesKey;
+    private transient boolean[] legalMovesValid;
 
 
     private String whitePlayerName;
@@ -66,6 +76,52 @@ public class ChessGame implements Serializable {
      */
     public void setGameState(GameState gm) {
         gameState = gm;
+        if (clock != null && gm != GameState.RUNNING)
+            clock.stop();
+    }
+
+    /**
+     * Sets the time control: both players get the base time, plus the increment after each move.
+     * A game already running restarts its clock with the new times.
+     *
+     * @param baseMillis time of each player at the start, in milliseconds; 0 or less for an untimed game
+     * @param incrementMillis time added after each move, in milliseconds
+     * @throws IllegalArgumentException if the increment is negative
+     */
+    public void setTimeControl(long baseMillis, long incrementMillis) {
+        clock = baseMillis > 0 ? new GameClock(baseMillis, incrementMillis) : null;
+        restartClock();
+    }
+
+    /**
+     * Gets the game's clock.
+     *
+     * @return the clock, or null if the game is untimed
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Ends the game if the player to move has run out of time.
+     *
+     * @return true if the game has just been lost on time
+     */
+    public boolean checkTime() {
+        if (clock == null || gameState != GameState.RUNNING || !clock.hasExpired(whiteTurn))
+            return false;
+        ModelLog.getInstance().addLog("TIME! " + getCurrentNameEnemy() + " wins on time");
+        setGameState(GameState.TIMEOUT);
+        return true;
+    }
+
+    // Gives both players the base time again and, if the game is on, runs the clock of the player to move
+    private void restartClock() {
+        if (clock == null)
+            return;
+        clock.reset();
+        if (gameState == GameState.RUNNING && board != null)
+            clock.start(whiteTurn);
     }
 
     /**
@@ -81,6 +137,29 @@ public class ChessGame implements Serializable {
         return sb.toString();
     }
 
+    /**
+     * Returns the Zobrist key of the current position (pieces, side to move,
+     * castling rights and en passant file). Cheap to call; equal positions share a key.
+     *
+     * @return 64-bit position key
+     * @throws IllegalStateException if game hasn't been started
+     */
+    public long getPositionKey() {
+        if (board == null) {
+            throw new IllegalStateException("O jogo ainda não foi iniciado.");
+        }
+        return board.getKey();
+    }
+
+    /**
+     * Checks whether it is white's turn to move.
+     *
+     * @return true if white moves next
+     */
+    public boolean isWhiteTurn() {
+        return whiteTurn;
+    }
+
     /**
      * Gets the color of the current player ("White" or "Black").
      *
@@ -120,6 +199,7 @@ public class ChessGame implements Serializable {
 
         gameState = GameState.RUNNING;
         resetGame();
+        restartClock();
     }
 
     /**
@@ -128,13 +208,14 @@ public class ChessGame implements Serializable {
     public void resetGame() {
         board = new Board();
         board.initializer();
+        invalidateLegalMoves();
 
         white = new Player(true, whitePlayerName);
         black = new Player(false, blackPlayerName);
 
         updatePlayerPieces();
 
-        whiteTurn = true;
+        setWhiteTurn(true);
     }
 
 
@@ -146,45 +227,9 @@ public class ChessGame implements Serializable {
      * @return true if the player is in stalemate, false otherwise
      */
     public boolean isStalemate(boolean cPlayer) {
-        // 1. Identifica o jogador
-        Player player;
-        if (cPlayer)
-            player = (whiteTurn ? white : black);
-        else
-            player = (!whiteTurn ? white : black);
-
-        // 2. Encontra o rei desse jogador.
-        King king = null;
-        for (Piece piece : player.getAlive()) {
-            if (piece instanceof King) {
-                king = (King) piece;
-                break;
-            }
-        }
-        // Se o rei não existe, algo está muito errado.
-        if (king == null) return false;
-
-        // 3. CONDIÇÃO 1: O rei do próximo jogador está em xeque?
-        // Se estiver, NÃO pode ser stalemate.
-        if (king.isInCheck(new ArrayList<>()) > 0) {
-            return false;
-        }
-
-        // 4. CONDIÇÃO 2: O próximo jogador tem algum movimento legal?
-        // Itera por todas as peças do jogador.
-        for (Piece piece : player.getAlive()) {
-            // Pede à peça para calcular a sua lista de movimentos (que agora são 100% legais).
-            piece.calculateLegalMoves();
-            // Se a peça tiver QUALQUER movimento na sua lista, então não é stalemate.
-            if (piece.hasMoves()) {
-                return false;
-            }
-        }
-
-        // 5. Se o código chegou até aqui, significa que:
-        // O rei NÃO está em xeque (passo 3) E NÃO há movimentos legais (passo 4).
-        // Esta é a definição de stalemate.
-        return true;
+        boolean isWhite = cPlayer == whiteTurn;
+        King king = board.getKing(isWhite);
+        return king != null && !king.isInCheck() && legalMoves(isWhite).isEmpty();
     }
 
     /**
@@ -195,73 +240,171 @@ public class ChessGame implements Serializable {
      * @return true if the player is in checkmate, false otherwise
      */
     public boolean isCheckmate(boolean cPlayer) {
+        boolean isWhite = cPlayer == whiteTurn;
+        King king = board.getKing(isWhite);
+        return king != null && king.isInCheck() && legalMoves(isWhite).isEmpty();
+    }
 
-        System.out.println("isCheckmate");
+    /**
+     * Legal moves of one colour in the current position.
+     * Each colour has one cache entry, keyed by the position key, so the end-of-game checks after
+     * a move and the UI's following queries share one generation. The entries are also dropped
+     * explicitly whenever the game changes the board (see {@link #invalidateLegalMoves()}).
+     *
+     * @param isWhite colour to generate for
+     * @return the cached move buffer; do not modify
+     */
+    private MoveList legalMoves(boolean isWhite) {
+        if (legalMoves == null) {
+            int squares = Board.getBoardSize() * Board.getBoardSize();
+            legalMoves = new MoveList[] { new MoveList(), new MoveList() };
+            legalTargets = new long[2][squares];
+            legalMovesKey = new long[2];
+            legalMovesValid = new boolean[2];
+        }
+
+        int c = isWhite ? 0 : 1;
+        long key = board.getKey();
+        if (legalMovesValid[c] && legalMovesKey[c] == key)
+            return legalMoves[c];
+
+        MoveList moves = legalMoves[c];
+        long[] targets = legalTargets[c];
+        int n = MoveGenerator.generate(board, isWhite, moves);
+        Arrays.fill(targets, 0L);
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            targets[Move.from(move)] |= 1L << Move.to(move);
+        }
+        legalMovesKey[c] = key;
+        legalMovesValid[c] = true;
+        return moves;
+    }
 
-        // 1. Identifica o jogador
-        Player player;
-        if (cPlayer)
-            player = (whiteTurn ? white : black);
-        else
-            player = (!whiteTurn ? white : black);
-        System.out.println("player");
+    // Destinations of the piece on a square, from the cached move set of its colour
+    private long legalTargets(Piece piece) {
+        legalMoves(piece.isWhite());
+        return legalTargets[piece.isWhite() ? 0 : 1][Board.square(piece.getRow(), piece.getCol())];
+    }
 
+    /**
+     * Drops the cached legal moves.
+     * Called on every change of position made through the game (move, undo, redo, import,
+     * promotion); the position key alone does not cover state such as the pieces' moved flags.
+     */
+    void invalidateLegalMoves() {
+        if (legalMovesValid != null)
+            Arrays.fill(legalMovesValid, false);
+    }
 
-        // 2. Encontra o rei desse jogador.
-        King king = null;
-        for (Piece piece : player.getAlive()) {
-            if (piece instanceof King) {
-                king = (King) piece;
-                break;
-            }
-        }
-        if (king == null) return false;
-        System.out.println("kingnotnull");
-        System.out.println("[IS_CHECKMATE_DEBUG] Verificando jogador: " + (player.isWhite() ? "Branco" : "Preto"));
-        System.out.println("[IS_CHECKMATE_DEBUG] Rei a verificar: " + king);
-        int checkStatus = king.isInCheck(new ArrayList<>());
-        System.out.println("[IS_CHECKMATE_DEBUG] Resultado de king.isInCheck(): " + checkStatus);
-        if (checkStatus == 0) {
-            System.out.println("[IS_CHECKMATE_DEBUG] ERRO? Rei não está em xeque, retornando false.");
-            return false; // Esta é a sua lógica original
-        }
+    /**
+     * Gets the legal moves of the side to move, as packed {@link Move}s.
+     * The set is computed once per position and then served from the cache until the position changes.
+     *
+     * @return the cached move list; callers must not modify it
+     */
+    public MoveList getLegalMoves() {
+        return legalMoves(whiteTurn);
+    }
 
+    /**
+     * Gets the static evaluation of the current position, kept up to date by the board on every move.
+     *
+     * @return evaluation in centipawns, positive when white is better; 0 when there is no game
+     */
+    public int getEvaluation() {
+        return board == null ? 0 : board.evaluate();
+    }
 
-        // 3. CONDIÇÃO 1: O rei do próximo jogador está em xeque?
-        // Se NÃO estiver, NÃO pode ser xeque-mate.
-        if (king.isInCheck(new ArrayList<>()) == 0) {
-            return false;
-        }
-        System.out.println("kingnotnull");
+    /**
+     * Gets the static exchange value of a move: the material it wins or loses once the
+     * recaptures on its destination square are played out, without searching.
+     *
+     * @param move packed move (see {@link Move})
+     * @return centipawns for the side playing the move
+     */
+    public int getExchangeValue(int move) {
+        return StaticExchange.evaluate(board, move);
+    }
 
+    /**
+     * Checks whether the piece on a square can be taken with a gain of material.
+     *
+     * @param row Row index (0-based)
+     * @param col Column index (0-based)
+     * @return true if the opponent wins material by capturing it
+     */
+    public boolean isHanging(int row, int col) {
+        return board != null && StaticExchange.isHanging(board, Board.square(row, col));
+    }
 
-        // 4. CONDIÇÃO 2: O próximo jogador tem algum movimento legal para escapar?
-        // (A lógica é idêntica à do stalemate a partir daqui)
-        for (Piece piece : player.getAlive()) {
-            // Pede à peça para calcular a sua lista de movimentos (que agora são 100% legais).
-            // Se o rei está em xeque, esta lista só conterá movimentos que o tirem do xeque.
-            System.out.println("[IS_CHECKMATE_DEBUG] Verificando movimentos para a peça branca: " + piece);
-            piece.calculateLegalMoves();
-            if (piece.hasMoves()) {
-                System.out.println("[IS_CHECKMATE_DEBUG] ERRO? Peça " + piece + " reporta que TEM movimentos legais. Retornando false.");
-                for(Spot s : piece.getLegalMoves()){
-                    System.out.println("    Movimento 'legal' encontrado: " + s.convertToChessNotation(board.getBoardSize()));
-                }
-                return false;
-            } else {
-                System.out.println("[IS_CHECKMATE_DEBUG] Peça " + piece + " NÃO tem movimentos legais.");
-            }
-        }
+    /**
+     * Sets the endgame tables that end the game as soon as a position is a draw with best play
+     * (e.g. a king and pawn that cannot promote, or a bare king against a king and knight);
+     * applies from the next move or import.
+     *
+     * @param tablebases tables to probe, or null to end games only on checkmate and stalemate
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
 
-        // 5. Se o código chegou até aqui, significa que:
-        // O rei ESTÁ em xeque (passo 3) E NÃO há movimentos legais para escapar (passo 4).
-        // Esta é a definição de xeque-mate.
-        return true;
+    /**
+     * Gets the endgame tables the game probes, or null if it has none.
+     */
+    public Tablebases getTablebases() {
+        return tablebases;
+    }
+
+    // A position the endgame tables know to be drawn with best play ends the game
+    private boolean isTablebaseDraw(boolean whiteToMove) {
+        return tablebases != null && tablebases.probe(board, whiteToMove) == Tablebases.DRAW;
     }
 
+    /**
+     * Works out what a move just played means for the opponent, from a single generation of
+     * the opponent's legal moves.
+     *
+     * @param result result of the move itself
+     * @param capture whether the move took a piece
+     * @param opponentIsWhite colour of the side that has to answer the move
+     * @return the move's outcome
+     */
+    private MoveOutcome evaluate(MoveResult result, boolean capture, boolean opponentIsWhite) {
+        King king = board.getKing(opponentIsWhite);
+        boolean check = king != null && king.isInCheck();
+        boolean noMoves = king != null && legalMoves(opponentIsWhite).isEmpty();
+        boolean checkmate = check && noMoves;
+        boolean stalemate = !check && noMoves;
+
+        // "c" when the player whose turn it is wins, "e" when the other one does
+        boolean currentWins = opponentIsWhite != whiteTurn;
+        GameState state = gameState;
+        if (checkmate) {
+            result = currentWins ? MoveResult.CHECKMATEc : MoveResult.CHECKMATEe;
+            state = currentWins ? GameState.CHECKMATEc : GameState.CHECKMATEe;
+        } else if (stalemate) {
+            result = MoveResult.STALEMATE;
+            state = GameState.STALEMATE;
+        } else if (isTablebaseDraw(opponentIsWhite)) {
+            result = MoveResult.DRAW;
+            state = GameState.DRAW;
+        }
+        return new MoveOutcome(result, capture, check, checkmate, stalemate, state);
+    }
+
+    /**
+     * Gets the outcome of the last move played (or promotion completed).
+     *
+     * @return the last MoveOutcome, or null if no move has been played in this game
+     */
+    public MoveOutcome getLastOutcome() {
+        return lastOutcome;
+    }
 
     /**
      * Attempts to move a piece from one position to another.
+     * Rejected moves (out of bounds, wrong origin, illegal destination) leave the board and the turn unchanged.
      *
      * @param from Starting position in chess notation (e.g., "e2")
      * @param to Target position in chess notation (e.g., "e4")
@@ -275,10 +418,8 @@ public class ChessGame implements Serializable {
 
         MoveResult outCome = MoveResult.VALID_MOVE;
 
-        Player player = (whiteTurn ? white : black);
         Player enemy = (whiteTurn ? black : white);
 
-
         int fromRow = board.getBoardSize() - (from.charAt(1) - '0');
         int fromCol = from.charAt(0) - 'a';
         int toRow = board.getBoardSize() - (to.charAt(1) - '0');
@@ -286,54 +427,47 @@ public class ChessGame implements Serializable {
         int result = -1;
 
         if (!new Spot(toRow, toCol).isValid(board.getBoardSize()) || !new Spot(fromRow, fromCol).isValid(board.getBoardSize())) {
-            outCome = MoveResult.OUT_OF_BOUNDS;
+            ModelLog.getInstance().addLog("Out of bounds: " + from + " or " + to + " is outside board");
+            return MoveResult.OUT_OF_BOUNDS;
         }
 
         Piece playerP = board.getPiece(fromRow, fromCol);
         Piece enemyP = board.getPiece(toRow, toCol);
 
-        if (playerP == null || !player.getAlive().contains(playerP)) {
-            outCome = MoveResult.INVALID_ORIGIN;
+        if (playerP == null || playerP.isWhite() != whiteTurn) {
+            ModelLog.getInstance().addLog("Invalid origin: " + from + " - No piece or wrong player");
+            return MoveResult.INVALID_ORIGIN;
         }
 
-        // En Passant
-        if (playerP instanceof Pawn && enemyP == null && fromCol != toCol) {
-            Spot[] lastMove = board.getLastMove();
-            if (lastMove != null) {
-                Spot start = lastMove[0];
-                Spot end = lastMove[1];
-                Piece capturedPawn = board.getPiece(end.getRow(), end.getCol());
-                if (capturedPawn instanceof Pawn && Math.abs(end.getRow() - start.getRow()) == 2 && end.getCol() == start.getCol()) {
-                    board.movePiece(new Spot(fromRow, fromCol), new Spot(toRow, toCol));
-                    to = capturedPawn.toString();
-                    board.remPieceBoard(end.getRow(), end.getCol());
-                    enemy.kill(capturedPawn);
-
-                    result = 2;
-                    outCome = MoveResult.EN_PASSANT;
-                }
-            }
+        // Validated once, against the cached move set of the side to move; the board then plays it unchecked
+        int move = findLegalMove(Board.square(fromRow, fromCol), Board.square(toRow, toCol));
+        if (move == Move.NONE) {
+            ModelLog.getInstance().addLog("Invalid move: " + from + " to " + to);
+            return MoveResult.INVALID_MOVE;
         }
 
-        // Castling
-        boolean castling = false;
-        if (playerP instanceof King king && Math.abs(fromCol - toCol) == 2) {
-            int rookCol = toCol > fromCol ? board.getBoardSize() - 1 : 0; // h1 or a1
-            int rookTargetCol = toCol > fromCol ? toCol - 1 : toCol + 1; // f1 or d1
-
-            Piece rook = board.getPiece(fromRow, rookCol);
-            if (rook instanceof Rook r) {
-                board.movePiece(new Spot(fromRow, rookCol), new Spot(fromRow, rookTargetCol));
-                king.setIsCastling(true);
-                r.setMoved(true); // Explicitly mark rook as moved
-                castling = true;
+        // En Passant
+        if (playerP instanceof Pawn && enemyP == null && fromCol != toCol
+                && Board.square(toRow, toCol) == board.getEnPassantSquare()) {
+            Piece capturedPawn = board.getPiece(fromRow, toCol);
+            if (capturedPawn instanceof Pawn && board.movePiece(move) != 0) {
+                to = capturedPawn.toString();
+                board.remPieceBoard(capturedPawn);
+                enemy.kill(capturedPawn);
+
+                result = 2;
+                outCome = MoveResult.EN_PASSANT;
             }
         }
 
-        if(result == -1) {
-            result = board.movePiece(new Spot(fromRow, fromCol), new Spot(toRow, toCol));
+        // Castling (Board.movePiece also carries the rook across)
+        boolean castling = playerP instanceof King && Math.abs(fromCol - toCol) == 2;
+
+        if (result == -1) {
+            result = board.movePiece(move);
             if (result == 0) {
-                outCome = MoveResult.INVALID_MOVE;
+                ModelLog.getInstance().addLog("Invalid move: " + from + " to " + to);
+                return MoveResult.INVALID_MOVE;
             }
 
             if (result == 2 && enemyP != null) {
@@ -342,55 +476,21 @@ public class ChessGame implements Serializable {
         }
 
         int promotionRow = playerP.isWhite() ? 0 : board.getBoardSize() - 1;
-        if (playerP instanceof Pawn) {
-            if (toRow == promotionRow) {
-                pawnToPromote = playerP;
-                outCome = MoveResult.PROMOTION;
-            }
-        }
-
-        King king = null;
-        for (Piece piece : player.getAlive()) {
-            if (piece instanceof King) {
-                king = (King) piece;
-                break;
-            }
-        }
-
-
-        if (castling) {
+        if (playerP instanceof Pawn && toRow == promotionRow) {
+            pawnToPromote = playerP;
+            outCome = MoveResult.PROMOTION;
+        } else if (castling) {
             outCome = MoveResult.CASTLING;
-            ((King) playerP).setIsCastling(false);
+        } else if (result == 2 && outCome != MoveResult.EN_PASSANT) {
+            outCome = MoveResult.CAPTURE;
         }
 
-
-        if (outCome != MoveResult.EN_PASSANT && outCome != MoveResult.CASTLING) {
-            if (result == 2 && toRow == promotionRow && playerP instanceof Pawn) {
-                outCome = MoveResult.PROMOTION;
-            } else if (result == 2) {
-                outCome = MoveResult.CAPTURE;
-            }
-        }
-
-        if (isCheckmate(false)) {
-            outCome = MoveResult.CHECKMATEc;
-        } else if (king != null && king.isInCheck(new ArrayList<>()) > 0) {
-            outCome = MoveResult.CHECKMATEe;
-        } else if (isStalemate(false)) {
-            outCome = MoveResult.STALEMATE;
-        }
+        invalidateLegalMoves();
+        lastOutcome = evaluate(outCome, result == 2, !whiteTurn);
+        outCome = lastOutcome.result();
 
         // Add comprehensive logging
         switch (outCome) {
-            case INVALID_MOVE ->
-                    ModelLog.getInstance().addLog("Invalid move: " + from + " to " + to);
-
-            case INVALID_ORIGIN ->
-                    ModelLog.getInstance().addLog("Invalid origin: " + from + " - No piece or wrong player");
-
-            case OUT_OF_BOUNDS ->
-                    ModelLog.getInstance().addLog("Out of bounds: " + from + " or " + to + " is outside board");
-
             case CAPTURE ->
                     ModelLog.getInstance().addLog("Capture: " + from + " takes " + to);
 
@@ -407,23 +507,28 @@ public class ChessGame implements Serializable {
                 return outCome;
             }
 
-            case CHECKMATEe -> {
-                ModelLog.getInstance().addLog("CHECKMATE! " + getCurrentNameEnemy() + " wins");
-                setGameState(GameState.CHECKMATEe);
-                return outCome;
-            }
-
             case STALEMATE -> {
                 ModelLog.getInstance().addLog("STALEMATE! Game ends in draw");
                 setGameState(GameState.STALEMATE);
                 return outCome;
             }
 
+            case DRAW -> {
+                ModelLog.getInstance().addLog("DRAW! Tablebases: game ends in draw");
+                setGameState(GameState.DRAW);
+                return outCome;
+            }
+
             case EN_PASSANT ->
                     ModelLog.getInstance().addLog("En Passant: " + from + " takes " + to);
+
+            default -> {
+            }
         }
 
-        whiteTurn = !whiteTurn;
+        if (clock != null)
+            clock.press(whiteTurn);
+        setWhiteTurn(!whiteTurn);
 
         return outCome;
     }
@@ -475,6 +580,7 @@ public class ChessGame implements Serializable {
      */
     public void importGame(String gameState) {
         board = new Board();
+        invalidateLegalMoves();
         if (gameState == null || gameState.isEmpty()) {
             return;
         }
@@ -482,7 +588,7 @@ public class ChessGame implements Serializable {
         String[] parts = gameState.split(",");
         if (parts.length < 1) return;
 
-        whiteTurn = parts[0].trim().equalsIgnoreCase("WHITE");
+        setWhiteTurn(parts[0].trim().equalsIgnoreCase("WHITE"));
 
         for (int i = 1; i < parts.length; i++) {
             String pieceStr = parts[i].trim();
@@ -510,6 +616,73 @@ public class ChessGame implements Serializable {
             }
         }
 
+        updateImportedGameState();
+    }
+
+    /**
+     * Imports a position written in Forsyth-Edwards Notation (FEN).
+     * Piece placement, side to move, castling rights and the en passant square are read;
+     * the move counters, if present, are ignored.
+     *
+     * @param fen FEN string, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
+     * @throws IllegalArgumentException if the placement field is malformed
+     */
+    public void importFen(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        String[] rows = fields[0].split("/");
+        if (rows.length != Board.getBoardSize()) {
+            throw new IllegalArgumentException("FEN inválido: " + fen);
+        }
+
+        board = new Board();
+        invalidateLegalMoves();
+        for (int row = 0; row < rows.length; row++) {
+            int col = 0;
+            for (char c : rows[row].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                    continue;
+                }
+                Piece piece = PieceFactory.createPieceFromText(board, "" + c + (char) ('a' + col) + (Board.getBoardSize() - row));
+                if (piece == null || col >= Board.getBoardSize()) {
+                    throw new IllegalArgumentException("FEN inválido: " + fen);
+                }
+                // Castling rights are restored below; pawns off their starting row have moved
+                piece.setMoved(!(piece instanceof Pawn) || row != (piece.isWhite() ? Board.getBoardSize() - 2 : 1));
+                board.addPieceBoard(piece);
+                col++;
+            }
+        }
+
+        setWhiteTurn(fields.length < 2 || fields[1].equalsIgnoreCase("w"));
+
+        String castling = fields.length > 2 ? fields[2] : "-";
+        int last = Board.getBoardSize() - 1;
+        restoreCastlingRight(castling.indexOf('K') >= 0, true, last, last);
+        restoreCastlingRight(castling.indexOf('Q') >= 0, true, last, 0);
+        restoreCastlingRight(castling.indexOf('k') >= 0, false, 0, last);
+        restoreCastlingRight(castling.indexOf('q') >= 0, false, 0, 0);
+
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            board.setEnPassantSquare(Board.square(Board.getBoardSize() - (fields[3].charAt(1) - '0'), fields[3].charAt(0) - 'a'));
+        }
+
+        updateImportedGameState();
+    }
+
+    private void restoreCastlingRight(boolean hasRight, boolean isWhite, int row, int rookCol) {
+        King king = board.getKing(isWhite);
+        Piece rook = board.getPiece(row, rookCol);
+        if (hasRight && king != null && rook instanceof Rook && rook.isWhite() == isWhite) {
+            king.setMoved(false);
+            rook.setMoved(false);
+        }
+    }
+
+    /**
+     * Refreshes the players' pieces and works out whether an imported position is already over.
+     */
+    private void updateImportedGameState() {
         this.gameState = GameState.RUNNING;
         updatePlayerPieces();
         if (isCheckmate(false)) {
@@ -521,9 +694,13 @@ public class ChessGame implements Serializable {
         } else if (isStalemate(false) || isStalemate(true)) {
             this.gameState = GameState.STALEMATE;
             ModelLog.getInstance().addLog("STALEMATE! Game ends in draw");
+        } else if (isTablebaseDraw(whiteTurn)) {
+            this.gameState = GameState.DRAW;
+            ModelLog.getInstance().addLog("DRAW! Tablebases: game ends in draw");
         } else {
             this.gameState = GameState.RUNNING;
         }
+        restartClock();
     }
 
     /**
@@ -638,6 +815,21 @@ public class ChessGame implements Serializable {
             black.addAlive(promotedPiece);
         }
 
+        invalidateLegalMoves();
+
+        // The turn has already passed; the new piece may mate, stalemate or draw where the pawn did not
+        lastOutcome = evaluate(MoveResult.PROMOTION, lastOutcome != null && lastOutcome.capture(), whiteTurn);
+        if (lastOutcome.checkmate()) {
+            ModelLog.getInstance().addLog("CHECKMATE! " + getCurrentNameEnemy() + " wins");
+            setGameState(lastOutcome.gameState());
+        } else if (lastOutcome.stalemate()) {
+            ModelLog.getInstance().addLog("STALEMATE! Game ends in draw");
+            setGameState(lastOutcome.gameState());
+        } else if (lastOutcome.result() == MoveResult.DRAW) {
+            ModelLog.getInstance().addLog("DRAW! Tablebases: game ends in draw");
+            setGameState(lastOutcome.gameState());
+        }
+
         return promotedPiece.convertToChessNotation(getBoardSize());
     }
 
@@ -666,8 +858,7 @@ public class ChessGame implements Serializable {
      */
     public boolean hasMoves(int row, int col) {
         Piece piece = board.getPiece(row, col);
-        piece.calculateLegalMoves();
-        return piece.hasMoves();
+        return piece != null && legalTargets(piece) != 0;
     }
 
     /**
@@ -680,7 +871,10 @@ public class ChessGame implements Serializable {
      */
     public boolean hasMove(Spot start, int row, int col) {
         Piece cPiece = board.getPiece(start.getRow(), start.getCol());
-        return cPiece.getLegalMoves().contains(new Spot(row, col));
+        if (cPiece == null || !new Spot(row, col).isValid(board.getBoardSize())) {
+            return false;
+        }
+        return (legalTargets(cPiece) & Board.squareBit(row, col)) != 0;
     }
 
     /**
@@ -694,12 +888,13 @@ public class ChessGame implements Serializable {
         Piece piece = board.getPiece(row, col);
         if (piece == null) return "No piece at this position.";
 
-        piece.calculateLegalMoves();
         StringBuilder sb = new StringBuilder();
         sb.append(piece.toString()).append(" legal moves: ");
 
-        for (Spot move : piece.getLegalMoves()) {
-            sb.append(move.convertToChessNotation(board.getBoardSize())).append(" ");
+        long targets = legalTargets(piece);
+        while (targets != 0) {
+            sb.append(Move.squareName(Long.numberOfTrailingZeros(targets))).append(" ");
+            targets &= targets - 1;
         }
         return sb.toString().trim();
     }
@@ -715,7 +910,47 @@ public class ChessGame implements Serializable {
      * Switches turn to the other player.
      */
     public void switchTurn() {
-        whiteTurn = !whiteTurn;
+        setTurn(!whiteTurn);
+    }
+
+    /**
+     * Gives the turn to a player, e.g. back to the one whose move is undone: a move that ends the
+     * game keeps the turn, so undoing it must not just switch it.
+     * Used by the move commands on undo, so it also drops the cached legal moves.
+     *
+     * @param isWhite true for White to move
+     */
+    public void setTurn(boolean isWhite) {
+        invalidateLegalMoves();
+        setWhiteTurn(isWhite);
+        if (clock != null && clock.isRunning())
+            clock.start(whiteTurn); // taking a move back gives no increment
+    }
+
+    /**
+     * Finds the legal move of the side to move between two squares.
+     *
+     * @param from origin square ({@code row * 8 + col})
+     * @param to destination square
+     * @return the packed move with its capture, castling and en passant flags (for a promotion,
+     *         the first of its promotion choices), or {@link Move#NONE} if it is not legal
+     */
+    public int findLegalMove(int from, int to) {
+        MoveList moves = legalMoves(whiteTurn);
+        if ((legalTargets[whiteTurn ? 0 : 1][from] & 1L << to) == 0)
+            return Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Move.from(move) == from && Move.to(move) == to)
+                return move;
+        }
+        return Move.NONE;
+    }
+
+    // The board keeps its own copy of the side to move, which is part of its position key
+    private void setWhiteTurn(boolean isWhite) {
+        whiteTurn = isWhite;
+        board.setWhiteToMove(isWhite);
     }
 
     /**
@@ -743,7 +978,23 @@ public class ChessGame implements Serializable {
         /** The move results in checkmate for enemy player */
         CHECKMATEe,
         /** The game ends in stalemate */
-        STALEMATE
+        STALEMATE,
+        /** The game ends in a draw the endgame tables have proven */
+        DRAW
+    }
+
+    /**
+     * Everything a move changed, worked out in a single pass over the opponent's legal moves.
+     *
+     * @param result the move's result, as returned by {@link #move(String, String)}
+     * @param capture whether a piece was taken (en passant included)
+     * @param check whether the opponent's king is now in check
+     * @param checkmate whether the opponent is checkmated
+     * @param stalemate whether the opponent is stalemated
+     * @param gameState the game state after the move
+     */
+    public record MoveOutcome(MoveResult result, boolean capture, boolean check,
+                              boolean checkmate, boolean stalemate, GameState gameState) {
     }
 
     /**
@@ -760,6 +1011,10 @@ public class ChessGame implements Serializable {
         CHECKMATEe,
         /** The game ended in stalemate (draw) */
         STALEMATE,
+        /** The current player ran out of time and lost */
+        TIMEOUT,
+        /** The game ended in a draw the endgame tables have proven */
+        DRAW,
     }
 
 
@@ -1,13 +1,32 @@
 package pt.isec.pa.chess.model;
 
+import pt.isec.pa.chess.engine.Engine;
+import pt.isec.pa.chess.engine.HashStats;
+import pt.isec.pa.chess.engine.Network;
+import pt.isec.pa.chess.engine.PawnHashStats;
+import pt.isec.pa.chess.engine.Pruning;
+import pt.isec.pa.chess.engine.SearchInfo;
+import pt.isec.pa.chess.engine.SearchLimits;
+import pt.isec.pa.chess.engine.TimeManager;
 import pt.isec.pa.chess.model.command.CommandManager;
 import pt.isec.pa.chess.model.command.MoveCommand;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveList;
 import pt.isec.pa.chess.model.data.Spot;
+import pt.isec.pa.chess.model.tablebase.Tablebases;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The main controller class for the chess game implementing the Facade pattern.
@@ -26,6 +45,7 @@ import java.io.IOException;
  * @see PropertyChangeSupport
  * @see ChessGameSerialization
  * @see ModelLog
+ * @see Engine
  */
 public class ChessGameManager {
     /** Event fired when a new game starts */
@@ -36,12 +56,54 @@ public class ChessGameManager {
     public static final String PROP_UPDATE_BOARD = "prop_update_board";
     /** Event fired when game logs update */
     public static final String PROP_LOGS = "prop_logs";
+    /** Event fired when the engine completes a search iteration (new value: {@link SearchInfo}) */
+    public static final String PROP_ENGINE_INFO = "prop_engine_info";
+    /** Event fired, at most every {@link #CLOCK_TICK_MILLIS} ms, while a clock is running (new value: {@link GameClock}) */
+    public static final String PROP_CLOCK = "prop_clock";
+    /** Event fired, at most every {@link #ANALYSIS_REFRESH_MILLIS} ms, with the analysis lines (new value: {@code List<SearchInfo>}, best first) */
+    public static final String PROP_ANALYSIS = "prop_analysis";
     /** Event fired when sound language changes */
     private final ChessGame game;
 
     PropertyChangeSupport pcs;
     private final CommandManager cm;
 
+    /** Default thinking time of the engine per move, in milliseconds */
+    public static final long DEFAULT_ENGINE_TIME = 1000;
+
+    private final Engine engine;
+    private Boolean engineWhite; // side played by the engine, null when two people play
+    private SearchLimits engineLimits = SearchLimits.time(DEFAULT_ENGINE_TIME);
+    private Executor eventExecutor = Runnable::run;
+    private int engineSearchId; // identifies the search whose result is still wanted
+
+    private boolean ponderEnabled = true;
+    private int ponderSearchId = -1; // engineSearchId of the ponder search, until the player moves
+    private long ponderKey;          // position searched by the ponder search
+    private int ponderMove;          // player's move the ponder search expects
+    private SearchInfo ponderResult; // result of a ponder search that ended before the player moved
+
+    /** Interval between clock events, in milliseconds (10 per second) */
+    public static final long CLOCK_TICK_MILLIS = 100;
+
+    private ScheduledExecutorService timer; // clock ticks and coalesced analysis events, started on first use
+    private boolean clockTicking;
+    private final AtomicBoolean clockTickPending = new AtomicBoolean();
+
+    /** Shortest interval between two analysis events, in milliseconds */
+    public static final long ANALYSIS_REFRESH_MILLIS = 250;
+    /** Default number of lines of the analysis */
+    public static final int DEFAULT_ANALYSIS_LINES = 3;
+
+    private boolean analysisMode;
+    private int analysisLines = DEFAULT_ANALYSIS_LINES;
+    private int analysisSearchId = -1; // engineSearchId of the running analysis
+    private long analysisKey;          // position being analysed
+    private final AtomicReference<AnalysisUpdate> latestAnalysis = new AtomicReference<>(); // not yet delivered
+    private volatile long lastAnalysisEvent; // System.nanoTime of the last analysis event
+
+    private record AnalysisUpdate(int searchId, List<SearchInfo> lines) {}
+
     /**
      * Constructs a new ChessGameManager with empty game state.
      * Initializes:
@@ -55,6 +117,7 @@ public class ChessGameManager {
         this.game = new ChessGame();
         pcs = new PropertyChangeSupport(this);
         this.cm = new CommandManager();
+        this.engine = new Engine();
     }
 
     /**
@@ -80,15 +143,19 @@ public class ChessGameManager {
      * @param blackPlayerName Name for black player
      */
     public void startNewGame(String whitePlayerName, String blackPlayerName) {
+        stopEngine();
+        engine.clearHash(); // results of another game are of no use
         game.setPlayerNames(whitePlayerName, blackPlayerName);
         game.startNewGame();
         cm.reset();
 
         pcs.firePropertyChange(PROP_UPDATE_BOARD, null, queryBoard()); // Notifica ouvintes
         pcs.firePropertyChange(PROP_GAME_STATE, null, null); // Notifica ouvintes
+        startEngineIfItsTurn();
     }
 
     public void resetGame() {
+        stopEngine();
         game.resetGame();
     }
 
@@ -121,6 +188,8 @@ public class ChessGameManager {
         if (file == null) return;
 
         String old = queryBoard(); // Estado anterior do tabuleiro
+        stopEngine();
+        engine.clearHash(); // results of another game are of no use
         ChessGame loadedGame = ChessGameSerialization.deserialize(file.getAbsolutePath());
         this.game.resetGame();
         this.game.importGame(loadedGame.exportGame());
@@ -129,6 +198,7 @@ public class ChessGameManager {
         fireBoardUpdate();
         pcs.firePropertyChange(PROP_GAME_STATE, null, null); // Notifica ouvintes
         pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList()); // Notifica ouvintes
+        startEngineIfItsTurn();
     }
 
     /**
@@ -155,11 +225,14 @@ public class ChessGameManager {
 
         String old = queryBoard(); // Estado anterior do tabuleiro
         String gameState = java.nio.file.Files.readString(file.toPath());
+        stopEngine();
+        engine.clearHash(); // results of another game are of no use
         game.importGame(gameState);
         cm.reset();
         fireBoardUpdate();
         pcs.firePropertyChange(PROP_GAME_STATE, null, null); // Notifica ouvintes
         pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList()); // Notifica ouvintes
+        startEngineIfItsTurn();
     }
 
     /**
@@ -229,11 +302,26 @@ public class ChessGameManager {
 
     /**
      * Attempts a chess move.
+     * While playing against the engine, moves are refused when it is the engine's turn.
      * @param from Starting position (e.g., "e2")
      * @param to Target position (e.g., "e4")
      * @return MoveResult indicating what happened
      */
     public ChessGame.MoveResult move(String from, String to) {
+        if (isEngineTurn()) {
+            ModelLog.getInstance().addLog("Invalid origin: " + from + " - The engine is playing");
+            return ChessGame.MoveResult.INVALID_ORIGIN;
+        }
+        if (checkTime())
+            return ChessGame.MoveResult.INVALID_MOVE;
+        ChessGame.MoveResult result = playMove(from, to, false);
+        if (result != ChessGame.MoveResult.PROMOTION)
+            startEngineIfItsTurn();
+        return result;
+    }
+
+    // Plays a move through the command manager (so it can be undone) and notifies the listeners
+    private ChessGame.MoveResult playMove(String from, String to, boolean byEngine) {
         String old = queryBoard();
         MoveCommand cmd = new MoveCommand(game, from, to);
 
@@ -243,8 +331,10 @@ public class ChessGameManager {
             fireBoardUpdate();
 
             if (result == ChessGame.MoveResult.PROMOTION) {
-                pcs.firePropertyChange(PROP_PROMOTION, null, null);
-            } else if (result == ChessGame.MoveResult.CHECKMATEc || result == ChessGame.MoveResult.CHECKMATEe || result == ChessGame.MoveResult.STALEMATE) {
+                if (!byEngine)
+                    pcs.firePropertyChange(PROP_PROMOTION, null, null);
+            } else if (result == ChessGame.MoveResult.CHECKMATEc || result == ChessGame.MoveResult.CHECKMATEe
+                    || result == ChessGame.MoveResult.STALEMATE || result == ChessGame.MoveResult.DRAW) {
                 pcs.firePropertyChange(PROP_GAME_STATE, null, null); // Notifica ouvintes
             }
 
@@ -260,6 +350,12 @@ public class ChessGameManager {
      */
     public void promotePawn(String promotion) {
         ModelLog.getInstance().addLog("Pawn promoted to " + promotion + " at " + game.promotePawn(promotion));
+        fireBoardUpdate();
+        if (game.getGameState() != ChessGame.GameState.RUNNING) {
+            pcs.firePropertyChange(PROP_GAME_STATE, null, null); // Notifica ouvintes
+        }
+        pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList());
+        startEngineIfItsTurn();
     }
 
     /**
@@ -303,18 +399,59 @@ public class ChessGameManager {
         return game.getLegalMovesString(row, col);
     }
 
+    /**
+     * Gets the legal moves of the side to move, served from the game's move cache.
+     * @return packed moves (see {@link Move}); do not modify
+     */
+    public MoveList getLegalMoves() {
+        return game.getLegalMoves();
+    }
+
+    /**
+     * Gets the static evaluation of the current position, for an evaluation bar.
+     * @return centipawns, positive when white is better
+     */
+    public int getEvaluation() {
+        return game.getEvaluation();
+    }
+
+    /**
+     * Gets the static exchange value of a move (see {@link ChessGame#getExchangeValue(int)}).
+     * @param move packed move, e.g. from {@link #getLegalMoves()}
+     * @return centipawns won (positive) or lost by the side playing it
+     */
+    public int getExchangeValue(int move) {
+        return game.getExchangeValue(move);
+    }
+
+    /**
+     * Checks whether the piece on a square is hanging: the opponent wins material by taking it.
+     * @param row Row index
+     * @param col Column index
+     * @return true if the piece can be won
+     */
+    public boolean isHanging(int row, int col) {
+        return game.isHanging(row, col);
+    }
+
     /**
      * Undoes the last move.
+     * Against the engine, the engine's reply is undone together with the player's move.
      * @return true if undo was successful
      */
     public boolean undo() {
         String old = queryBoard();
+        stopEngine();
         boolean success = cm.undo();
+        if (success && isEngineTurn() && cm.hasUndo())
+            cm.undo();
+        game.invalidateLegalMoves();
         if (success) {
             fireBoardUpdate();
             pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList());
             pcs.firePropertyChange(PROP_GAME_STATE, null, null); // Notifica ouvintes
         }
+        startEngineIfItsTurn();
         return success;
     }
 
@@ -324,12 +461,17 @@ public class ChessGameManager {
      */
     public boolean redo() {
         String old = queryBoard();
+        stopEngine();
         boolean success = cm.redo();
+        if (success && isEngineTurn() && cm.hasRedo())
+            cm.redo();
+        game.invalidateLegalMoves();
         if (success) {
             fireBoardUpdate();
             pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList());
             pcs.firePropertyChange(PROP_GAME_STATE, null, null); // Notifica ouvintes
         }
+        startEngineIfItsTurn();
         return success;
     }
 
@@ -347,6 +489,464 @@ public class ChessGameManager {
         return cm.hasRedo();
     }
 
+    /**
+     * Sets the executor that delivers the engine's events and moves.
+     * The engine thinks on a background thread; the UI passes its own thread's executor
+     * (e.g. {@code Platform::runLater}) so the game is only ever changed on that thread.
+     * By default events are delivered directly on the engine thread.
+     * @param executor Executor for engine callbacks
+     */
+    public void setEventExecutor(Executor executor) {
+        this.eventExecutor = executor != null ? executor : Runnable::run;
+    }
+
+    /**
+     * Starts playing against the engine, which takes the given side.
+     * If it is already the engine's turn, it starts thinking at once.
+     * @param engineIsWhite true for the engine to play White
+     */
+    public void playVsEngine(boolean engineIsWhite) {
+        stopEngine();
+        analysisMode = false;
+        engineWhite = engineIsWhite;
+        ModelLog.getInstance().addLog("Engine plays " + (engineIsWhite ? "White" : "Black"));
+        pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList());
+        startEngineIfItsTurn();
+    }
+
+    /**
+     * Stops playing against the engine; both sides are moved by people again.
+     */
+    public void playVsHuman() {
+        stopEngine();
+        engineWhite = null;
+    }
+
+    /**
+     * Checks if a side is played by the engine.
+     */
+    public boolean isEngineMode() {
+        return engineWhite != null;
+    }
+
+    /**
+     * Checks if it is the engine's turn to move.
+     */
+    public boolean isEngineTurn() {
+        return engineWhite != null && game.getBoard() != null && game.isWhiteTurn() == engineWhite;
+    }
+
+    /**
+     * Checks if the engine is thinking (pondering included).
+     */
+    public boolean isEngineThinking() {
+        return engine.isSearching();
+    }
+
+    /**
+     * Sets whether the engine ponders: thinks on the player's time about the reply it expects.
+     * When the player makes that move, the engine goes on with the search it has already started;
+     * any other move stops it. Applies from the engine's next move.
+     * @param enabled Whether the engine ponders
+     */
+    public void setEnginePondering(boolean enabled) {
+        ponderEnabled = enabled;
+        if (!enabled && isEnginePondering())
+            stopEngine();
+    }
+
+    /**
+     * Checks whether the engine ponders (see {@link #setEnginePondering(boolean)}).
+     */
+    public boolean isEnginePonderingEnabled() {
+        return ponderEnabled;
+    }
+
+    /**
+     * Checks if the engine is pondering right now, waiting for the player's move.
+     */
+    public boolean isEnginePondering() {
+        return ponderSearchId == engineSearchId && !isEngineTurn();
+    }
+
+    /**
+     * Gets the player's move the engine is pondering on.
+     * @return packed move (see {@link Move}), or {@code Move.NONE} if the engine is not pondering
+     */
+    public int getEnginePonderMove() {
+        return isEnginePondering() ? ponderMove : Move.NONE;
+    }
+
+    /**
+     * Sets how long or how deep the engine thinks on each move; on the clock, its time comes from the clock instead.
+     * @param limits Depth and/or time limits
+     */
+    public void setEngineLimits(SearchLimits limits) {
+        this.engineLimits = limits;
+    }
+
+    /**
+     * Gets the engine's search limits.
+     */
+    public SearchLimits getEngineLimits() {
+        return engineLimits;
+    }
+
+    /**
+     * Sets how many threads the engine searches with (Lazy SMP); applies from its next move.
+     * @param threads Number of threads, at least 1
+     */
+    public void setEngineThreads(int threads) {
+        engine.setThreads(threads);
+    }
+
+    /**
+     * Gets how many threads the engine searches with.
+     */
+    public int getEngineThreads() {
+        return engine.getThreads();
+    }
+
+    /**
+     * Switches one of the engine's selective search techniques on or off; applies from its next move.
+     * @param technique Technique to switch
+     * @param enabled Whether the engine uses it
+     */
+    public void setEnginePruning(Pruning technique, boolean enabled) {
+        engine.setPruning(technique, enabled);
+    }
+
+    /**
+     * Checks whether the engine uses a selective search technique.
+     */
+    public boolean isEnginePruningEnabled(Pruning technique) {
+        return engine.isPruningEnabled(technique);
+    }
+
+    /**
+     * Sets the size of the engine's transposition table; its contents are dropped.
+     * @param megabytes Size in megabytes
+     */
+    public void setEngineHashSize(int megabytes) {
+        stopEngine();
+        engine.setHashSize(megabytes);
+    }
+
+    /**
+     * Gets the size of the engine's transposition table, in megabytes.
+     */
+    public int getEngineHashSize() {
+        return engine.getHashSize();
+    }
+
+    /**
+     * Gets the hit/miss/overwrite counters of the engine's transposition table.
+     */
+    public HashStats getEngineHashStats() {
+        return engine.getHashStats();
+    }
+
+    /**
+     * Gets the size and hit/miss counters of the engine's pawn hash tables.
+     */
+    public PawnHashStats getEnginePawnHashStats() {
+        return engine.getPawnHashStats();
+    }
+
+    /**
+     * Makes the engine evaluate positions with a neural network read from a file, or with the
+     * hand-written evaluation again. Applies from the engine's next search.
+     * @param file Network file (see {@link Network}), or null for the hand-written evaluation
+     * @throws IOException if the file cannot be read or is not a network file
+     */
+    public void setEngineNetwork(File file) throws IOException {
+        Network network = file == null ? null : Network.load(file.toPath());
+        stopEngine();
+        engine.setNetwork(network);
+        ModelLog.getInstance().addLog(network == null ? "Engine: hand-written evaluation"
+                : "Engine: network " + file.getName() + " (" + network.getHiddenSize() + "x2-" + network.getDenseSize() + "-1)");
+        pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList());
+        startEngineIfItsTurn();
+    }
+
+    /**
+     * Checks whether the engine evaluates positions with a neural network.
+     */
+    public boolean isEngineUsingNetwork() {
+        return engine.getNetwork() != null;
+    }
+
+    /**
+     * Loads the endgame tables of a directory (see {@link Tablebases}), or drops them. The engine
+     * plays the positions they cover perfectly and at once, and the game ends as soon as they prove
+     * a draw. Applies from the next move.
+     * @param directory Directory of the table files, or null to play without tables
+     * @throws IOException if the directory cannot be read, has no table files or one of them is invalid
+     */
+    public void setTablebases(File directory) throws IOException {
+        Tablebases tablebases = directory == null ? null : Tablebases.load(directory.toPath());
+        stopEngine();
+        engine.setTablebases(tablebases);
+        game.setTablebases(tablebases);
+        ModelLog.getInstance().addLog(tablebases == null ? "Tablebases: none"
+                : "Tablebases: " + String.join(", ", tablebases.getEndgames()));
+        pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList());
+        startEngineIfItsTurn();
+    }
+
+    /**
+     * Gets the names of the endgame tables loaded, e.g. "KQK", or an empty list without tables.
+     */
+    public List<String> getTablebaseEndgames() {
+        Tablebases tablebases = engine.getTablebases();
+        return tablebases == null ? List.of() : tablebases.getEndgames();
+    }
+
+    /**
+     * Sets the time control of the games: both players get the base time, plus the increment after
+     * each move. A game in progress restarts its clock with the new times.
+     * While a clock runs, {@link #PROP_CLOCK} is fired {@value #CLOCK_TICK_MILLIS} ms apart, and the
+     * engine splits its own remaining time between its moves (see {@link TimeManager}).
+     * @param baseMillis Time of each player, in milliseconds; 0 for untimed games
+     * @param incrementMillis Time added after each move, in milliseconds
+     */
+    public void setTimeControl(long baseMillis, long incrementMillis) {
+        stopEngine();
+        game.setTimeControl(baseMillis, incrementMillis);
+        if (baseMillis > 0 && !clockTicking) {
+            clockTicking = true;
+            timer().scheduleAtFixedRate(this::scheduleClockTick, CLOCK_TICK_MILLIS, CLOCK_TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        pcs.firePropertyChange(PROP_CLOCK, null, game.getClock());
+        startEngineIfItsTurn();
+    }
+
+    /**
+     * Checks whether the game is played on the clock.
+     */
+    public boolean hasClock() {
+        return game.getClock() != null;
+    }
+
+    /**
+     * Gets the time a player has left.
+     * @param white true for White
+     * @return Milliseconds left, or -1 if the game is untimed
+     */
+    public long getClockMillis(boolean white) {
+        GameClock clock = game.getClock();
+        return clock == null ? -1 : clock.getRemainingMillis(white);
+    }
+
+    private synchronized ScheduledExecutorService timer() {
+        if (timer == null) {
+            timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "chess-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return timer;
+    }
+
+    // Timer thread: hands one tick at a time to the event thread, so a busy UI never queues a backlog
+    private void scheduleClockTick() {
+        if (clockTickPending.compareAndSet(false, true))
+            eventExecutor.execute(this::clockTick);
+    }
+
+    private void clockTick() {
+        clockTickPending.set(false);
+        GameClock clock = game.getClock();
+        if (clock == null || !clock.isRunning())
+            return;
+        checkTime();
+        pcs.firePropertyChange(PROP_CLOCK, null, clock);
+    }
+
+    // Ends the game if the player to move has run out of time
+    private boolean checkTime() {
+        if (!game.checkTime())
+            return false;
+        stopEngine();
+        pcs.firePropertyChange(PROP_GAME_STATE, null, null);
+        pcs.firePropertyChange(PROP_LOGS, null, ModelLog.getInstance().getList());
+        return true;
+    }
+
+    /**
+     * Stops the engine's current search, discarding its move.
+     */
+    public void stopEngine() {
+        engineSearchId++;
+        ponderResult = null;
+        engine.stop();
+    }
+
+    private void startEngineIfItsTurn() {
+        if (analysisMode) {
+            startAnalysis();
+            return;
+        }
+        if (!isEngineTurn() || game.getGameState() != ChessGame.GameState.RUNNING)
+            return;
+
+        GameClock clock = game.getClock();
+        SearchLimits limits = clock == null ? engineLimits
+                : TimeManager.limits(clock.getRemainingMillis(engineWhite), clock.getIncrementMillis());
+        if (ponderSearchId == engineSearchId) {
+            ponderSearchId = -1;
+            if (ponderKey == game.getPositionKey()) {
+                // Ponder hit: the search of this very position goes on, now with its own limits
+                ModelLog.getInstance().addLog("Engine: ponder hit");
+                if (ponderResult != null) {
+                    SearchInfo result = ponderResult;
+                    int searchId = engineSearchId;
+                    ponderResult = null;
+                    eventExecutor.execute(() -> playEngineMove(searchId, ponderKey, result));
+                } else {
+                    engine.ponderHit(limits); // if it has just ended, its result is on its way to ponderDone
+                }
+                return;
+            }
+            stopEngine(); // the player did not play the expected move
+        }
+
+        int searchId = ++engineSearchId;
+        long key = game.getPositionKey();
+        engine.start(game.getBoard(), limits,
+                info -> eventExecutor.execute(() -> {
+                    if (searchId == engineSearchId)
+                        pcs.firePropertyChange(PROP_ENGINE_INFO, null, info);
+                }),
+                result -> eventExecutor.execute(() -> playEngineMove(searchId, key, result)));
+    }
+
+    // Plays the engine's move, unless the game has moved on since the search started
+    private void playEngineMove(int searchId, long key, SearchInfo result) {
+        if (searchId != engineSearchId || key != game.getPositionKey() || !isEngineTurn() || checkTime()
+                || game.getGameState() != ChessGame.GameState.RUNNING || result.bestMove() == Move.NONE) {
+            return;
+        }
+
+        int move = result.bestMove();
+        ModelLog.getInstance().addLog("Engine: " + result);
+        ChessGame.MoveResult moveResult = playMove(Move.squareName(Move.from(move)), Move.squareName(Move.to(move)), true);
+        if (moveResult == ChessGame.MoveResult.PROMOTION)
+            promotePawn(Move.promotion(move).name());
+        startPondering(result);
+    }
+
+    // Searches the position after the player's expected reply, the second move of the engine's line
+    private void startPondering(SearchInfo result) {
+        if (!ponderEnabled || engineWhite == null || isEngineTurn()
+                || game.getGameState() != ChessGame.GameState.RUNNING || result.pv().length < 2)
+            return;
+        int expected = result.pv()[1];
+        if (!game.getLegalMoves().contains(expected))
+            return;
+
+        Board position = game.getBoard().clone();
+        position.makeMove(expected);
+        int searchId = ++engineSearchId;
+        ponderSearchId = searchId;
+        ponderKey = position.getKey();
+        ponderMove = expected;
+        ponderResult = null;
+        engine.ponder(position,
+                info -> eventExecutor.execute(() -> {
+                    if (searchId == engineSearchId)
+                        pcs.firePropertyChange(PROP_ENGINE_INFO, null, info);
+                }),
+                done -> eventExecutor.execute(() -> ponderDone(searchId, done)));
+    }
+
+    // After a ponder hit the result is the engine's move; before it, it is kept for when the player moves
+    private void ponderDone(int searchId, SearchInfo result) {
+        if (searchId != engineSearchId)
+            return;
+        if (isEngineTurn())
+            playEngineMove(searchId, ponderKey, result);
+        else
+            ponderResult = result;
+    }
+
+    /**
+     * Switches analysis mode on or off.
+     * In analysis mode the engine searches the current position with no limits and reports its
+     * best lines through {@link #PROP_ANALYSIS}; the analysis restarts, keeping the engine's
+     * transposition table, whenever a move, undo or redo changes the position.
+     * Playing against the engine is switched off.
+     * @param enabled Whether to analyse
+     */
+    public void setAnalysisMode(boolean enabled) {
+        stopEngine();
+        analysisMode = enabled;
+        if (enabled)
+            engineWhite = null;
+        pcs.firePropertyChange(PROP_ANALYSIS, null, List.of());
+        startEngineIfItsTurn();
+    }
+
+    /**
+     * Checks whether analysis mode is on.
+     */
+    public boolean isAnalysisMode() {
+        return analysisMode;
+    }
+
+    /**
+     * Sets how many lines the analysis reports; a running analysis restarts.
+     * @param lines Number of lines, from 1 to {@link Engine#MAX_LINES}
+     */
+    public void setAnalysisLines(int lines) {
+        if (lines < 1 || lines > Engine.MAX_LINES)
+            throw new IllegalArgumentException("Número de linhas inválido: " + lines);
+        analysisLines = lines;
+        if (analysisMode) {
+            stopEngine();
+            startAnalysis();
+        }
+    }
+
+    /**
+     * Gets how many lines the analysis reports.
+     */
+    public int getAnalysisLines() {
+        return analysisLines;
+    }
+
+    private void startAnalysis() {
+        if (game.getBoard() == null || game.getGameState() != ChessGame.GameState.RUNNING) {
+            stopEngine();
+            pcs.firePropertyChange(PROP_ANALYSIS, null, List.of());
+            return;
+        }
+        if (analysisSearchId == engineSearchId && analysisKey == game.getPositionKey() && engine.isSearching())
+            return; // still on this position, e.g. after a refused move
+
+        int searchId = ++engineSearchId;
+        analysisSearchId = searchId;
+        analysisKey = game.getPositionKey();
+        engine.analyse(game.getBoard(), analysisLines, lines -> postAnalysis(new AnalysisUpdate(searchId, lines)));
+    }
+
+    // Engine thread: keeps only the newest lines and has them delivered no sooner than
+    // ANALYSIS_REFRESH_MILLIS after the previous event, however fast the iterations come
+    private void postAnalysis(AnalysisUpdate update) {
+        if (latestAnalysis.getAndSet(update) != null)
+            return; // an event is already on its way, and will carry these lines
+        long wait = lastAnalysisEvent + ANALYSIS_REFRESH_MILLIS * 1_000_000 - System.nanoTime();
+        timer().schedule(() -> eventExecutor.execute(this::deliverAnalysis), Math.max(0, wait), TimeUnit.NANOSECONDS);
+    }
+
+    private void deliverAnalysis() {
+        lastAnalysisEvent = System.nanoTime();
+        AnalysisUpdate update = latestAnalysis.getAndSet(null);
+        if (update != null && update.searchId() == engineSearchId)
+            pcs.firePropertyChange(PROP_ANALYSIS, null, update.lines());
+    }
+
     public static final String PROP_SOUND_LANGUAGE = "prop_sound_language";
     private int soundLanguage = -1; // -1 = disabled, 0 = English, 1 = Portuguese
 
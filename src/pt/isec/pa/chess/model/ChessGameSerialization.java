@@ -6,16 +6,25 @@ public final class ChessGameSerialization {
     private ChessGameSerialization() {} // Prevent instantiation
 
     public static void serialize(ChessGame game, String filename) throws IOException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(
-                new FileOutputStream(filename))) {
-            oos.writeObject(game);
+        try (OutputStream out = new FileOutputStream(filename)) {
+            serialize(game, out);
         }
     }
 
     public static ChessGame deserialize(String filename) throws IOException, ClassNotFoundException {
-        try (ObjectInputStream ois = new ObjectInputStream(
-                new FileInputStream(filename))) {
-            return (ChessGame) ois.readObject();
+        try (InputStream in = new FileInputStream(filename)) {
+            return deserialize(in);
         }
     }
-}
\ No newline at end of file
+
+    // Stream variants; the caller owns (and closes) the stream
+    public static void serialize(ChessGame game, OutputStream out) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(game);
+        oos.flush();
+    }
+
+    public static ChessGame deserialize(InputStream in) throws IOException, ClassNotFoundException {
+        return (ChessGame) new ObjectInputStream(in).readObject();
+    }
+}
@@ -0,0 +1,151 @@
+package pt.isec.pa.chess.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.function.LongSupplier;
+
+/**
+ * A chess clock: each side has a time bank that runs down while it is that side's turn and
+ * gains a fixed increment for every move it completes (Fischer increment).
+ * <p>Time is measured with {@link System#nanoTime()}, so changes to the wall clock do not affect it.
+ * Only the time used so far is stored; the running period is worked out when the clock is read.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class GameClock implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final long baseMillis;
+    private final long incrementMillis;
+    private final long[] remainingNanos = new long[2]; // [0] white, [1] black, up to runningSince
+    private int running = -1;                          // side whose time runs, -1 when stopped
+
+    private transient LongSupplier time;
+    private transient long runningSince;
+
+    /**
+     * Creates a stopped clock with the base time on both sides.
+     *
+     * @param baseMillis time of each side at the start, in milliseconds, at least 1
+     * @param incrementMillis time added after each move, in milliseconds, 0 for none
+     * @throws IllegalArgumentException if a time is out of range
+     */
+    public GameClock(long baseMillis, long incrementMillis) {
+        this(baseMillis, incrementMillis, System::nanoTime);
+    }
+
+    // Time source in nanoseconds, replaceable so tests do not have to wait
+    GameClock(long baseMillis, long incrementMillis, LongSupplier time) {
+        if (baseMillis < 1 || incrementMillis < 0)
+            throw new IllegalArgumentException("Controlo de tempo inválido: " + baseMillis + "+" + incrementMillis);
+        this.baseMillis = baseMillis;
+        this.incrementMillis = incrementMillis;
+        this.time = time;
+        reset();
+    }
+
+    /**
+     * Stops the clock and gives both sides the base time again.
+     */
+    public void reset() {
+        running = -1;
+        remainingNanos[0] = remainingNanos[1] = baseMillis * NANOS_PER_MILLI;
+    }
+
+    /**
+     * Starts (or switches) the clock for a side, without giving any increment.
+     *
+     * @param white true for White's time to run
+     */
+    public void start(boolean white) {
+        settle();
+        running = side(white);
+        runningSince = time.getAsLong();
+    }
+
+    /**
+     * Completes a move: the mover's time stops, gains the increment, and the opponent's starts.
+     *
+     * @param white colour of the side that has just moved
+     */
+    public void press(boolean white) {
+        settle();
+        remainingNanos[side(white)] += incrementMillis * NANOS_PER_MILLI;
+        start(!white);
+    }
+
+    /**
+     * Stops the clock; the remaining times are kept.
+     */
+    public void stop() {
+        settle();
+        running = -1;
+    }
+
+    /**
+     * Checks whether a side's time is running.
+     */
+    public boolean isRunning() {
+        return running >= 0;
+    }
+
+    /**
+     * Gets the time a side has left.
+     *
+     * @param white true for White
+     * @return milliseconds left, 0 once the time has run out
+     */
+    public long getRemainingMillis(boolean white) {
+        return Math.max(0, remainingNanos(side(white)) / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Checks whether a side has run out of time.
+     *
+     * @param white true for White
+     */
+    public boolean hasExpired(boolean white) {
+        return remainingNanos(side(white)) <= 0;
+    }
+
+    public long getBaseMillis() {
+        return baseMillis;
+    }
+
+    public long getIncrementMillis() {
+        return incrementMillis;
+    }
+
+    private long remainingNanos(int side) {
+        long remaining = remainingNanos[side];
+        return side == running ? remaining - (time.getAsLong() - runningSince) : remaining;
+    }
+
+    // Charges the running period to the side whose time runs
+    private void settle() {
+        if (running >= 0) {
+            long now = time.getAsLong();
+            remainingNanos[running] -= now - runningSince;
+            runningSince = now;
+        }
+    }
+
+    private static int side(boolean white) {
+        return white ? 0 : 1;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        settle(); // the time used so far is saved; the running period restarts on loading
+        out.defaultWriteObject();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        time = System::nanoTime;
+        runningSince = time.getAsLong();
+    }
+}
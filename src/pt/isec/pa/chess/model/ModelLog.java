@@ -9,6 +9,8 @@ import java.util.List;
 /**
  * Singleton class for managing game event logs.
  * Stores timestamped messages and provides log management functionality.
+ * Every game in the process writes to the same log, so access is synchronized
+ * and only the most recent {@value #MAX_LOGS} entries are kept.
  *
  * @author Group 06
  * @version 1.0.0
@@ -16,7 +18,10 @@ import java.util.List;
  */
 public class ModelLog implements Serializable {
     /** Serial version UID for serialization compatibility */
-    private static final long serialVersionUID = 3L;
+    private static final long serialVersionUID = 4L;
+
+    /** Maximum number of entries kept; older ones are dropped */
+    public static final int MAX_LOGS = 1000;
 
     private static ModelLog instance;
     private final ArrayList<String> logs;
@@ -34,7 +39,7 @@ public class ModelLog implements Serializable {
      * Gets the singleton instance.
      * @return The single ModelLog instance
      */
-    public static ModelLog getInstance() {
+    public static synchronized ModelLog getInstance() {
         if (instance == null) {
             instance = new ModelLog();
         }
@@ -50,22 +55,26 @@ public class ModelLog implements Serializable {
      * @see Serializable
      */
     protected Object readResolve() {
-        instance = this;
-        return instance;
+        synchronized (ModelLog.class) {
+            instance = this;
+            return instance;
+        }
     }
 
     /**
      * Adds a new log entry with timestamp.
      * @param message The message to log (ignored if null or blank)
      */
-    public void addLog(String message) {
+    public synchronized void addLog(String message) {
         if (message == null || message.isBlank()) return;
 
-        List<String> oldLogs = new ArrayList<>(logs);
         String timestamp = LocalTime.now().format(TIME_FORMATTER);
         String logEntry = "[" + timestamp + "] " + message;
 
         logs.add(0, logEntry); // Add at beginning to show newest first
+        if (logs.size() > MAX_LOGS) {
+            logs.remove(logs.size() - 1);
+        }
     }
 
     /**
@@ -73,12 +82,11 @@ public class ModelLog implements Serializable {
      * @param index The index of log to remove
      * @return true if removal succeeded, false if index invalid
      */
-    public boolean removeLog(int index) {
+    public synchronized boolean removeLog(int index) {
         if (index < 0 || index >= logs.size()) {
             return false;
         }
 
-        List<String> oldLogs = new ArrayList<>(logs);
         logs.remove(index);
         return true;
     }
@@ -87,15 +95,14 @@ public class ModelLog implements Serializable {
      * Gets a copy of all log entries.
      * @return List of log messages (newest first)
      */
-    public List<String> getList() {
+    public synchronized List<String> getList() {
         return new ArrayList<>(logs);
     }
 
     /**
      * Clears all log entries.
      */
-    public void clear() {
-        List<String> oldLogs = new ArrayList<>(logs);
+    public synchronized void clear() {
         logs.clear();
     }
 }
\ No newline at end of file
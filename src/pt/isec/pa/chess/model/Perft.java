@@ -0,0 +1,150 @@
+package pt.isec.pa.chess.model;
+
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+
+import java.io.PrintStream;
+
+/**
+ * Move path enumeration (perft) over the model's move generator.
+ * Counts the leaf nodes of the legal move tree to a fixed depth, which checks the
+ * generator against published reference counts and measures its raw speed.
+ *
+ * <p>Usage: {@code Perft [depth [fen]]}. Without a FEN the reference suite is run.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ *
+ * @see MoveGenerator
+ * @see Board#makeMove(int)
+ */
+public final class Perft {
+    /**
+     * Reference positions with their known node counts; {@code NODES[i][d - 1]} is the count at depth d.
+     */
+    public static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", // Kiwipete
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10"
+    };
+    public static final long[][] NODES = {
+            {20, 400, 8902, 197281, 4865609},
+            {48, 2039, 97862, 4085603},
+            {14, 191, 2812, 43238, 674624, 11030083},
+            {6, 264, 9467, 422333},
+            {44, 1486, 62379, 2103487},
+            {46, 2079, 89890, 3894594}
+    };
+
+    private final Board board;
+    private final MoveList[] moveLists;
+
+    private Perft(Board board, int depth) {
+        this.board = board;
+        this.moveLists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++)
+            moveLists[i] = new MoveList();
+    }
+
+    private long count(boolean isWhite, int depth) {
+        MoveList moves = moveLists[depth];
+        int n = MoveGenerator.generate(board, isWhite, moves);
+        if (depth == 1)
+            return n;
+
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            board.makeMove(moves.get(i));
+            nodes += count(!isWhite, depth - 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes below the game's current position.
+     *
+     * @param game game whose position is enumerated (left unchanged)
+     * @param depth number of plies, at least 1
+     * @return number of leaf nodes
+     */
+    public static long perft(ChessGame game, int depth) {
+        return new Perft(game.getBoard(), depth).count(game.isWhiteTurn(), depth);
+    }
+
+    /**
+     * Counts the leaf nodes below each root move and prints them, followed by the total,
+     * the elapsed time and the nodes per second.
+     *
+     * @param game game whose position is enumerated (left unchanged)
+     * @param depth number of plies, at least 1
+     * @param out stream for the report
+     * @return total number of leaf nodes
+     */
+    public static long divide(ChessGame game, int depth, PrintStream out) {
+        Perft perft = new Perft(game.getBoard(), depth);
+        MoveList roots = new MoveList();
+        int n = MoveGenerator.generate(perft.board, game.isWhiteTurn(), roots);
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            int move = roots.get(i);
+            long nodes = 1;
+            if (depth > 1) {
+                perft.board.makeMove(move);
+                nodes = perft.count(!game.isWhiteTurn(), depth - 1);
+                perft.board.unmakeMove();
+            }
+            out.printf("%s: %d%n", Move.toString(move), nodes);
+            total += nodes;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        out.printf("%nMoves: %d%nNodes: %d%nTime: %.3f ms%nNPS: %.0f%n",
+                n, total, elapsed / 1e6, elapsed == 0 ? 0.0 : total * 1e9 / elapsed);
+        return total;
+    }
+
+    private static ChessGame load(String fen) {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("White", "Black");
+        game.importFen(fen);
+        return game;
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+
+        if (args.length > 1) {
+            StringBuilder fen = new StringBuilder();
+            for (int i = 1; i < args.length; i++)
+                fen.append(args[i]).append(' ');
+            divide(load(fen.toString()), Math.max(depth, 1), System.out);
+            return;
+        }
+
+        boolean allPassed = true;
+        for (int i = 0; i < POSITIONS.length; i++) {
+            int d = depth > 0 ? Math.min(depth, NODES[i].length) : NODES[i].length;
+            ChessGame game = load(POSITIONS[i]);
+
+            long start = System.nanoTime();
+            long nodes = perft(game, d);
+            long elapsed = System.nanoTime() - start;
+
+            boolean passed = nodes == NODES[i][d - 1];
+            allPassed &= passed;
+            System.out.printf("%s depth %d: %d nodes (expected %d) %.3f ms, %.0f nps  %s%n",
+                    passed ? "OK  " : "FAIL", d, nodes, NODES[i][d - 1],
+                    elapsed / 1e6, elapsed == 0 ? 0.0 : nodes * 1e9 / elapsed, POSITIONS[i]);
+        }
+        if (!allPassed)
+            System.exit(1);
+    }
+}
@@ -2,6 +2,8 @@ package pt.isec.pa.chess.model.command;
 
 import pt.isec.pa.chess.model.ChessGame;
 
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
 import pt.isec.pa.chess.model.data.Piece;
 import pt.isec.pa.chess.model.data.pieces.Pawn;
 import pt.isec.pa.chess.model.data.Spot;
@@ -9,20 +11,15 @@ import pt.isec.pa.chess.model.data.Spot;
 public class MoveCommand extends AbstractCommand implements ICommand {
     private final String from;
     private final String to;
-    private Piece capturedPiece;
+    private int move = Move.NONE; // packed move played: its flags tell castling, en passant and promotion apart
+    private Piece capturedPiece;  // en passant included
     private boolean pawnHadMoved;
     private ChessGame.MoveResult moveResult;
     private ChessGame.GameState gameState;
-    private boolean wasCastling;
-    private String rookFrom, rookTo;
     private Piece rookPiece;
-    private boolean wasEnPassant;
-    private Spot enPassantCapturedSpot;
-    private Piece enPassantCapturedPiece;
-    private boolean wasPromotion;
-    private Piece promotedPiece;
     private Pawn originalPawn;
-    private int promotionRow, promotionCol;
+    private int enPassantSquare;
+    private boolean whiteMoved;   // side that played the move: the turn goes back to it on undo
 
     public MoveCommand(ChessGame receiver, String from, String to) {
         super(receiver);
@@ -37,82 +34,36 @@ public class MoveCommand extends AbstractCommand implements ICommand {
         int toRow = receiver.getBoardSize() - (to.charAt(1) - '0');
         int toCol = to.charAt(0) - 'a';
 
-        // redo of castling
-        if (wasCastling && moveResult == ChessGame.MoveResult.CASTLING) {
-            // Move the king
-            Piece king = receiver.getBoard().getPiece(fromRow, fromCol);
-            receiver.getBoard().remPieceBoard(fromRow, fromCol);
-            receiver.getBoard().addPieceBoard(king, toRow, toCol);
-
-            // Move the rook
-            int rookFromRow = receiver.getBoardSize() - (rookFrom.charAt(1) - '0');
-            int rookFromCol = rookFrom.charAt(0) - 'a';
-            int rookToRow = receiver.getBoardSize() - (rookTo.charAt(1) - '0');
-            int rookToCol = rookTo.charAt(0) - 'a';
-
-            Piece rook = receiver.getBoard().getPiece(rookFromRow, rookFromCol);
-            receiver.getBoard().remPieceBoard(rookFromRow, rookFromCol);
-            receiver.getBoard().addPieceBoard(rook, rookToRow, rookToCol);
-
-            receiver.switchTurn();
-            return true;
-        }
-
-        // Store original piece
-        Piece piece = receiver.getBoard().getPiece(fromRow, fromCol);
+        // The packed move, with its flags, from the legal moves of the position before it is played;
+        // a redo plays it again the same way, castling included (undo gives the rights back)
+        Spot start = new Spot(fromRow, fromCol), end = new Spot(toRow, toCol);
+        move = start.isValid(receiver.getBoardSize()) && end.isValid(receiver.getBoardSize())
+                ? receiver.findLegalMove(Board.square(fromRow, fromCol), Board.square(toRow, toCol))
+                : Move.NONE;
 
         // Store original pawn state
+        Piece piece = receiver.getBoard().getPiece(fromRow, fromCol);
         if (piece instanceof Pawn pawn) {
             this.pawnHadMoved = pawn.hasMoved();
             this.originalPawn = new Pawn(receiver.getBoard(), pawn.isWhite(), pawn.getRow(), pawn.getCol());
             this.originalPawn.setHasMoved(pawn.hasMoved());
-
-            // Check for possible en passant before the move
-            if (fromCol != toCol && receiver.getBoard().getPiece(toRow, toCol) == null) {
-                wasEnPassant = true;
-                int capturedRow = fromRow;
-                int capturedCol = toCol;
-                enPassantCapturedSpot = new Spot(capturedRow, capturedCol);
-                enPassantCapturedPiece = receiver.getBoard().getPiece(capturedRow, capturedCol);
-            }
         }
 
         //Store game state
+        this.whiteMoved = "White".equals(receiver.getCurrentPlayer());
         this.gameState = receiver.getGameState();
+        this.enPassantSquare = receiver.getBoard().getEnPassantSquare();
 
-        // Store captured piece
-        this.capturedPiece = receiver.getBoard().getPiece(toRow, toCol);
+        // Store captured piece (en passant takes the pawn beside the origin)
+        this.capturedPiece = Move.isCapture(move)
+                ? receiver.getBoard().getPiece(Move.isEnPassant(move) ? fromRow : toRow, toCol)
+                : null;
 
         // Execute and validate move
         this.moveResult = receiver.move(from, to);
 
-        // Confirm en passant only if move result matches
-        if (wasEnPassant && moveResult != ChessGame.MoveResult.EN_PASSANT) {
-            wasEnPassant = false;
-        }
-
-        // Check for special moves
-        if (moveResult == ChessGame.MoveResult.CASTLING) {
-            wasCastling = true;
-            if (to.charAt(0) == 'g') { // Kingside
-                rookFrom = "h" + from.charAt(1);
-                rookTo = "f" + from.charAt(1);
-            } else if (to.charAt(0) == 'c') { // Queenside
-                rookFrom = "a" + from.charAt(1);
-                rookTo = "d" + from.charAt(1);
-            }
-            // Store the rook piece
-            int rookToRow = receiver.getBoardSize() - (rookTo.charAt(1) - '0');
-            int rookToCol = rookTo.charAt(0) - 'a';
-            rookPiece = receiver.getBoard().getPiece(rookToRow, rookToCol);
-        }
-
-        if (moveResult == ChessGame.MoveResult.PROMOTION) {
-            wasPromotion = true;
-            promotionRow = toRow;
-            promotionCol = toCol;
-            promotedPiece = receiver.getBoard().getPiece(toRow, toCol);
-        }
+        if (Move.isCastling(move))
+            rookPiece = receiver.getBoard().getPiece(fromRow, rookTarget(fromCol, toCol));
 
         return moveResult != ChessGame.MoveResult.INVALID_MOVE &&
                 moveResult != ChessGame.MoveResult.INVALID_ORIGIN &&
@@ -129,7 +80,7 @@ public class MoveCommand extends AbstractCommand implements ICommand {
         int toRow = receiver.getBoardSize() - (to.charAt(1) - '0');
         int toCol = to.charAt(0) - 'a';
 
-        if (wasPromotion && originalPawn != null) {
+        if (Move.isPromotion(move) && originalPawn != null) {
             // Handle promotion undo
             receiver.getBoard().remPieceBoard(toRow, toCol);
 
@@ -141,7 +92,7 @@ public class MoveCommand extends AbstractCommand implements ICommand {
                 receiver.getBoard().addPieceBoard(capturedPiece, toRow, toCol);
             }
         }
-        else if (wasCastling) {
+        else if (Move.isCastling(move)) {
             // 1st, undo king move
             Spot kingStart = new Spot(fromRow, fromCol);
             Spot kingEnd = new Spot(toRow, toCol);
@@ -149,16 +100,11 @@ public class MoveCommand extends AbstractCommand implements ICommand {
             if (!kingSuccess) return false;
 
             // 2nd undo rook move
-            if (rookFrom != null && rookTo != null && rookPiece != null) {
-                int rookFromRow = receiver.getBoardSize() - (rookFrom.charAt(1) - '0');
-                int rookFromCol = rookFrom.charAt(0) - 'a';
-                int rookToRow = receiver.getBoardSize() - (rookTo.charAt(1) - '0');
-                int rookToCol = rookTo.charAt(0) - 'a';
-
+            if (rookPiece != null) {
                 // Remove rook from castling position
-                receiver.getBoard().remPieceBoard(rookToRow, rookToCol);
+                receiver.getBoard().remPieceBoard(fromRow, rookTarget(fromCol, toCol));
                 // Add rook back to original position
-                receiver.getBoard().addPieceBoard(rookPiece, rookFromRow, rookFromCol);
+                receiver.getBoard().addPieceBoard(rookPiece, fromRow, rookHome(fromCol, toCol));
                 // Reset rook's moved status
                 rookPiece.setMoved(false);
 
@@ -170,27 +116,31 @@ public class MoveCommand extends AbstractCommand implements ICommand {
             }
         }
         else {
-            // normal moves
+            // normal moves; a pawn taken en passant goes back beside the origin below
             Spot start = new Spot(fromRow, fromCol);
             Spot end = new Spot(toRow, toCol);
-            boolean success = receiver.getBoard().undoMove(start, end, capturedPiece, pawnHadMoved);
+            boolean success = receiver.getBoard().undoMove(start, end, Move.isEnPassant(move) ? null : capturedPiece, pawnHadMoved);
             if (!success) return false;
         }
 
-        if (wasEnPassant) {
-            if (enPassantCapturedSpot != null && enPassantCapturedPiece != null) {
-                receiver.getBoard().addPieceBoard(
-                        enPassantCapturedPiece,
-                        enPassantCapturedSpot.getRow(),
-                        enPassantCapturedSpot.getCol()
-                );
-            }
+        if (Move.isEnPassant(move) && capturedPiece != null) {
+            receiver.getBoard().addPieceBoard(capturedPiece, fromRow, toCol);
         }
 
-        receiver.switchTurn();
+        receiver.getBoard().setEnPassantSquare(enPassantSquare);
+        receiver.setTurn(whiteMoved); // a move that ended the game did not pass the turn
+
         return true;
     }
 
+    // Column the castling rook starts on, and the one it lands on
+    private static int rookHome(int fromCol, int toCol) {
+        return toCol > fromCol ? Board.getBoardSize() - 1 : 0;
+    }
+
+    private static int rookTarget(int fromCol, int toCol) {
+        return toCol > fromCol ? toCol - 1 : toCol + 1;
+    }
 
     public ChessGame.MoveResult getMoveResult() {
         return moveResult;
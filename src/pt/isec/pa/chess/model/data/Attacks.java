@@ -0,0 +1,117 @@
+package pt.isec.pa.chess.model.data;
+
+//Precomputed attack tables over the square index used by Board (row * 8 + col, a8 = 0, h1 = 63)
+public final class Attacks {
+    private static final int SQUARES = 64;
+
+    // {row, col} steps in opposite pairs; the first four are the rook directions, the last four the bishop ones
+    private static final int[][] DIRECTIONS = {
+            {-1, 0}, {1, 0}, {0, -1}, {0, 1},
+            {-1, -1}, {1, 1}, {-1, 1}, {1, -1}
+    };
+
+    private static final long[] KNIGHT = new long[SQUARES];
+    private static final long[] KING = new long[SQUARES];
+    private static final long[][] PAWN = new long[2][SQUARES]; // [0] white captures, [1] black captures
+    private static final long[][] RAYS = new long[DIRECTIONS.length][SQUARES];
+    private static final long[][] BETWEEN = new long[SQUARES][SQUARES];
+    private static final long[][] LINE = new long[SQUARES][SQUARES];
+
+    static {
+        int[][] knightSteps = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+
+        for (int sq = 0; sq < SQUARES; sq++) {
+            int row = sq / 8, col = sq % 8;
+
+            for (int[] step : knightSteps)
+                KNIGHT[sq] |= bit(row + step[0], col + step[1]);
+
+            for (int[] dir : DIRECTIONS)
+                KING[sq] |= bit(row + dir[0], col + dir[1]);
+
+            // White pawns move towards row 0, black pawns towards row 7
+            PAWN[0][sq] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+            PAWN[1][sq] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                long between = 0L;
+                int r = row + DIRECTIONS[d][0], c = col + DIRECTIONS[d][1];
+                while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                    int target = r * 8 + c;
+                    RAYS[d][sq] |= 1L << target;
+                    BETWEEN[sq][target] = between;
+                    between |= 1L << target;
+                    r += DIRECTIONS[d][0];
+                    c += DIRECTIONS[d][1];
+                }
+            }
+        }
+
+        for (int sq = 0; sq < SQUARES; sq++) {
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                long line = RAYS[d][sq] | RAYS[opposite(d)][sq] | (1L << sq);
+                long ray = RAYS[d][sq];
+                while (ray != 0) {
+                    LINE[sq][Long.numberOfTrailingZeros(ray)] = line;
+                    ray &= ray - 1;
+                }
+            }
+        }
+    }
+
+    private Attacks() {}
+
+    private static long bit(int row, int col) {
+        return (row >= 0 && row < 8 && col >= 0 && col < 8) ? 1L << (row * 8 + col) : 0L;
+    }
+
+    private static int opposite(int d) {
+        return d ^ 1;
+    }
+
+    // Squares reached along one direction, stopping at (and including) the first blocker
+    private static long ray(int d, int sq, long occupied) {
+        long attacks = RAYS[d][sq];
+        long blockers = attacks & occupied;
+        if (blockers != 0) {
+            boolean increasing = DIRECTIONS[d][0] * 8 + DIRECTIONS[d][1] > 0;
+            int first = increasing ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            attacks ^= RAYS[d][first];
+        }
+        return attacks;
+    }
+
+    public static long knight(int sq) {
+        return KNIGHT[sq];
+    }
+
+    public static long king(int sq) {
+        return KING[sq];
+    }
+
+    public static long pawn(int sq, boolean isWhite) {
+        return PAWN[isWhite ? 0 : 1][sq];
+    }
+
+    public static long rook(int sq, long occupied) {
+        return ray(0, sq, occupied) | ray(1, sq, occupied) | ray(2, sq, occupied) | ray(3, sq, occupied);
+    }
+
+    public static long bishop(int sq, long occupied) {
+        return ray(4, sq, occupied) | ray(5, sq, occupied) | ray(6, sq, occupied) | ray(7, sq, occupied);
+    }
+
+    public static long queen(int sq, long occupied) {
+        return rook(sq, occupied) | bishop(sq, occupied);
+    }
+
+    // Squares strictly between two aligned squares, 0 if they don't share a line
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    // The whole line (edge to edge) through two aligned squares, 0 if they don't share a line
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+}
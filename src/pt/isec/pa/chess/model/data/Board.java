@@ -6,24 +6,63 @@ import pt.isec.pa.chess.model.data.pieces.Rook;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class Board implements Cloneable, Serializable {
     //Incrementar este valor se forem feitas alterações a classe
     //Exemplo 1L -> 2L
-    private static final long serialVersionUID = 3L;
+    private static final long serialVersionUID = 9L;
     private static final int BOARDSIZE = 8;
+    private static final int PIECE_TYPES = PieceFactory.PieceType.values().length;
 
     private Piece[][] board;
     private List<Piece> pieces;
-    private Spot[] lastMove; // Armazena o movimento anterior [start, end]
+    private int lastMove; // Armazena o movimento anterior (ver Move), Move.NONE se não houver
 
+    // Bitboards: bit (row * 8 + col) is set when that square holds the piece
+    private long[] bitboards;   // one per colour and type, see bitboardIndex()
+    private long[] occupancy;   // [0] white pieces, [1] black pieces
+    private long occupied;      // every piece on the board
+
+    private int enPassantSquare; // square behind a pawn that just advanced two rows, -1 if none
+    private boolean whiteToMove;
+
+    // Zobrist key of the pieces and the side to move, kept up to date by putPiece/clearSquare.
+    // Castling rights live in the pieces' moved flags and the en passant square may be set from
+    // outside, so those two are folded in by getKey().
+    private long key;
+    private long pawnKey; // the same, with only the pawns: the key of the pawn structure
+
+    // Running evaluation sums (see PieceSquareTables), also kept up to date by putPiece/clearSquare:
+    // material plus piece-square values from white's side, and the game phase
+    private int midgame;
+    private int endgame;
+    private int phase;
+
+    // Told about every piece placed or lifted by putPiece/clearSquare, e.g. an evaluation accumulator
+    private transient BoardObserver observer;
+
+    // makeMove/unmakeMove undo stack; grown on demand, never per move
+    private static final int UNDO_INITIAL_CAPACITY = 64;
+    private transient int[] undoMove;        // the packed move that was played
+    private transient int[] undoState;       // en passant square + 1 | mover had moved (bit 7)
+    private transient Piece[] undoCaptured;
+    private transient Piece[] undoPawn;      // pawn lifted off the board by a promotion
+    private transient Piece[] promotionCache; // promoted pieces, reused by the next promotion at the same depth
+    private transient int undoTop;
 
 
     public Board() {
         pieces = new ArrayList<Piece>();
         board = new Piece[BOARDSIZE][BOARDSIZE];
-
+        bitboards = new long[2 * PIECE_TYPES];
+        occupancy = new long[2];
+        occupied = 0L;
+        enPassantSquare = -1;
+        whiteToMove = true;
+        key = pawnKey = 0L;
+        midgame = endgame = phase = 0;
     }
 
     public void initializer() {
@@ -34,6 +73,13 @@ public class Board implements Cloneable, Serializable {
                 board[i][j] = null;
             }
         }
+        Arrays.fill(bitboards, 0L);
+        Arrays.fill(occupancy, 0L);
+        occupied = 0L;
+        enPassantSquare = -1;
+        whiteToMove = true;
+        key = pawnKey = 0L;
+        midgame = endgame = phase = 0;
 
         // Pawns
         for (int col = 0; col < BOARDSIZE; col++) {
@@ -79,7 +125,129 @@ public class Board implements Cloneable, Serializable {
     }
 
     public boolean isEmpty(int row, int col) {
-        return getPiece(row, col) == null;
+        return (occupied & squareBit(row, col)) == 0;
+    }
+
+    public static int square(int row, int col) {
+        return row * BOARDSIZE + col;
+    }
+
+    public static long squareBit(int row, int col) {
+        return 1L << square(row, col);
+    }
+
+    public static int bitboardIndex(PieceFactory.PieceType type, boolean isWhite) {
+        return (isWhite ? 0 : PIECE_TYPES) + type.ordinal();
+    }
+
+    public long getBitboard(PieceFactory.PieceType type, boolean isWhite) {
+        return bitboards[bitboardIndex(type, isWhite)];
+    }
+
+    public long getOccupancy(boolean isWhite) {
+        return occupancy[isWhite ? 0 : 1];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public int countPieces(PieceFactory.PieceType type, boolean isWhite) {
+        return Long.bitCount(getBitboard(type, isWhite));
+    }
+
+    public Piece getPieceAt(int square) {
+        return board[square / BOARDSIZE][square % BOARDSIZE];
+    }
+
+    public King getKing(boolean isWhite) {
+        long kings = getBitboard(PieceFactory.PieceType.KING, isWhite);
+        if (kings == 0)
+            return null;
+        return (King) getPieceAt(Long.numberOfTrailingZeros(kings));
+    }
+
+    /**
+     * Checks whether any piece of one colour attacks a square.
+     *
+     * @param square square index (row * 8 + col)
+     * @param byWhite colour of the attackers
+     * @return true if the square is attacked
+     */
+    public boolean isSquareAttacked(int square, boolean byWhite) {
+        return attackers(square, byWhite, occupied) != 0;
+    }
+
+    /**
+     * Pieces of one colour attacking a square.
+     *
+     * @param square square index (row * 8 + col)
+     * @param byWhite colour of the attackers
+     * @return bitboard of the attacking pieces' squares
+     */
+    public long attackersOf(int square, boolean byWhite) {
+        return attackers(square, byWhite, occupied);
+    }
+
+    /**
+     * Pieces of both colours attacking a square.
+     *
+     * @param square square index (row * 8 + col)
+     * @return bitboard of the attacking pieces' squares
+     */
+    public long attackersOf(int square) {
+        return attackers(square, true, occupied) | attackers(square, false, occupied);
+    }
+
+    // Attackers under a given occupancy, so callers can ask about positions not on the board yet
+    long attackers(int square, boolean byWhite, long occupied) {
+        long queens = getBitboard(PieceFactory.PieceType.QUEEN, byWhite);
+        return (Attacks.pawn(square, !byWhite) & getBitboard(PieceFactory.PieceType.PAWN, byWhite))
+                | (Attacks.knight(square) & getBitboard(PieceFactory.PieceType.KNIGHT, byWhite))
+                | (Attacks.king(square) & getBitboard(PieceFactory.PieceType.KING, byWhite))
+                | (Attacks.rook(square, occupied) & (getBitboard(PieceFactory.PieceType.ROOK, byWhite) | queens))
+                | (Attacks.bishop(square, occupied) & (getBitboard(PieceFactory.PieceType.BISHOP, byWhite) | queens));
+    }
+
+    // Every write to the grid goes through these two so the bitboards never drift
+    private void putPiece(Piece piece, int row, int col) {
+        if (board[row][col] != null)
+            clearSquare(row, col);
+        long bit = squareBit(row, col);
+        int index = bitboardIndex(piece.getType(), piece.isWhite());
+        board[row][col] = piece;
+        bitboards[index] |= bit;
+        key ^= Zobrist.piece(index, square(row, col));
+        if (piece.getType() == PieceFactory.PieceType.PAWN)
+            pawnKey ^= Zobrist.piece(index, square(row, col));
+        midgame += PieceSquareTables.midgame(index, square(row, col));
+        endgame += PieceSquareTables.endgame(index, square(row, col));
+        phase += PieceSquareTables.phase(index);
+        occupancy[piece.isWhite() ? 0 : 1] |= bit;
+        occupied |= bit;
+        if (observer != null)
+            observer.pieceAdded(index, square(row, col));
+    }
+
+    private Piece clearSquare(int row, int col) {
+        Piece piece = board[row][col];
+        if (piece != null) {
+            long bit = ~squareBit(row, col);
+            int index = bitboardIndex(piece.getType(), piece.isWhite());
+            bitboards[index] &= bit;
+            key ^= Zobrist.piece(index, square(row, col));
+            if (piece.getType() == PieceFactory.PieceType.PAWN)
+                pawnKey ^= Zobrist.piece(index, square(row, col));
+            midgame -= PieceSquareTables.midgame(index, square(row, col));
+            endgame -= PieceSquareTables.endgame(index, square(row, col));
+            phase -= PieceSquareTables.phase(index);
+            occupancy[piece.isWhite() ? 0 : 1] &= bit;
+            occupied &= bit;
+            board[row][col] = null;
+            if (observer != null)
+                observer.pieceRemoved(index, square(row, col));
+        }
+        return piece;
     }
 
     public boolean addPieceBoard(Piece piece) {
@@ -93,7 +261,7 @@ public class Board implements Cloneable, Serializable {
 
         if(isEmpty(row, col)) {
             addPiece(piece);
-            board[row][col] = piece;
+            putPiece(piece, row, col);
             return true;
         }
         return false;
@@ -105,7 +273,7 @@ public class Board implements Cloneable, Serializable {
 
         if (isEmpty(row, col)) {
             piece.setPosition(row, col);
-            board[row][col] = piece;
+            putPiece(piece, row, col);
             return true;
         }
         return false;
@@ -127,7 +295,7 @@ public class Board implements Cloneable, Serializable {
         {
             return false;
         }
-        board[row][col] = null;
+        clearSquare(row, col);
         piece.setPosition(-1, -1);
         return true;
     }
@@ -138,7 +306,7 @@ public class Board implements Cloneable, Serializable {
         {
             return false;
         }
-        board[row][col] = null;
+        clearSquare(row, col);
         temp.setPosition(-1, -1);
         return true;
     }
@@ -146,9 +314,9 @@ public class Board implements Cloneable, Serializable {
     public boolean remPiece(Piece piece) {
         if(pieces.contains(piece)) {
             pieces.remove(piece);
-            if(getPiece(piece.getRow(), piece.getCol()) == piece)
+            if(piece.isValid(BOARDSIZE) && getPiece(piece.getRow(), piece.getCol()) == piece)
             {
-                board[piece.getRow()][piece.getCol()] = null;
+                clearSquare(piece.getRow(), piece.getCol());
             }
             return true;
         }
@@ -179,24 +347,58 @@ public class Board implements Cloneable, Serializable {
             return returnV;
         }
 
-        Piece capturedPiece = board[end.getRow()][end.getCol()];
+        return applyMove(piece, start.getRow(), start.getCol(), end.getRow(), end.getCol());
+    }
+
+    /**
+     * Plays a move already known to be legal (one of the {@link MoveGenerator} moves of the side
+     * to move) on the game board: {@link #movePiece(Spot, Spot)} without its legality check.
+     * A pawn taken en passant is left for the caller to remove.
+     *
+     * @param move packed move (see {@link Move}), or {@link Move#NONE}
+     * @return 0 for {@link Move#NONE}, 2 if a piece on the destination square is taken, 1 otherwise
+     */
+    public int movePiece(int move) {
+        if (move == Move.NONE)
+            return 0;
+        int from = Move.from(move), to = Move.to(move);
+        int fromRow = from / BOARDSIZE, fromCol = from % BOARDSIZE;
+        return applyMove(board[fromRow][fromCol], fromRow, fromCol, to / BOARDSIZE, to % BOARDSIZE);
+    }
+
+    private int applyMove(Piece piece, int fromRow, int fromCol, int toRow, int toCol) {
+        int returnV;
+        Piece capturedPiece = board[toRow][toCol];
         //If the final position doesn't have a piece I don't need to capture one
         if (capturedPiece != null)
         {
-            remPieceBoard(end.getRow(), end.getCol());
+            remPieceBoard(toRow, toCol);
             capturedPiece.setAlive(false);
             returnV = 2;
         } else {
             returnV = 1;
         }
 
-        board[end.getRow()][end.getCol()] = piece;
-        board[start.getRow()][start.getCol()] = null;
-        piece.setPosition(end.getRow(), end.getCol());
+        clearSquare(fromRow, fromCol);
+        putPiece(piece, toRow, toCol);
+        piece.setPosition(toRow, toCol);
+
+        // Castling: the rook jumps to the square the king passed over
+        if (piece instanceof King && Math.abs(toCol - fromCol) == 2) {
+            int rookCol = toCol > fromCol ? BOARDSIZE - 1 : 0;
+            int rookTargetCol = toCol > fromCol ? toCol - 1 : toCol + 1;
+            Piece rook = clearSquare(fromRow, rookCol);
+            putPiece(rook, fromRow, rookTargetCol);
+            rook.setPosition(fromRow, rookTargetCol);
+            rook.setMoved(true);
+        }
 
 
 
-        setLastMove(start, end);
+        lastMove = Move.of(square(fromRow, fromCol), square(toRow, toCol));
+        enPassantSquare = (piece instanceof Pawn && Math.abs(fromRow - toRow) == 2)
+                ? square((fromRow + toRow) / 2, fromCol)
+                : -1;
 
         // After moving the piece:
         switch (piece) {
@@ -210,33 +412,6 @@ public class Board implements Cloneable, Serializable {
         return returnV;
     }
 
-    void forceMove(Piece pieceToMove, Spot targetSpot) {
-        if (pieceToMove == null || !targetSpot.isValid(getBoardSize())) {
-            return;
-        }
-
-        Spot originalSpot = new Spot(pieceToMove.getRow(), pieceToMove.getCol());
-        Piece capturedPiece = getPiece(targetSpot.getRow(), targetSpot.getCol());
-
-        this.board[originalSpot.getRow()][originalSpot.getCol()] = null;
-
-        if (capturedPiece != null) {
-            capturedPiece.setAlive(false);
-        }
-
-        this.board[targetSpot.getRow()][targetSpot.getCol()] = pieceToMove;
-        pieceToMove.setPosition(targetSpot.getRow(), targetSpot.getCol());
-
-        switch (pieceToMove) {
-            case Pawn pawn -> pawn.setHasMoved(true);
-            case King king -> king.setMoved(true);
-            case Rook rook -> rook.setMoved(true);
-            default -> {
-            }
-        }
-
-    }
-
     @Override
     public String toString() {
         StringBuilder output = new StringBuilder();
@@ -259,12 +434,12 @@ public class Board implements Cloneable, Serializable {
         return output.toString();
     }
 
-    public Spot[] getLastMove() {
+    public int getLastMove() {
         return lastMove;
     }
 
     public void setLastMove(Spot start, Spot end) {
-        lastMove = new Spot[]{start, end};
+        lastMove = Move.of(square(start.getRow(), start.getCol()), square(end.getRow(), end.getCol()));
     }
 
     public static int getBoardSize(){
@@ -276,13 +451,13 @@ public class Board implements Cloneable, Serializable {
         if (movedPiece == null) return false;
 
         // Move piece back
-        board[start.getRow()][start.getCol()] = movedPiece;
-        board[end.getRow()][end.getCol()] = null;
+        clearSquare(end.getRow(), end.getCol());
+        putPiece(movedPiece, start.getRow(), start.getCol());
         movedPiece.setPosition(start.getRow(), start.getCol());
 
         // Restore captured piece
         if (capturedPiece != null) {
-            board[end.getRow()][end.getCol()] = capturedPiece;
+            putPiece(capturedPiece, end.getRow(), end.getCol());
             capturedPiece.setAlive(true);
             capturedPiece.setPosition(end.getRow(), end.getCol());
             if (!pieces.contains(capturedPiece)) {
@@ -300,12 +475,295 @@ public class Board implements Cloneable, Serializable {
         return true;
     }
 
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int enPassantSquare) {
+        this.enPassantSquare = enPassantSquare;
+    }
+
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        if (this.whiteToMove != whiteToMove) {
+            this.whiteToMove = whiteToMove;
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+    }
+
+    // Rights a king still has: unmoved, with an unmoved rook of its colour in the corner of its row
+    private int castlingRights(boolean isWhite, int kingside, int queenside) {
+        King king = getKing(isWhite);
+        if (king == null || king.hasMoved())
+            return 0;
+        int rights = 0;
+        Piece rook = board[king.getRow()][BOARDSIZE - 1];
+        if (rook instanceof Rook && rook.isWhite() == isWhite && !rook.hasMoved())
+            rights |= kingside;
+        rook = board[king.getRow()][0];
+        if (rook instanceof Rook && rook.isWhite() == isWhite && !rook.hasMoved())
+            rights |= queenside;
+        return rights;
+    }
+
+    /**
+     * Castling rights as a 4-bit mask: white kingside, white queenside, black kingside, black queenside.
+     */
+    public int getCastlingRights() {
+        return castlingRights(true, Zobrist.WHITE_KINGSIDE, Zobrist.WHITE_QUEENSIDE)
+                | castlingRights(false, Zobrist.BLACK_KINGSIDE, Zobrist.BLACK_QUEENSIDE);
+    }
+
+    // The en passant file only counts when the side to move has a pawn that can take on it,
+    // so that positions differing only in an unusable en passant square share a key
+    private long enPassantKey() {
+        if (enPassantSquare < 0)
+            return 0L;
+        long pawns = getBitboard(PieceFactory.PieceType.PAWN, whiteToMove);
+        if ((Attacks.pawn(enPassantSquare, !whiteToMove) & pawns) == 0)
+            return 0L;
+        return Zobrist.enPassantFile(enPassantSquare % BOARDSIZE);
+    }
+
+    /**
+     * 64-bit Zobrist key of the position: pieces, side to move, castling rights and en passant file.
+     * Equal positions have equal keys; the piece part is updated incrementally on every board change.
+     *
+     * @return position key
+     */
+    public long getKey() {
+        return key ^ Zobrist.castling(getCastlingRights()) ^ enPassantKey();
+    }
+
+    /**
+     * The position key recomputed from scratch; always equal to {@link #getKey()}.
+     */
+    public long computeKey() {
+        long full = whiteToMove ? 0L : Zobrist.BLACK_TO_MOVE;
+        for (int index = 0; index < bitboards.length; index++) {
+            long bits = bitboards[index];
+            while (bits != 0) {
+                full ^= Zobrist.piece(index, Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return full ^ Zobrist.castling(getCastlingRights()) ^ enPassantKey();
+    }
+
+    /**
+     * Zobrist key of the pawns alone, for caching pawn-structure evaluations: positions with the
+     * same pawns on the same squares have equal pawn keys, whatever the other pieces.
+     * Updated incrementally on every pawn move, capture and promotion.
+     *
+     * @return pawn key, 0 with no pawns on the board
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * The pawn key recomputed from scratch; always equal to {@link #getPawnKey()}.
+     */
+    public long computePawnKey() {
+        long full = 0L;
+        for (boolean white : new boolean[]{true, false}) {
+            int index = bitboardIndex(PieceFactory.PieceType.PAWN, white);
+            for (long bits = bitboards[index]; bits != 0; bits &= bits - 1)
+                full ^= Zobrist.piece(index, Long.numberOfTrailingZeros(bits));
+        }
+        return full;
+    }
+
+    /**
+     * Static evaluation of the position in centipawns, from white's point of view: material and
+     * piece-square values, blended between middlegame and endgame by the material left.
+     * The sums are updated on every board change, so this costs a few arithmetic operations.
+     *
+     * @return evaluation, positive when white is better
+     */
+    public int evaluate() {
+        return PieceSquareTables.taper(midgame, endgame, phase);
+    }
+
+    /**
+     * The evaluation recomputed from scratch; always equal to {@link #evaluate()}.
+     */
+    public int computeEvaluation() {
+        int mg = 0, eg = 0, ph = 0;
+        for (int index = 0; index < bitboards.length; index++) {
+            long bits = bitboards[index];
+            while (bits != 0) {
+                int sq = Long.numberOfTrailingZeros(bits);
+                mg += PieceSquareTables.midgame(index, sq);
+                eg += PieceSquareTables.endgame(index, sq);
+                ph += PieceSquareTables.phase(index);
+                bits &= bits - 1;
+            }
+        }
+        return PieceSquareTables.taper(mg, eg, ph);
+    }
+
+    /**
+     * Sets the observer told about every piece placed on or lifted off the board from now on.
+     * Copies made with {@link #clone()} start without one.
+     *
+     * @param observer the observer, or null for none
+     */
+    public void setObserver(BoardObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Game phase from the pieces left: 24 with every knight, bishop,
+     * rook and queen on the board, 0 with only kings and pawns.
+     */
+    public int getGamePhase() {
+        return Math.min(phase, PieceSquareTables.MAX_PHASE);
+    }
+
+    /**
+     * Game phase of the start position, the largest {@link #getGamePhase()} returns.
+     */
+    public static int getMaxGamePhase() {
+        return PieceSquareTables.MAX_PHASE;
+    }
+
+    private void pushUndo(int move, Piece piece) {
+        if (undoMove == null) {
+            undoMove = new int[UNDO_INITIAL_CAPACITY];
+            undoState = new int[UNDO_INITIAL_CAPACITY];
+            undoCaptured = new Piece[UNDO_INITIAL_CAPACITY];
+            undoPawn = new Piece[UNDO_INITIAL_CAPACITY];
+            promotionCache = new Piece[UNDO_INITIAL_CAPACITY];
+        } else if (undoTop == undoMove.length) {
+            undoMove = Arrays.copyOf(undoMove, undoTop * 2);
+            undoState = Arrays.copyOf(undoState, undoTop * 2);
+            undoCaptured = Arrays.copyOf(undoCaptured, undoTop * 2);
+            undoPawn = Arrays.copyOf(undoPawn, undoTop * 2);
+            promotionCache = Arrays.copyOf(promotionCache, undoTop * 2);
+        }
+        undoMove[undoTop] = move;
+        undoState[undoTop] = (enPassantSquare + 1) | (piece.hasMoved() ? 1 << 7 : 0);
+        undoTop++;
+    }
+
+    private Piece promotedPiece(Piece pawn, PieceFactory.PieceType type) {
+        Piece promoted = promotionCache[undoTop - 1];
+        if (promoted == null || promoted.getType() != type || promoted.isWhite() != pawn.isWhite()) {
+            promoted = PieceFactory.PieceType.createPiece(this, type, pawn.isWhite(), -1, -1);
+            promotionCache[undoTop - 1] = promoted;
+        }
+        promoted.setAlive(true);
+        return promoted;
+    }
+
+    /**
+     * Plays a move in place so it can be reverted with {@link #unmakeMove()}.
+     * No legality checks are made; the move is expected to come from {@link MoveGenerator}.
+     * Unlike {@link #movePiece(Spot, Spot)} the pieces list and the last move are left untouched,
+     * and the side to move is switched here rather than by the caller.
+     *
+     * @param move packed move (see {@link Move})
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move), to = Move.to(move);
+        int fromRow = from / BOARDSIZE, fromCol = from % BOARDSIZE;
+        int toRow = to / BOARDSIZE, toCol = to % BOARDSIZE;
+        Piece piece = board[fromRow][fromCol];
+        pushUndo(move, piece);
+
+        Piece captured = Move.isEnPassant(move) ? board[fromRow][toCol] : board[toRow][toCol];
+        undoCaptured[undoTop - 1] = captured;
+        if (captured != null) {
+            clearSquare(captured.getRow(), captured.getCol());
+            captured.setAlive(false);
+        }
+
+        clearSquare(fromRow, fromCol);
+        if (Move.isPromotion(move)) {
+            undoPawn[undoTop - 1] = piece;
+            piece = promotedPiece(piece, Move.promotion(move));
+        }
+        putPiece(piece, toRow, toCol);
+        piece.setPosition(toRow, toCol);
+        piece.setMoved(true);
+
+        if (Move.isCastling(move)) {
+            Piece rook = clearSquare(fromRow, toCol > fromCol ? BOARDSIZE - 1 : 0);
+            int rookCol = toCol > fromCol ? toCol - 1 : toCol + 1;
+            putPiece(rook, fromRow, rookCol);
+            rook.setPosition(fromRow, rookCol);
+            rook.setMoved(true);
+        }
+
+        enPassantSquare = (piece instanceof Pawn && Math.abs(toRow - fromRow) == 2)
+                ? square((fromRow + toRow) / 2, fromCol)
+                : -1;
+        setWhiteToMove(!whiteToMove);
+    }
+
+    /**
+     * Reverts the most recent {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        undoTop--;
+        int move = undoMove[undoTop];
+        int state = undoState[undoTop];
+        Piece captured = undoCaptured[undoTop];
+        undoCaptured[undoTop] = null;
+
+        int from = Move.from(move), to = Move.to(move);
+        int fromRow = from / BOARDSIZE, fromCol = from % BOARDSIZE;
+        int toRow = to / BOARDSIZE, toCol = to % BOARDSIZE;
+
+        Piece piece = clearSquare(toRow, toCol);
+        if (Move.isPromotion(move)) {
+            piece.setAlive(false);
+            piece = undoPawn[undoTop];
+            undoPawn[undoTop] = null;
+        }
+        putPiece(piece, fromRow, fromCol);
+        piece.setPosition(fromRow, fromCol);
+        piece.setMoved((state & (1 << 7)) != 0);
+
+        if (Move.isCastling(move)) {
+            int rookCol = toCol > fromCol ? toCol - 1 : toCol + 1;
+            int rookHome = toCol > fromCol ? BOARDSIZE - 1 : 0;
+            Piece rook = clearSquare(fromRow, rookCol);
+            putPiece(rook, fromRow, rookHome);
+            rook.setPosition(fromRow, rookHome);
+            rook.setMoved(false);
+        }
+
+        if (captured != null) {
+            int capturedRow = Move.isEnPassant(move) ? fromRow : toRow;
+            putPiece(captured, capturedRow, toCol);
+            captured.setPosition(capturedRow, toCol);
+            captured.setAlive(true);
+        }
+
+        enPassantSquare = (state & 0x7F) - 1;
+        setWhiteToMove(!whiteToMove);
+    }
+
     @Override
     public Board clone() {
         try {
             Board cloned = (Board) super.clone();
             cloned.board = new Piece[BOARDSIZE][BOARDSIZE];
             cloned.pieces = new ArrayList<>();
+            cloned.bitboards = this.bitboards.clone();
+            cloned.occupancy = this.occupancy.clone();
+            cloned.undoMove = null;
+            cloned.undoState = null;
+            cloned.undoCaptured = null;
+            cloned.undoPawn = null;
+            cloned.promotionCache = null;
+            cloned.undoTop = 0;
+            cloned.observer = null;
 
             for (int i = 0; i < BOARDSIZE; i++) {
                 for (int j = 0; j < BOARDSIZE; j++) {
@@ -317,8 +775,6 @@ public class Board implements Cloneable, Serializable {
                 }
             }
 
-            cloned.lastMove = (this.lastMove != null) ?
-                    new Spot[] { this.lastMove[0].clone(), this.lastMove[1].clone() } : null;
 
             return cloned;
         } catch (CloneNotSupportedException e) {
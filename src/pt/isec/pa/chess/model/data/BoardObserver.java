@@ -0,0 +1,12 @@
+package pt.isec.pa.chess.model.data;
+
+//Receives every piece placed on or lifted off a Board, as it happens (moves, captures, promotions,
+//undos and edits alike), so incremental state kept outside the board can follow it (see Board.setObserver).
+//Pieces are given by Board.bitboardIndex and squares by Board.square.
+public interface BoardObserver {
+    /** A piece was placed on an empty square. */
+    void pieceAdded(int piece, int square);
+
+    /** A piece was lifted off its square. */
+    void pieceRemoved(int piece, int square);
+}
@@ -0,0 +1,67 @@
+package pt.isec.pa.chess.model.data;
+
+//Moves packed into a single int so they can be generated, compared and stored without allocating.
+//Layout: from (bits 0-5) | to (6-11) | promotion type ordinal + 1 (12-14) | capture | en passant | castling
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int EN_PASSANT = 1 << 16;
+    public static final int CASTLING = 1 << 17;
+
+    private static final PieceFactory.PieceType[] TYPES = PieceFactory.PieceType.values();
+
+    private Move() {}
+
+    public static int of(int from, int to, PieceFactory.PieceType promotion, int flags) {
+        return from | (to << 6) | (promotion == null ? 0 : (promotion.ordinal() + 1) << 12) | flags;
+    }
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static PieceFactory.PieceType promotion(int move) {
+        int type = (move >>> 12) & 0x7;
+        return type == 0 ? null : TYPES[type - 1];
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & (0x7 << 12)) != 0;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastling(int move) {
+        return (move & CASTLING) != 0;
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + square % Board.getBoardSize()) + (Board.getBoardSize() - square / Board.getBoardSize());
+    }
+
+    // Coordinate notation, e.g. e2e4 or e7e8q
+    public static String toString(int move) {
+        if (move == NONE)
+            return "0000";
+        String text = squareName(from(move)) + squareName(to(move));
+        PieceFactory.PieceType promotion = promotion(move);
+        if (promotion != null)
+            text += promotion == PieceFactory.PieceType.KNIGHT ? "n" : promotion.name().substring(0, 1).toLowerCase();
+        return text;
+    }
+}
@@ -0,0 +1,241 @@
+package pt.isec.pa.chess.model.data;
+
+import pt.isec.pa.chess.model.data.PieceFactory.PieceType;
+
+//Position-level legal move generator.
+//Checkers and pinned pieces are worked out once from the king's square, so every
+//destination it emits is already legal and no move has to be played to be tested.
+public final class MoveGenerator {
+    private static final long ALL = ~0L;
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+    private static final long PROMOTION_RANKS = 0xFFL | 0xFFL << 56;
+
+    private MoveGenerator() {}
+
+    /**
+     * Appends every legal move of one colour to a move buffer, as packed ints (see {@link Move}).
+     * Promotions are expanded into one move per promotion piece.
+     *
+     * @param board position to generate for
+     * @param isWhite colour to move
+     * @param moves buffer to fill; cleared first
+     * @return number of legal moves
+     */
+    public static int generate(Board board, boolean isWhite, MoveList moves) {
+        return generate(board, isWhite, moves, false);
+    }
+
+    /**
+     * Appends the legal captures (en passant included) and promotions of one colour to a move buffer,
+     * for searches that only look at moves changing the material balance.
+     *
+     * @param board position to generate for
+     * @param isWhite colour to move
+     * @param moves buffer to fill; cleared first
+     * @return number of moves
+     */
+    public static int generateCaptures(Board board, boolean isWhite, MoveList moves) {
+        return generate(board, isWhite, moves, true);
+    }
+
+    private static int generate(Board board, boolean isWhite, MoveList moves, boolean capturesOnly) {
+        moves.clear();
+        long own = board.getOccupancy(isWhite);
+        long enemy = board.getOccupancy(!isWhite);
+        long pawns = board.getBitboard(PieceType.PAWN, isWhite);
+        long kings = board.getBitboard(PieceType.KING, isWhite);
+        int ep = board.getEnPassantSquare();
+
+        int kingSq = kingSquare(board, isWhite);
+        long checkMask = checkMask(board, isWhite, kingSq);
+        long pinned = pinned(board, isWhite, kingSq);
+
+        while (own != 0) {
+            int from = Long.numberOfTrailingZeros(own);
+            own &= own - 1;
+            long fromBit = 1L << from;
+            long targets = targets(board, from, kingSq, checkMask, pinned);
+            if (capturesOnly)
+                targets &= (pawns & fromBit) != 0 ? enemy | PROMOTION_RANKS | (ep >= 0 ? 1L << ep : 0L) : enemy;
+
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                int flags = (enemy & (1L << to)) != 0 ? Move.CAPTURE : 0;
+
+                if ((pawns & fromBit) != 0) {
+                    if (to == ep && flags == 0)
+                        flags = Move.CAPTURE | Move.EN_PASSANT;
+                    if (to < 8 || to >= 56) {
+                        for (PieceType promotion : PROMOTIONS)
+                            moves.add(Move.of(from, to, promotion, flags));
+                        continue;
+                    }
+                } else if ((kings & fromBit) != 0 && Math.abs(to - from) == 2) {
+                    flags = Move.CASTLING;
+                }
+                moves.add(Move.of(from, to, null, flags));
+            }
+        }
+        return moves.size();
+    }
+
+    /**
+     * Legal destinations of the piece standing on one square.
+     *
+     * @param board position to generate for
+     * @param from square (row * 8 + col) of the piece
+     * @return bitboard of destination squares, 0 if the square is empty
+     */
+    public static long legalTargets(Board board, int from) {
+        Piece piece = board.getPieceAt(from);
+        if (piece == null)
+            return 0L;
+        int kingSq = kingSquare(board, piece.isWhite());
+        return targets(board, from, kingSq, checkMask(board, piece.isWhite(), kingSq), pinned(board, piece.isWhite(), kingSq));
+    }
+
+    private static int kingSquare(Board board, boolean isWhite) {
+        long king = board.getBitboard(PieceType.KING, isWhite);
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    // Squares a non-king piece may move to: anywhere when not in check, the checker or
+    // the squares between it and the king on single check, nowhere on double check
+    private static long checkMask(Board board, boolean isWhite, int kingSq) {
+        if (kingSq < 0)
+            return ALL;
+        long checkers = board.attackers(kingSq, !isWhite, board.getOccupied());
+        if (checkers == 0)
+            return ALL;
+        if ((checkers & (checkers - 1)) != 0)
+            return 0L;
+        return checkers | Attacks.between(kingSq, Long.numberOfTrailingZeros(checkers));
+    }
+
+    // Own pieces that are the only blocker between the king and an enemy slider
+    private static long pinned(Board board, boolean isWhite, int kingSq) {
+        if (kingSq < 0)
+            return 0L;
+        long occupied = board.getOccupied();
+        long own = board.getOccupancy(isWhite);
+        long queens = board.getBitboard(PieceType.QUEEN, !isWhite);
+        long snipers = (Attacks.rook(kingSq, 0L) & (board.getBitboard(PieceType.ROOK, !isWhite) | queens))
+                | (Attacks.bishop(kingSq, 0L) & (board.getBitboard(PieceType.BISHOP, !isWhite) | queens));
+
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(kingSq, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0)
+                pinned |= blockers;
+        }
+        return pinned;
+    }
+
+    private static long targets(Board board, int from, int kingSq, long checkMask, long pinned) {
+        Piece piece = board.getPieceAt(from);
+        boolean isWhite = piece.isWhite();
+        long own = board.getOccupancy(isWhite);
+        long occupied = board.getOccupied();
+
+        if (from == kingSq)
+            return kingTargets(board, piece, from, own, occupied);
+
+        long allowed = checkMask;
+        if ((pinned & (1L << from)) != 0)
+            allowed &= Attacks.line(kingSq, from);
+
+        long moves = switch (piece.getType()) {
+            case KNIGHT -> Attacks.knight(from);
+            case BISHOP -> Attacks.bishop(from, occupied);
+            case ROOK -> Attacks.rook(from, occupied);
+            case QUEEN -> Attacks.queen(from, occupied);
+            case KING -> Attacks.king(from); // only reached on boards without this colour's king on record
+            case PAWN -> pawnTargets(board, from, isWhite, occupied);
+        };
+        moves &= ~own & allowed;
+        if (piece.getType() == PieceType.PAWN)
+            moves |= enPassantTarget(board, from, isWhite, kingSq, allowed);
+        return moves;
+    }
+
+    private static long pawnTargets(Board board, int from, boolean isWhite, long occupied) {
+        int forward = isWhite ? -8 : 8;
+        int startRow = isWhite ? 6 : 1;
+        long moves = 0L;
+
+        int one = from + forward;
+        if (one >= 0 && one < 64 && (occupied & (1L << one)) == 0) {
+            moves |= 1L << one;
+            int two = one + forward;
+            if (from / 8 == startRow && (occupied & (1L << two)) == 0)
+                moves |= 1L << two;
+        }
+
+        return moves | (Attacks.pawn(from, isWhite) & board.getOccupancy(!isWhite));
+    }
+
+    // En passant removes two pieces from one rank, so pins along that rank and
+    // checks given by the captured pawn are verified on the resulting occupancy.
+    // The capture may also answer a check by taking the checking pawn, which the
+    // check mask (built from the captured pawn's square) does not cover on its own.
+    private static long enPassantTarget(Board board, int from, boolean isWhite, int kingSq, long allowed) {
+        int ep = board.getEnPassantSquare();
+        if (ep < 0 || (Attacks.pawn(from, isWhite) & (1L << ep)) == 0)
+            return 0L;
+        long capturedBit = 1L << (ep + (isWhite ? 8 : -8));
+        if ((board.getBitboard(PieceType.PAWN, !isWhite) & capturedBit) == 0)
+            return 0L; // the square belongs to this colour's own double push
+        if ((allowed & ((1L << ep) | capturedBit)) == 0)
+            return 0L;
+        if (kingSq < 0)
+            return 1L << ep;
+        long occupied = (board.getOccupied() ^ (1L << from) ^ capturedBit) | (1L << ep);
+        return (board.attackers(kingSq, !isWhite, occupied) & ~capturedBit) == 0 ? 1L << ep : 0L;
+    }
+
+    private static long kingTargets(Board board, Piece king, int from, long own, long occupied) {
+        boolean isWhite = king.isWhite();
+        // The king is lifted off the board so it cannot hide behind itself on a slider's ray
+        long withoutKing = occupied & ~(1L << from);
+        long moves = 0L;
+        long candidates = Attacks.king(from) & ~own;
+        while (candidates != 0) {
+            int to = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if (board.attackers(to, !isWhite, withoutKing) == 0)
+                moves |= 1L << to;
+        }
+
+        if (!king.hasMoved() && board.attackers(from, !isWhite, occupied) == 0) {
+            moves |= castlingTarget(board, king, from, 1, occupied);
+            moves |= castlingTarget(board, king, from, -1, occupied);
+        }
+        return moves;
+    }
+
+    private static long castlingTarget(Board board, Piece king, int from, int step, long occupied) {
+        int row = from / 8, col = from % 8;
+        int rookCol = step > 0 ? 7 : 0;
+        int targetCol = col + 2 * step;
+        if (targetCol < 0 || targetCol > 7 || (step > 0 ? targetCol >= rookCol : targetCol <= rookCol))
+            return 0L;
+
+        Piece rook = board.getPiece(row, rookCol);
+        if (rook == null || rook.getType() != PieceType.ROOK || rook.isWhite() != king.isWhite() || rook.hasMoved())
+            return 0L;
+
+        int rookSq = Board.square(row, rookCol);
+        if ((Attacks.between(from, rookSq) & occupied) != 0)
+            return 0L;
+
+        // The king may not pass through or land on an attacked square
+        for (int c = col + step; c != targetCol + step; c += step) {
+            if (board.attackers(Board.square(row, c), !king.isWhite(), occupied) != 0)
+                return 0L;
+        }
+        return 1L << Board.square(row, targetCol);
+    }
+}
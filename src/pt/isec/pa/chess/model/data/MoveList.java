@@ -0,0 +1,50 @@
+package pt.isec.pa.chess.model.data;
+
+import java.util.Arrays;
+
+//Reusable buffer of packed moves (see Move); clear() and refill it instead of allocating a new list
+public class MoveList {
+    private static final int DEFAULT_CAPACITY = 256; // above the 218 legal moves of the richest known position
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        moves = new int[DEFAULT_CAPACITY];
+        size = 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        if (size == moves.length)
+            moves = Arrays.copyOf(moves, size * 2);
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move)
+                return true;
+        }
+        return false;
+    }
+}
@@ -26,8 +26,18 @@ public class Player implements Serializable {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
+    // Pieces compare equal by type, colour and square, and every captured piece is left
+    // at the same off-board square, so list membership is checked by identity
+    private static int indexOf(List<Piece> pieces, Piece piece) {
+        for (int i = 0; i < pieces.size(); i++) {
+            if (pieces.get(i) == piece)
+                return i;
+        }
+        return -1;
+    }
+
     public boolean addAlive(Piece piece) {
-        if(!Alive.contains(piece))
+        if(indexOf(Alive, piece) < 0)
         {
             if(piece.isWhite() == isWhite)
             {
@@ -38,16 +48,17 @@ public class Player implements Serializable {
         return false;
     }
     public boolean remAlive(Piece piece) {
-        if(Alive.contains(piece))
+        int index = indexOf(Alive, piece);
+        if(index >= 0)
         {
-            Alive.remove(piece);
+            Alive.remove(index);
             return true;
         }
         return false;
     }
     
     public boolean addDead(Piece piece) {
-        if(!Dead.contains(piece))
+        if(indexOf(Dead, piece) < 0)
         {
             if(piece.isWhite() == isWhite)
             {
@@ -59,7 +70,7 @@ public class Player implements Serializable {
     }
 
     public boolean remDead(Piece piece) {
-        if(!Dead.contains(piece))
+        if(indexOf(Dead, piece) < 0)
         {
             if(piece.isWhite() == isWhite)
             {
@@ -71,7 +82,7 @@ public class Player implements Serializable {
     }
 
     public boolean kill(Piece piece) {
-        if(Alive.contains(piece))
+        if(indexOf(Alive, piece) >= 0)
         {
             if(addDead(piece))
                 return remAlive(piece);
@@ -0,0 +1,138 @@
+package pt.isec.pa.chess.model.data;
+
+import pt.isec.pa.chess.model.data.PieceFactory.PieceType;
+
+/**
+ * Static exchange evaluation (SEE): the material outcome of the captures on one square, each side
+ * recapturing with its least valuable attacker and free to stop when going on would lose material.
+ * Sliders lined up behind a capturer (x-rays) join in as the pieces in front of them leave.
+ * Pins and checks are ignored, so the result is an estimate, but it needs no move to be played.
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class StaticExchange {
+    /** Size of the gain buffer: no square can see more captures than there are pieces. */
+    public static final int MAX_CAPTURES = 32;
+
+    // Indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] VALUES = {20000, 900, 330, 320, 500, 100};
+    private static final PieceType[] CHEAPEST_FIRST = {
+            PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+    private static final long PROMOTION_RANKS = 0xFFL | 0xFFL << 56;
+
+    private StaticExchange() {}
+
+    /**
+     * Exchange value of a piece type, in centipawns.
+     *
+     * @param type piece type
+     * @return pawn 100 ... queen 900; the king is worth more than everything else together
+     */
+    public static int value(PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+
+    /**
+     * Material won (positive) or lost (negative) by a move and the best sequence of recaptures
+     * on its destination square.
+     *
+     * @param board position before the move
+     * @param move packed move (see {@link Move}); quiet moves are evaluated as moving into the exchange
+     * @return material balance for the side playing the move, in centipawns
+     */
+    public static int evaluate(Board board, int move) {
+        return evaluate(board, move, new int[MAX_CAPTURES]);
+    }
+
+    /**
+     * Same as {@link #evaluate(Board, int)}, with a caller-owned buffer so hot paths do not allocate.
+     *
+     * @param gains scratch buffer of at least {@link #MAX_CAPTURES} entries
+     */
+    public static int evaluate(Board board, int move, int[] gains) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        Piece mover = board.getPieceAt(from);
+        if (mover == null)
+            return 0;
+
+        boolean side = !mover.isWhite();
+        long occupied = board.getOccupied() & ~(1L << from);
+        int onSquare = value(mover.getType()); // value of the piece standing on the square, about to be taken
+
+        if (Move.isEnPassant(move)) {
+            gains[0] = value(PieceType.PAWN);
+            occupied &= ~(1L << (to + (mover.isWhite() ? 8 : -8)));
+        } else {
+            Piece victim = board.getPieceAt(to);
+            gains[0] = victim == null ? 0 : value(victim.getType());
+        }
+        if (Move.isPromotion(move)) {
+            onSquare = value(Move.promotion(move));
+            gains[0] += onSquare - value(PieceType.PAWN);
+        }
+
+        // Forward: play out the captures, gains[d] being the balance of capture d for the side making it
+        int d = 0;
+        while (true) {
+            long attackers = board.attackers(to, side, occupied) & occupied;
+            if (attackers == 0)
+                break;
+            PieceType type = null;
+            long bit = 0L;
+            for (PieceType candidate : CHEAPEST_FIRST) {
+                long pieces = attackers & board.getBitboard(candidate, side);
+                if (pieces != 0) {
+                    type = candidate;
+                    bit = pieces & -pieces;
+                    break;
+                }
+            }
+            occupied &= ~bit;
+            // The king only takes last: it cannot move into a square the other side still attacks
+            if (type == PieceType.KING && (board.attackers(to, !side, occupied) & occupied) != 0)
+                break;
+
+            d++;
+            gains[d] = onSquare - gains[d - 1];
+            onSquare = value(type);
+            if (type == PieceType.PAWN && (PROMOTION_RANKS & (1L << to)) != 0) {
+                gains[d] += value(PieceType.QUEEN) - value(PieceType.PAWN);
+                onSquare = value(PieceType.QUEEN);
+            }
+            side = !side;
+        }
+
+        // Backward: each side takes the capture only if it is better than stopping before it
+        for (; d > 0; d--)
+            gains[d - 1] = Math.min(gains[d - 1], -gains[d]);
+        return gains[0];
+    }
+
+    /**
+     * Whether the piece on a square can be won: some enemy capture of it gains material.
+     *
+     * @param board position
+     * @param square square index (row * 8 + col)
+     * @return true if the square holds a piece that the other side wins material by taking
+     */
+    public static boolean isHanging(Board board, int square) {
+        Piece piece = board.getPieceAt(square);
+        if (piece == null || piece.getType() == PieceType.KING)
+            return false;
+
+        int[] gains = new int[MAX_CAPTURES];
+        long attackers = board.attackersOf(square, !piece.isWhite());
+        while (attackers != 0) {
+            int from = Long.numberOfTrailingZeros(attackers);
+            attackers &= attackers - 1;
+            PieceType promotion = board.getPieceAt(from).getType() == PieceType.PAWN
+                    && (PROMOTION_RANKS & (1L << square)) != 0 ? PieceType.QUEEN : null;
+            if (evaluate(board, Move.of(from, square, promotion, Move.CAPTURE), gains) > 0)
+                return true;
+        }
+        return false;
+    }
+}
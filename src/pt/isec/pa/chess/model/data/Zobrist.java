@@ -0,0 +1,45 @@
+package pt.isec.pa.chess.model.data;
+
+import java.util.SplittableRandom;
+
+//Random keys for Zobrist hashing of positions.
+//Generated from a fixed seed so a position has the same key on every run (and in saved archives).
+final class Zobrist {
+    private static final long SEED = 0x5A0B_2157_C0FF_EE06L;
+
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+
+    private static final long[][] PIECES = new long[2 * PieceFactory.PieceType.values().length][64]; // [Board.bitboardIndex][square]
+    private static final long[] CASTLING = new long[16]; // one key per combination of rights
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squares : PIECES)
+            for (int sq = 0; sq < squares.length; sq++)
+                squares[sq] = random.nextLong();
+        for (int i = 1; i < CASTLING.length; i++)
+            CASTLING[i] = random.nextLong();
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++)
+            EN_PASSANT_FILE[i] = random.nextLong();
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    static long piece(int bitboardIndex, int square) {
+        return PIECES[bitboardIndex][square];
+    }
+
+    static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    static long enPassantFile(int file) {
+        return EN_PASSANT_FILE[file];
+    }
+}
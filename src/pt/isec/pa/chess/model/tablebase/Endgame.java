@@ -0,0 +1,249 @@
+package pt.isec.pa.chess.model.tablebase;
+
+import pt.isec.pa.chess.model.data.PieceFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An endgame of a table: the strong side's king and one or two more pieces against a lone king,
+ * named as usual ("KQK", "KRK", "KPK", "KBNK"...), and the index of its positions.
+ *
+ * <p>Tables are built with white as the strong side; a position with black as the strong side is
+ * probed mirrored. A position is the side to move and the squares of the white king, the black king
+ * and the other white pieces, in the order Q, R, B, N, P. Squares are those of the board
+ * ({@code row * 8 + col}, a8 = 0).</p>
+ *
+ * <p>Symmetric positions share one entry: without pawns, the board is turned or mirrored (8 ways)
+ * so that the white king lands on one of the 10 squares of the a8-d8-d5 triangle; with pawns, only
+ * mirrored left to right, so that it lands on files a to d (32 squares). When the white king is on
+ * the a8-h1 diagonal two ways remain, and the one with the lower index is kept. Two pieces of the
+ * same kind are stored in increasing square order. Indexes of no canonical position are left unused.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+final class Endgame {
+    /** Most pieces on the board, kings included. */
+    static final int MAX_PIECES = 4;
+    /** Number of piece codes, see {@link #code}. */
+    static final int CODES = 6 * 6;
+
+    // Order of the pieces in names and in positions
+    static final PieceFactory.PieceType[] ORDER = {
+            PieceFactory.PieceType.QUEEN, PieceFactory.PieceType.ROOK, PieceFactory.PieceType.BISHOP,
+            PieceFactory.PieceType.KNIGHT, PieceFactory.PieceType.PAWN
+    };
+    private static final String LETTERS = "QRBNP";
+
+    // The 8 symmetries of the board: bit 2 swaps rows and columns, then bit 0 mirrors the columns, bit 1 the rows
+    private static final int[][] TRANSFORM = new int[8][64];
+    private static final int[] DIAGONAL_FLIP = new int[8]; // the transform followed by a swap of rows and columns
+    private static final int[] TRIANGLE = new int[64];     // index of a triangle square, -1 elsewhere
+    private static final int[] TRIANGLE_TRANSFORM = new int[64];
+    private static final int[] TRIANGLE_SQUARE = new int[10];
+
+    static {
+        for (int t = 0; t < 8; t++) {
+            for (int sq = 0; sq < 64; sq++) {
+                int row = sq / 8, col = sq % 8;
+                if ((t & 4) != 0) {
+                    int swap = row;
+                    row = col;
+                    col = swap;
+                }
+                if ((t & 1) != 0)
+                    col = 7 - col;
+                if ((t & 2) != 0)
+                    row = 7 - row;
+                TRANSFORM[t][sq] = row * 8 + col;
+            }
+        }
+        for (int t = 0; t < 8; t++) {
+            for (int flipped = 0; flipped < 8; flipped++) {
+                boolean same = true;
+                for (int sq = 0; sq < 64 && same; sq++) {
+                    int target = TRANSFORM[t][sq];
+                    same = TRANSFORM[flipped][sq] == (target % 8) * 8 + target / 8;
+                }
+                if (same)
+                    DIAGONAL_FLIP[t] = flipped;
+            }
+        }
+        int count = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int row = sq / 8, col = sq % 8;
+            TRIANGLE[sq] = row <= col && col < 4 ? count++ : -1;
+            if (TRIANGLE[sq] >= 0)
+                TRIANGLE_SQUARE[TRIANGLE[sq]] = sq;
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            for (int t = 7; t >= 0; t--) {
+                if (TRIANGLE[TRANSFORM[t][sq]] >= 0)
+                    TRIANGLE_TRANSFORM[sq] = t;
+            }
+        }
+    }
+
+    private final String name;
+    private final PieceFactory.PieceType[] pieces; // the strong side's pieces but the king, in ORDER
+    private final boolean pawns;
+    private final boolean twins;                   // two pieces of the same kind
+    private final int kingSquares;
+    private final int size;
+
+    private Endgame(String name, PieceFactory.PieceType[] pieces) {
+        this.name = name;
+        this.pieces = pieces;
+        pawns = List.of(pieces).contains(PieceFactory.PieceType.PAWN);
+        twins = pieces.length == 2 && pieces[0] == pieces[1];
+        kingSquares = pawns ? 32 : 10;
+        int positions = 2 * kingSquares * 64;
+        for (int i = 0; i < pieces.length; i++)
+            positions *= 64;
+        size = positions;
+    }
+
+    /**
+     * Parses an endgame name, e.g. "KBNK".
+     *
+     * @throws IllegalArgumentException if it is not a king and one or two pieces against a king
+     */
+    static Endgame of(String name) {
+        String upper = name.toUpperCase();
+        if (upper.length() < 3 || upper.length() > MAX_PIECES + 1 || upper.charAt(0) != 'K' || !upper.endsWith("K"))
+            throw new IllegalArgumentException("Final inválido: " + name);
+        List<PieceFactory.PieceType> list = new ArrayList<>();
+        for (char letter : upper.substring(1, upper.length() - 1).toCharArray()) {
+            int index = LETTERS.indexOf(letter);
+            if (index < 0)
+                throw new IllegalArgumentException("Final inválido: " + name);
+            list.add(ORDER[index]);
+        }
+        return of(list.toArray(new PieceFactory.PieceType[0]));
+    }
+
+    /**
+     * The endgame of the strong side's pieces but the king, in any order.
+     */
+    static Endgame of(PieceFactory.PieceType... pieces) {
+        PieceFactory.PieceType[] sorted = pieces.clone();
+        Arrays.sort(sorted, (a, b) -> Integer.compare(order(a), order(b)));
+        StringBuilder sb = new StringBuilder("K");
+        for (PieceFactory.PieceType type : sorted)
+            sb.append(LETTERS.charAt(order(type)));
+        return new Endgame(sb.append('K').toString(), sorted);
+    }
+
+    static int order(PieceFactory.PieceType type) {
+        for (int i = 0; i < ORDER.length; i++) {
+            if (ORDER[i] == type)
+                return i;
+        }
+        throw new IllegalArgumentException("Peça inválida num final: " + type);
+    }
+
+    /**
+     * Whether the strong side can never mate, whatever the position: a lone king, or a king and
+     * one bishop or knight. These endgames need no table.
+     */
+    static boolean isDrawn(PieceFactory.PieceType... pieces) {
+        return pieces.length == 0 || pieces.length == 1
+                && (pieces[0] == PieceFactory.PieceType.BISHOP || pieces[0] == PieceFactory.PieceType.KNIGHT);
+    }
+
+    /**
+     * Code of the strong side's pieces but the king, given in ORDER: 0 for none, then one base-6
+     * digit per piece (its place in ORDER plus one); below {@link #CODES}.
+     */
+    static int code(PieceFactory.PieceType... pieces) {
+        int code = 0;
+        for (PieceFactory.PieceType type : pieces)
+            code = code * (ORDER.length + 1) + order(type) + 1;
+        return code;
+    }
+
+    int code() {
+        return code(pieces);
+    }
+
+    String name() {
+        return name;
+    }
+
+    PieceFactory.PieceType[] pieces() {
+        return pieces.clone();
+    }
+
+    PieceFactory.PieceType piece(int slot) {
+        return pieces[slot];
+    }
+
+    int pieceCount() {
+        return pieces.length;
+    }
+
+    boolean hasPawns() {
+        return pawns;
+    }
+
+    /**
+     * Number of entries of the table, used or not.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Index of a position.
+     *
+     * @param whiteToMove side to move
+     * @param squares white king, black king, then the other white pieces in ORDER (left unchanged)
+     */
+    int index(boolean whiteToMove, int[] squares) {
+        int t = pawns ? (squares[0] % 8 < 4 ? 0 : 1) : TRIANGLE_TRANSFORM[squares[0]];
+        int index = encode(whiteToMove, squares, t);
+        int king = TRANSFORM[t][squares[0]];
+        if (!pawns && king / 8 == king % 8)
+            index = Math.min(index, encode(whiteToMove, squares, DIAGONAL_FLIP[t]));
+        return index;
+    }
+
+    private int encode(boolean whiteToMove, int[] squares, int t) {
+        int[] map = TRANSFORM[t];
+        int king = map[squares[0]];
+        int index = (whiteToMove ? 0 : kingSquares) + (pawns ? (king / 8) * 4 + king % 8 : TRIANGLE[king]);
+        index = index * 64 + map[squares[1]];
+        if (twins) {
+            int a = map[squares[2]], b = map[squares[3]];
+            return (index * 64 + Math.min(a, b)) * 64 + Math.max(a, b);
+        }
+        for (int i = 2; i < 2 + pieces.length; i++)
+            index = index * 64 + map[squares[i]];
+        return index;
+    }
+
+    /**
+     * The position of an index, in the transformed board it is stored in. The index is only used
+     * if encoding the position again gives it back (see {@link #index}).
+     *
+     * @param squares filled with the white king, the black king and the other white pieces
+     * @return whether white is to move
+     */
+    boolean decode(int index, int[] squares) {
+        for (int i = 1 + pieces.length; i >= 1; i--) {
+            squares[i] = index & 63;
+            index >>>= 6;
+        }
+        boolean whiteToMove = index < kingSquares;
+        int king = index % kingSquares;
+        squares[0] = pawns ? (king / 4) * 8 + king % 4 : TRIANGLE_SQUARE[king];
+        return whiteToMove;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
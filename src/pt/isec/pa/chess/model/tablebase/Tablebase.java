@@ -0,0 +1,107 @@
+package pt.isec.pa.chess.model.tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The table of one endgame, read from its file through a memory-mapped {@link FileChannel}:
+ * the operating system pages the entries in as they are probed, and the file is never copied
+ * into the heap.
+ *
+ * <p>File format (little-endian): magic, version, the endgame name in 8 ASCII bytes padded with
+ * zeros and the number of entries, then one byte per entry in {@link Endgame#index} order:
+ * {@link #DRAW}, {@link #UNUSED}, or 1 plus the distance to mate in plies (the side to move mates
+ * when the distance is odd, and is mated when it is even).</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+final class Tablebase {
+    /** Extension of the table files. */
+    static final String EXTENSION = ".dtm";
+    /** Entry of a draw, with best play. */
+    static final int DRAW = 0;
+    /** Entry of an index with no legal position. */
+    static final int UNUSED = 0xFF;
+
+    private static final int MAGIC = 0x4C424154; // "TABL" read as a little-endian int
+    private static final int VERSION = 1;
+    private static final int NAME_BYTES = 8;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES + NAME_BYTES;
+
+    private final Endgame endgame;
+    private final ByteBuffer entries;
+
+    private Tablebase(Endgame endgame, ByteBuffer entries) {
+        this.endgame = endgame;
+        this.entries = entries;
+    }
+
+    /**
+     * Maps a table file.
+     *
+     * @throws IOException if the file cannot be read or is not a table of the endgame it names
+     */
+    static Tablebase load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES)
+                throw new IOException("Ficheiro de tabela inválido: " + file);
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+
+            int magic = in.getInt(), version = in.getInt();
+            byte[] name = new byte[NAME_BYTES];
+            in.get(name);
+            int count = in.getInt();
+            Endgame endgame;
+            try {
+                endgame = Endgame.of(new String(name, StandardCharsets.US_ASCII).trim());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Ficheiro de tabela inválido: " + file, e);
+            }
+            if (magic != MAGIC || version != VERSION || count != endgame.size() || size != HEADER_BYTES + (long) count)
+                throw new IOException("Ficheiro de tabela inválido: " + file);
+            return new Tablebase(endgame, in.slice(HEADER_BYTES, count)); // the mapping outlives the channel
+        }
+    }
+
+    /**
+     * Writes a table file.
+     *
+     * @param values entries in index order
+     */
+    static void save(Path file, Endgame endgame, byte[] values) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] name = endgame.name().getBytes(StandardCharsets.US_ASCII);
+        header.putInt(MAGIC).putInt(VERSION).put(name).put(new byte[NAME_BYTES - name.length]).putInt(values.length).flip();
+        ByteBuffer body = ByteBuffer.wrap(values);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining() || body.hasRemaining())
+                channel.write(new ByteBuffer[]{header, body});
+        }
+    }
+
+    /**
+     * Path of the file of an endgame in a directory.
+     */
+    static Path file(Path directory, Endgame endgame) {
+        return directory.resolve(endgame.name() + EXTENSION);
+    }
+
+    Endgame endgame() {
+        return endgame;
+    }
+
+    /**
+     * Entry of an index, see the class description; safe to call from several threads.
+     */
+    int value(int index) {
+        return entries.get(index) & 0xFF;
+    }
+}
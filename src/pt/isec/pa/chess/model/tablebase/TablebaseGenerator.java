@@ -0,0 +1,435 @@
+package pt.isec.pa.chess.model.tablebase;
+
+import pt.isec.pa.chess.model.data.Attacks;
+import pt.isec.pa.chess.model.data.PieceFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Builds endgame tables by retrograde analysis: starting from the checkmates, it works backwards
+ * one ply at a time, so every position gets its exact distance to mate with best play by both sides.
+ *
+ * <p>At an odd ply {@code n}, every white move that leads to a position where black is mated in
+ * {@code n - 1} plies wins in {@code n}: the predecessors of those positions are found by taking
+ * white moves back. At an even ply, a black position is lost in {@code n} once all of its moves
+ * lead to white wins: the predecessors of the latest white wins are checked again. Captures and
+ * promotions leave the table and are looked up in the tables of the endgames they lead to, which
+ * are built first. Positions never reached this way are draws.</p>
+ *
+ * <p>Moves follow the model's rules through its {@link Attacks} tables. Each ply is one or two
+ * passes over the table, split in chunks that run in parallel on every core; threads only ever
+ * write the same value into an entry, so no locking is needed.</p>
+ *
+ * <p>Usage: {@code TablebaseGenerator [directory [endgame...]]}; by default the tables of KQK, KRK,
+ * KPK and KBNK are written to {@code tablebases}.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ *
+ * @see Tablebases
+ */
+public final class TablebaseGenerator {
+    private static final int CHUNK = 1 << 14;
+    private static final int NEVER = 0xFF; // conversion of a black position that can never be lost
+    private static final int MAX_VALUE = 0xFE;
+    private static final PieceFactory.PieceType[] PROMOTIONS = {
+            PieceFactory.PieceType.QUEEN, PieceFactory.PieceType.ROOK,
+            PieceFactory.PieceType.BISHOP, PieceFactory.PieceType.KNIGHT
+    };
+
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final Endgame[] endgames = new Endgame[Endgame.CODES]; // built so far, by piece code
+    private final byte[][] tables = new byte[Endgame.CODES][];
+
+    /**
+     * @param directory where the table files are written
+     * @param threads number of threads
+     */
+    public TablebaseGenerator(Path directory, int threads) {
+        this.directory = directory;
+        pool = new ForkJoinPool(threads);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "tablebases");
+        String[] names = args.length > 1 ? List.of(args).subList(1, args.length).toArray(new String[0])
+                : new String[]{"KQK", "KRK", "KPK", "KBNK"};
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        TablebaseGenerator generator = new TablebaseGenerator(directory, threads);
+        try {
+            for (String name : names) {
+                long start = System.nanoTime();
+                List<String> written = generator.generate(name);
+                System.out.printf("%-6s %6d ms  %s%n", name, (System.nanoTime() - start) / 1_000_000,
+                        written.isEmpty() ? "already built" : "wrote " + String.join(", ", written));
+            }
+        } finally {
+            generator.shutdown();
+        }
+    }
+
+    /**
+     * Builds the table of an endgame and writes it, together with the tables it depends on that
+     * this generator has not built yet.
+     *
+     * @param name endgame, e.g. "KBNK"
+     * @return names of the tables written, dependencies first
+     * @throws IllegalArgumentException if the name is not a king and one or two pieces against a king,
+     *                                  or the strong side can never mate
+     * @throws IOException if a file cannot be written
+     */
+    public List<String> generate(String name) throws IOException {
+        Endgame endgame = Endgame.of(name);
+        if (Endgame.isDrawn(endgame.pieces()))
+            throw new IllegalArgumentException("Final sem possibilidade de mate: " + name);
+        Files.createDirectories(directory);
+        List<String> written = new ArrayList<>();
+        build(endgame, written);
+        return written;
+    }
+
+    /**
+     * Stops the threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void build(Endgame endgame, List<String> written) throws IOException {
+        if (tables[endgame.code()] != null)
+            return;
+        for (int slot = 0; slot < endgame.pieceCount(); slot++) {
+            PieceFactory.PieceType[] pieces = endgame.pieces();
+            for (PieceFactory.PieceType promotion : pieces[slot] == PieceFactory.PieceType.PAWN ? PROMOTIONS : new PieceFactory.PieceType[0]) {
+                pieces[slot] = promotion;
+                if (!Endgame.isDrawn(pieces))
+                    build(Endgame.of(pieces), written);
+            }
+            PieceFactory.PieceType[] captured = without(endgame.pieces(), slot);
+            if (!Endgame.isDrawn(captured))
+                build(Endgame.of(captured), written);
+        }
+
+        byte[] values = retrograde(endgame);
+        Tablebase.save(Tablebase.file(directory, endgame), endgame, values);
+        endgames[endgame.code()] = endgame;
+        tables[endgame.code()] = values;
+        written.add(endgame.name());
+    }
+
+    private static PieceFactory.PieceType[] without(PieceFactory.PieceType[] pieces, int slot) {
+        PieceFactory.PieceType[] rest = new PieceFactory.PieceType[pieces.length - 1];
+        for (int i = 0, j = 0; i < pieces.length; i++) {
+            if (i != slot)
+                rest[j++] = pieces[i];
+        }
+        return rest;
+    }
+
+    // Runs a pass over the table, chunk by chunk on every thread
+    private void pass(int size, IntConsumer chunk) {
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk)).join();
+    }
+
+    private byte[] retrograde(Endgame endgame) {
+        int size = endgame.size();
+        byte[] values = new byte[size];     // Tablebase entries; 0 until the position is known to be decided
+        byte[] conversion = new byte[size]; // what captures and promotions decide, as an entry (see setUp)
+        byte[] candidate = new byte[size];  // black positions to check at the current ply
+        AtomicInteger lastConversion = new AtomicInteger();
+
+        pass(size, chunk -> setUp(endgame, values, conversion, chunk, lastConversion));
+        for (int plies = 1; ; plies++) {
+            if (plies + 1 > MAX_VALUE)
+                throw new IllegalStateException("Distância ao mate demasiado longa em " + endgame);
+            int ply = plies;
+            LongAdder changed = new LongAdder();
+            if (plies % 2 == 1) {
+                pass(size, chunk -> whiteWins(endgame, values, conversion, chunk, ply, changed));
+            } else {
+                pass(size, chunk -> markCandidates(endgame, values, candidate, chunk, ply));
+                pass(size, chunk -> blackLosses(endgame, values, conversion, candidate, chunk, ply, changed));
+            }
+            if (changed.sum() == 0 && lastConversion.get() <= plies + 1)
+                break;
+        }
+        return values;
+    }
+
+    // Marks the unused indexes and the checkmates, and works out the conversions: for a white
+    // position, the entry of its fastest winning promotion; for a black one, the entry it gets
+    // once every capture is known to lose (the slowest loss), or NEVER if a capture draws
+    private void setUp(Endgame endgame, byte[] values, byte[] conversion, int chunk, AtomicInteger lastConversion) {
+        int[] squares = new int[Endgame.MAX_PIECES], next = new int[Endgame.MAX_PIECES];
+        int pieces = endgame.pieceCount();
+        int end = Math.min(values.length, (chunk + 1) * CHUNK);
+        for (int index = chunk * CHUNK; index < end; index++) {
+            boolean whiteToMove = endgame.decode(index, squares);
+            if (endgame.index(whiteToMove, squares) != index || !isLegal(endgame, squares, whiteToMove)) {
+                values[index] = (byte) Tablebase.UNUSED;
+                continue;
+            }
+            long occupied = occupancy(endgame, squares);
+            int result = 0;
+            if (whiteToMove) {
+                for (int slot = 2; slot < 2 + pieces; slot++) {
+                    int to = squares[slot] - 8;
+                    if (endgame.piece(slot - 2) != PieceFactory.PieceType.PAWN || to >= 8 || (occupied & 1L << to) != 0)
+                        continue;
+                    for (PieceFactory.PieceType promotion : PROMOTIONS) {
+                        System.arraycopy(squares, 0, next, 0, 2 + pieces);
+                        next[slot] = to;
+                        int value = probe(endgame.pieces(), slot, promotion, next, false);
+                        if (value != Tablebase.DRAW && (result == 0 || value + 1 < result))
+                            result = value + 1;
+                    }
+                }
+            } else {
+                int moves = 0;
+                long around = occupied & ~(1L << squares[1]);
+                for (long targets = Attacks.king(squares[1]); targets != 0; targets &= targets - 1) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    int captured = slotOf(endgame, squares, to);
+                    if (captured == 0 || attacked(endgame, squares, to, captured, around))
+                        continue;
+                    moves++;
+                    if (captured < 0 || result == NEVER)
+                        continue;
+                    System.arraycopy(squares, 0, next, 0, 2 + pieces);
+                    next[1] = to;
+                    int value = probe(endgame.pieces(), captured, null, next, true);
+                    result = value == Tablebase.DRAW ? NEVER : Math.max(result, value + 1);
+                }
+                if (moves == 0) {
+                    if (attacked(endgame, squares, squares[1], -1, occupied))
+                        values[index] = 1; // checkmate: mated in 0 plies
+                    else
+                        result = NEVER;    // stalemate
+                }
+            }
+            conversion[index] = (byte) result;
+            if (result != NEVER)
+                lastConversion.accumulateAndGet(result, Math::max);
+        }
+    }
+
+    // Odd ply: white wins by moving into the latest black losses, or by its conversions
+    private void whiteWins(Endgame endgame, byte[] values, byte[] conversion, int chunk, int plies, LongAdder changed) {
+        int[] squares = new int[Endgame.MAX_PIECES];
+        int half = values.length / 2, end = Math.min(values.length, (chunk + 1) * CHUNK);
+        int pieces = endgame.pieceCount();
+        for (int index = chunk * CHUNK; index < end; index++) {
+            int value = values[index] & 0xFF;
+            if (index < half) {
+                if (value == 0 && (conversion[index] & 0xFF) == plies + 1) {
+                    values[index] = (byte) (plies + 1);
+                    changed.increment();
+                }
+                continue;
+            }
+            if (value != plies)
+                continue;
+            // Black is mated in plies - 1: take every white move back
+            endgame.decode(index, squares);
+            long occupied = occupancy(endgame, squares);
+            for (int slot = 0; slot < 2 + pieces; slot++) {
+                if (slot == 1)
+                    continue;
+                int from = squares[slot];
+                for (long origins = origins(endgame, slot, from, occupied); origins != 0; origins &= origins - 1) {
+                    int origin = Long.numberOfTrailingZeros(origins);
+                    squares[slot] = origin;
+                    long before = occupied ^ 1L << from ^ 1L << origin;
+                    if ((slot != 0 || (Attacks.king(origin) & 1L << squares[1]) == 0)
+                            && !attacked(endgame, squares, squares[1], -1, before)) {
+                        int previous = endgame.index(true, squares);
+                        if (values[previous] == 0) {
+                            values[previous] = (byte) (plies + 1);
+                            changed.increment();
+                        }
+                    }
+                }
+                squares[slot] = from;
+            }
+        }
+    }
+
+    // Squares a white piece can have come from to its square, in a position with the given occupancy
+    private static long origins(Endgame endgame, int slot, int square, long occupied) {
+        if (slot == 0)
+            return Attacks.king(square) & ~occupied;
+        return switch (endgame.piece(slot - 2)) {
+            case QUEEN -> Attacks.queen(square, occupied) & ~occupied;
+            case ROOK -> Attacks.rook(square, occupied) & ~occupied;
+            case BISHOP -> Attacks.bishop(square, occupied) & ~occupied;
+            case KNIGHT -> Attacks.knight(square) & ~occupied;
+            case PAWN -> {
+                // White pawns move towards row 0: one row back, or two from their starting row
+                long origins = 0L;
+                int back = square + 8;
+                if (back < 56 && (occupied & 1L << back) == 0) {
+                    origins |= 1L << back;
+                    if (square / 8 == 4 && (occupied & 1L << (back + 8)) == 0)
+                        origins |= 1L << (back + 8);
+                }
+                yield origins;
+            }
+            default -> 0L;
+        };
+    }
+
+    // Even ply, first pass: the black positions that can move into the latest white wins
+    private void markCandidates(Endgame endgame, byte[] values, byte[] candidate, int chunk, int plies) {
+        int[] squares = new int[Endgame.MAX_PIECES];
+        int half = values.length / 2, end = Math.min(half, (chunk + 1) * CHUNK);
+        for (int index = chunk * CHUNK; index < end; index++) {
+            if ((values[index] & 0xFF) != plies)
+                continue;
+            endgame.decode(index, squares);
+            long occupied = occupancy(endgame, squares);
+            int king = squares[1];
+            for (long origins = Attacks.king(king) & ~occupied & ~Attacks.king(squares[0]); origins != 0; origins &= origins - 1) {
+                squares[1] = Long.numberOfTrailingZeros(origins);
+                int previous = endgame.index(false, squares);
+                if (values[previous] == 0)
+                    candidate[previous] = 1;
+            }
+            squares[1] = king;
+        }
+    }
+
+    // Even ply, second pass: black loses if every move, captures included, leads to a white win
+    private void blackLosses(Endgame endgame, byte[] values, byte[] conversion, byte[] candidate,
+                             int chunk, int plies, LongAdder changed) {
+        int[] squares = new int[Endgame.MAX_PIECES];
+        int half = values.length / 2, end = Math.min(values.length, (chunk + 1) * CHUNK);
+        for (int index = Math.max(half, chunk * CHUNK); index < end; index++) {
+            int converted = conversion[index] & 0xFF;
+            if (values[index] != 0 || candidate[index] == 0 && converted != plies + 1)
+                continue;
+            candidate[index] = 0;
+            if (converted == NEVER || converted > plies + 1)
+                continue;
+
+            endgame.decode(index, squares);
+            long around = occupancy(endgame, squares) & ~(1L << squares[1]);
+            int king = squares[1], moves = 0;
+            boolean lost = true;
+            for (long targets = Attacks.king(king); targets != 0 && lost; targets &= targets - 1) {
+                int to = Long.numberOfTrailingZeros(targets);
+                int captured = slotOf(endgame, squares, to);
+                if (captured == 0 || attacked(endgame, squares, to, captured, around))
+                    continue;
+                moves++;
+                if (captured < 0) {
+                    squares[1] = to;
+                    lost = values[endgame.index(true, squares)] != 0;
+                    squares[1] = king;
+                }
+            }
+            if (lost && moves > 0) {
+                values[index] = (byte) (plies + 1);
+                changed.increment();
+            }
+        }
+    }
+
+    // Entry of the position after a capture (piece null) or a promotion of the piece in a slot
+    private int probe(PieceFactory.PieceType[] pieces, int slot, PieceFactory.PieceType piece, int[] squares, boolean whiteToMove) {
+        int count = pieces.length;
+        PieceFactory.PieceType[] rest = new PieceFactory.PieceType[count];
+        int[] restSquares = new int[2 + count];
+        restSquares[0] = squares[0];
+        restSquares[1] = squares[1];
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            PieceFactory.PieceType type = i + 2 == slot ? piece : pieces[i];
+            if (type == null)
+                continue;
+            rest[kept] = type;
+            restSquares[2 + kept++] = squares[2 + i];
+        }
+        if (kept == 2 && Endgame.order(rest[0]) > Endgame.order(rest[1])) {
+            PieceFactory.PieceType type = rest[0];
+            rest[0] = rest[1];
+            rest[1] = type;
+            int square = restSquares[2];
+            restSquares[2] = restSquares[3];
+            restSquares[3] = square;
+        }
+        rest = Arrays.copyOf(rest, kept);
+        if (Endgame.isDrawn(rest))
+            return Tablebase.DRAW;
+        int code = Endgame.code(rest);
+        return tables[code][endgames[code].index(whiteToMove, restSquares)] & 0xFF;
+    }
+
+    private static long occupancy(Endgame endgame, int[] squares) {
+        long occupied = 0L;
+        for (int i = 0; i < 2 + endgame.pieceCount(); i++)
+            occupied |= 1L << squares[i];
+        return occupied;
+    }
+
+    // Slot of the piece on a square, -1 if it is empty
+    private static int slotOf(Endgame endgame, int[] squares, int square) {
+        for (int i = 0; i < 2 + endgame.pieceCount(); i++) {
+            if (squares[i] == square)
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean isLegal(Endgame endgame, int[] squares, boolean whiteToMove) {
+        long occupied = 0L;
+        for (int i = 0; i < 2 + endgame.pieceCount(); i++) {
+            long bit = 1L << squares[i];
+            if ((occupied & bit) != 0)
+                return false;
+            occupied |= bit;
+            int row = squares[i] / 8;
+            if (i >= 2 && endgame.piece(i - 2) == PieceFactory.PieceType.PAWN && (row == 0 || row == 7))
+                return false;
+        }
+        if ((Attacks.king(squares[0]) & 1L << squares[1]) != 0)
+            return false;
+        // The side that has just moved cannot be in check
+        return !whiteToMove || !attacked(endgame, squares, squares[1], -1, occupied);
+    }
+
+    // Whether a square is attacked by white, leaving out the piece in a slot (-1 for none)
+    private static boolean attacked(Endgame endgame, int[] squares, int square, int skip, long occupied) {
+        long target = 1L << square;
+        if ((Attacks.king(squares[0]) & target) != 0)
+            return true;
+        for (int i = 0; i < endgame.pieceCount(); i++) {
+            if (i + 2 == skip)
+                continue;
+            int from = squares[i + 2];
+            long attacks = switch (endgame.piece(i)) {
+                case QUEEN -> Attacks.queen(from, occupied);
+                case ROOK -> Attacks.rook(from, occupied);
+                case BISHOP -> Attacks.bishop(from, occupied);
+                case KNIGHT -> Attacks.knight(from);
+                case PAWN -> Attacks.pawn(from, true);
+                default -> 0L;
+            };
+            if ((attacks & target) != 0)
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,161 @@
+package pt.isec.pa.chess.model.tablebase;
+
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.PieceFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Endgame tables read from a directory, probed with boards: the exact result of a position with
+ * at most {@value #MAX_PIECES} pieces, a king and one or two pieces against a lone king, and its
+ * distance to mate with best play. Tables are built by {@link TablebaseGenerator}.
+ *
+ * <p>A probe returns {@link #UNKNOWN} when no table covers the position (more pieces, pieces on
+ * both sides, castling rights left, or the table was not loaded), {@link #DRAW}, or 1 plus the
+ * distance to mate in plies: odd distances are mates by the side to move, even ones mates of it
+ * (see {@link #isWin} and {@link #plies}). A lone king against a king, bishop or knight is always
+ * a draw and needs no table. The fifty-move rule is not taken into account.</p>
+ *
+ * <p>Probing allocates no memory besides a few squares and is safe from several threads.</p>
+ *
+ * @author Group 06
+ * @version 1.0.0
+ */
+public final class Tablebases {
+    /** Most pieces on the board, kings included, of a position the tables can cover. */
+    public static final int MAX_PIECES = Endgame.MAX_PIECES;
+    /** Result of a position no table covers. */
+    public static final int UNKNOWN = -1;
+    /** Result of a draw with best play. */
+    public static final int DRAW = Tablebase.DRAW;
+
+    private static final long BACK_ROWS = 0xFFL | 0xFFL << 56;
+
+    private final Tablebase[] tables = new Tablebase[Endgame.CODES]; // by piece code
+    private final List<String> endgames;
+
+    private Tablebases(List<Tablebase> loaded) {
+        List<String> names = new ArrayList<>();
+        for (Tablebase table : loaded) {
+            tables[table.endgame().code()] = table;
+            names.add(table.endgame().name());
+        }
+        Collections.sort(names);
+        endgames = List.copyOf(names);
+    }
+
+    /**
+     * Maps every table file ({@code *.dtm}) of a directory.
+     *
+     * @throws IOException if the directory cannot be read, has no table files or one of them is invalid
+     */
+    public static Tablebases load(Path directory) throws IOException {
+        List<Tablebase> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + Tablebase.EXTENSION)) {
+            for (Path file : files)
+                loaded.add(Tablebase.load(file));
+        }
+        if (loaded.isEmpty())
+            throw new IOException("Nenhuma tabela de finais em " + directory);
+        return new Tablebases(loaded);
+    }
+
+    /**
+     * Names of the endgames loaded, e.g. "KBNK", in alphabetical order.
+     */
+    public List<String> getEndgames() {
+        return endgames;
+    }
+
+    /**
+     * Looks a position up, with the board's side to move.
+     *
+     * @return {@link #UNKNOWN}, {@link #DRAW} or 1 plus the distance to mate in plies
+     */
+    public int probe(Board board) {
+        return probe(board, board.isWhiteToMove());
+    }
+
+    /**
+     * Looks a position up with the given side to move, e.g. right after a move, before the board
+     * has passed the turn.
+     *
+     * @return {@link #UNKNOWN}, {@link #DRAW} or 1 plus the distance to mate in plies, for that side
+     */
+    public int probe(Board board, boolean whiteToMove) {
+        if (board.getCastlingRights() != 0 || Long.bitCount(board.getOccupied()) > MAX_PIECES)
+            return UNKNOWN;
+        long pawns = board.getBitboard(PieceFactory.PieceType.PAWN, true) | board.getBitboard(PieceFactory.PieceType.PAWN, false);
+        if ((pawns & BACK_ROWS) != 0)
+            return UNKNOWN; // a promotion still to be chosen
+        boolean strongWhite = Long.bitCount(board.getOccupancy(false)) == 1;
+        if (!strongWhite && Long.bitCount(board.getOccupancy(true)) != 1)
+            return UNKNOWN; // pieces on both sides
+        long strongKing = board.getBitboard(PieceFactory.PieceType.KING, strongWhite);
+        long weakKing = board.getBitboard(PieceFactory.PieceType.KING, !strongWhite);
+        if (strongKing == 0 || weakKing == 0)
+            return UNKNOWN;
+
+        // The strong side plays white: with black, the board is mirrored top to bottom
+        int flip = strongWhite ? 0 : 56;
+        int[] squares = new int[MAX_PIECES];
+        squares[0] = Long.numberOfTrailingZeros(strongKing) ^ flip;
+        squares[1] = Long.numberOfTrailingZeros(weakKing) ^ flip;
+        int count = 0, code = 0, last = -1;
+        for (int order = 0; order < Endgame.ORDER.length; order++) {
+            for (long bits = board.getBitboard(Endgame.ORDER[order], strongWhite); bits != 0; bits &= bits - 1) {
+                squares[2 + count++] = Long.numberOfTrailingZeros(bits) ^ flip;
+                code = code * (Endgame.ORDER.length + 1) + order + 1;
+                last = order;
+            }
+        }
+        if (count == 0 || count == 1 && (Endgame.ORDER[last] == PieceFactory.PieceType.BISHOP
+                || Endgame.ORDER[last] == PieceFactory.PieceType.KNIGHT))
+            return DRAW;
+
+        Tablebase table = tables[code];
+        if (table == null)
+            return UNKNOWN;
+        int value = table.value(table.endgame().index(whiteToMove == strongWhite, squares));
+        return value == Tablebase.UNUSED ? UNKNOWN : value;
+    }
+
+    /**
+     * Whether a result is a win for the side to move.
+     */
+    public static boolean isWin(int result) {
+        return result > 0 && plies(result) % 2 == 1;
+    }
+
+    /**
+     * Whether a result is a loss for the side to move (a mate in 0 plies if it is checkmated).
+     */
+    public static boolean isLoss(int result) {
+        return result > 0 && plies(result) % 2 == 0;
+    }
+
+    /**
+     * Distance to mate of a decided result, in plies.
+     */
+    public static int plies(int result) {
+        return result - 1;
+    }
+
+    /**
+     * Describes a result for the side to move, e.g. "mates in 5", "is mated in 3", "draw".
+     */
+    public static String describe(int result) {
+        if (result == UNKNOWN)
+            return "unknown";
+        if (result == DRAW)
+            return "draw";
+        int moves = (plies(result) + 1) / 2;
+        return isWin(result) ? "mates in " + moves : "is mated in " + moves;
+    }
+}
@@ -122,6 +122,8 @@ public class BoardCanvas extends Canvas {
             System.out.println(game.getGameState());
             System.out.println(selectedSpot);
             if (selectedSpot == null && game.getGameState() == ChessGame.GameState.RUNNING) {
+                if (game.isEngineTurn())
+                    return; // the engine is thinking
 
                 String piece = game.getPieceAt(row, col);
                 System.out.println(selectedSpot);
@@ -254,9 +256,11 @@ public class BoardCanvas extends Canvas {
         centerCanvas(parent);
         drawBoard(gc);
         drawLabels(gc);
+        drawEvaluationBar(gc);
         String boardState = game.queryBoard();
         if(rootpane.isShowMoves())
         {
+            drawHangingPieces(gc);
             drawMoves(gc);
         }
         drawPieces(gc);
@@ -291,6 +295,41 @@ public class BoardCanvas extends Canvas {
         }
     }
 
+    private void drawEvaluationBar(GraphicsContext gc) { // Barra de avaliação à esquerda dos números
+        double width = cellSize * 0.2;
+        double height = cellSize * game.getBoardSize();
+        double x = initialX - margin * 3 - cellSize * 0.3 - width;
+        double y = initialY + margin;
+
+        // Parte branca proporcional à vantagem das brancas (curva logística, 400 centipeões = 10:1)
+        double whiteShare = 1 / (1 + Math.pow(10, -game.getEvaluation() / 400.0));
+
+        gc.setFill(Color.GRAY);
+        gc.fillRect(x - 1, y - 1, width + 2, height + 2);
+        gc.setFill(Color.BLACK);
+        gc.fillRect(x, y, width, height);
+        gc.setFill(Color.WHITE);
+        gc.fillRect(x, y + height * (1 - whiteShare), width, height * whiteShare);
+    }
+
+    private void drawHangingPieces(GraphicsContext gc) { // Modo de aprendizagem: peças que podem ser ganhas
+        boolean isCurrentPlayerWhite = game.getCurrentPlayer().equals("White");
+        gc.setLineWidth(3);
+        for (int row = 0; row < game.getBoardSize(); row++) {
+            for (int col = 0; col < game.getBoardSize(); col++) {
+                if (!game.isHanging(row, col)) continue;
+
+                boolean isWhitePiece = Character.isUpperCase(game.getPieceAt(row, col).charAt(0));
+                double x = initialX + margin + (col * cellSize);
+                double y = initialY + margin + (row * cellSize);
+
+                // Vermelho para as peças de quem joga, verde para as que pode capturar
+                gc.setStroke(isWhitePiece == isCurrentPlayerWhite ? Color.RED : Color.LIMEGREEN);
+                gc.strokeRect(x + 2, y + 2, cellSize - 4, cellSize - 4);
+            }
+        }
+    }
+
     private void drawMoves(GraphicsContext gc) {
         if(selectedSpot != null) {
             String[] moves = game.getLegalMovesString(selectedSpot.getRow(), selectedSpot.getCol()).strip().split(" ");
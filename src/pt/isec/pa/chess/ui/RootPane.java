@@ -4,11 +4,16 @@ import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.scene.layout.Pane;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
+import pt.isec.pa.chess.engine.SearchInfo;
 import pt.isec.pa.chess.model.ChessGame;
 import pt.isec.pa.chess.model.ChessGameManager;
 import java.io.File;
+import java.util.List;
 
 public class RootPane extends BorderPane {
     private final ChessGameManager data;
@@ -16,15 +21,20 @@ public class RootPane extends BorderPane {
     private Pane center;
 
     private Label lbStatus; //status like learning mode, normal mode, white's&black's turn, etc.
+    private Label lbClock;  //remaining time of both players, when the game is timed
+    private VBox analysisPanel; //engine lines, shown in analysis mode
+    private javafx.scene.control.ListView<String> lvAnalysis;
     private MenuItem mnNew, mnOpen, mnSave, mnImport, mnExport, mnQuit,
-    mnNormal, mnLearning, mnShowMoves, mnUndo, mnRedo, mnEnglish, mnPortuguese, mnToggle;
-    private Menu mnMode, mnAcessibility;
+    mnNormal, mnLearning, mnVsEngine, mnShowMoves, mnUndo, mnRedo, mnEnglish, mnPortuguese, mnToggle,
+    mnNoClock, mnBlitz, mnRapid, mnPonder, mnAnalysis, mnNetwork, mnTablebases;
+    private Menu mnMode, mnAcessibility, mnClock;
 
     private boolean gameStarted = false;
     private boolean showMoves = false;
 
     public RootPane(ChessGameManager data) {
         this.data = data;
+        data.setEventExecutor(Platform::runLater); // engine events arrive on the engine thread
 
         createViews();
         registerHandlers();
@@ -36,12 +46,19 @@ public class RootPane extends BorderPane {
         setTop(createMenu());
 
         lbStatus = new Label();
-        setBottom(lbStatus);
-        BorderPane.setMargin(lbStatus, new Insets(10));
+        lbClock = new Label();
+        HBox bottom = new HBox(30, lbClock, lbStatus);
+        setBottom(bottom);
+        BorderPane.setMargin(bottom, new Insets(10));
 
         LearningFeatures(true);
         SoundFeatures(true);
 
+        lvAnalysis = new javafx.scene.control.ListView<>();
+        lvAnalysis.setPrefWidth(320);
+        analysisPanel = new VBox(5, new Label("Analysis"), lvAnalysis);
+        BorderPane.setMargin(analysisPanel, new Insets(10));
+
         center = new Pane();
         setCenter(center);
         boardCanvas = new BoardCanvas(data, center, this);
@@ -67,11 +84,22 @@ public class RootPane extends BorderPane {
         mnMode = new Menu("Mode");
         mnNormal = new MenuItem("Normal");
         mnLearning = new MenuItem("Learning");
+        mnAnalysis = new MenuItem("Analysis");
+        mnVsEngine = new MenuItem("Play vs Engine");
+        mnPonder = new MenuItem("Engine Ponders");
+        mnNetwork = new MenuItem("Engine Network...");
+        mnTablebases = new MenuItem("Endgame Tablebases...");
         mnShowMoves = new MenuItem("Show Possible Moves");
         mnUndo = new MenuItem("Undo");
         mnRedo = new MenuItem("Redo");
 
-        mnMode.getItems().addAll(mnNormal, mnLearning, new SeparatorMenuItem(), mnShowMoves, mnUndo, mnRedo);
+        mnClock = new Menu("Clock");
+        mnNoClock = new MenuItem("No Clock");
+        mnBlitz = new MenuItem("Blitz 5+3");
+        mnRapid = new MenuItem("Rapid 15+10");
+        mnClock.getItems().addAll(mnNoClock, mnBlitz, mnRapid);
+
+        mnMode.getItems().addAll(mnNormal, mnLearning, mnAnalysis, mnVsEngine, mnPonder, mnNetwork, mnTablebases, mnClock, new SeparatorMenuItem(), mnShowMoves, mnUndo, mnRedo);
 
         // Acessiblility menu
         mnAcessibility = new Menu("Acessiblility");
@@ -89,6 +117,20 @@ public class RootPane extends BorderPane {
     private void registerHandlers() {
         data.addPropertyChangeListener(ChessGameManager.PROP_UPDATE_BOARD, evt -> { update(); });
 
+        data.addPropertyChangeListener(ChessGameManager.PROP_ENGINE_INFO, evt -> {
+            SearchInfo info = (SearchInfo) evt.getNewValue();
+            String engine = data.isEnginePondering() ? "Engine (pondering)" : "Engine";
+            updateStatus(engine + ": depth " + info.depth()
+                    + (info.isMate() ? "  mate " + info.mateIn() : String.format("  score %+.2f", info.score() / 100.0))
+                    + "  " + info.nps() / 1000 + " kn/s  " + info.pvString());
+        });
+
+        // Coalesced by the manager to a few events per second, however fast the engine iterates
+        data.addPropertyChangeListener(ChessGameManager.PROP_ANALYSIS, evt -> updateAnalysis((List<?>) evt.getNewValue()));
+
+        // Throttled by the manager to a few events per second; only the clock label is redrawn
+        data.addPropertyChangeListener(ChessGameManager.PROP_CLOCK, evt -> updateClock());
+
         data.addPropertyChangeListener(ChessGameManager.PROP_GAME_STATE, evt -> {
 
             switch (data.getGameState()) {
@@ -114,6 +156,22 @@ public class RootPane extends BorderPane {
                     System.out.println(title + winner);
                     Platform.runLater(() -> Utils.showAlert(Alert.AlertType.INFORMATION, title, winner));
                 }
+                case ChessGame.GameState.DRAW -> {
+                    String winner;
+                    String title;
+                    title = "Draw!";
+                    winner = "\nEmpate! Nenhum jogador pode dar mate.";
+                    System.out.println(title + winner);
+                    Platform.runLater(() -> Utils.showAlert(Alert.AlertType.INFORMATION, title, winner));
+                }
+                case ChessGame.GameState.TIMEOUT -> {
+                    String winner;
+                    String title;
+                    title = "Time!";
+                    winner = "\nVencedor: " + (data.getCurrentPlayer().equals("White") ? data.getBlackPlayerName() : data.getWhitePlayerName());
+                    updateClock();
+                    Platform.runLater(() -> Utils.showAlert(Alert.AlertType.INFORMATION, title, winner));
+                }
             }
         });
 
@@ -247,6 +305,82 @@ public class RootPane extends BorderPane {
             updateModeStyles();
         });
 
+        mnAnalysis.setOnAction(e -> {
+            boolean enable = !data.isAnalysisMode();
+            data.setAnalysisMode(enable);
+            setRight(enable ? analysisPanel : null);
+            updateStatus(enable ? "Analysis mode activated" : "Analysis mode deactivated");
+            updateModeStyles();
+        });
+
+        mnVsEngine.setOnAction(e -> {
+            if (data.isEngineMode()) {
+                data.playVsHuman();
+                updateStatus("Engine disabled - two players mode");
+            } else {
+                // The engine takes the side that is not about to move, so the player moves next
+                boolean engineIsWhite = !data.getCurrentPlayer().equals("White");
+                data.playVsEngine(engineIsWhite);
+                setRight(null); // no analysis while playing the engine
+                updateStatus("Playing vs engine - engine plays " + (engineIsWhite ? "White" : "Black"));
+            }
+            updateModeStyles();
+        });
+
+        mnPonder.setOnAction(e -> {
+            data.setEnginePondering(!data.isEnginePonderingEnabled());
+            updateStatus(data.isEnginePonderingEnabled() ? "Engine thinks on your time" : "Engine only thinks on its own time");
+            updateModeStyles();
+        });
+
+        // Neural network evaluation: pick a network file, or cancel to go back to the hand-written evaluation
+        mnNetwork.setOnAction(e -> {
+            FileChooser fileChooser = Utils.createFileChooser(
+                    "Engine Network",
+                    new FileChooser.ExtensionFilter("NNUE Files (*.nnue)", "*.nnue")
+            );
+            File file = fileChooser.showOpenDialog(this.getScene().getWindow());
+            try {
+                data.setEngineNetwork(file);
+                updateStatus(file == null ? "Engine uses its hand-written evaluation" : "Engine uses the network " + file.getName());
+            } catch (Exception ex) {
+                Utils.showAlert(Alert.AlertType.ERROR,
+                        "Network Error", "Failed to load network: " + ex.getMessage());
+            }
+            updateModeStyles();
+        });
+
+        mnTablebases.setOnAction(e -> {
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            directoryChooser.setTitle("Endgame Tablebases");
+            File directory = directoryChooser.showDialog(this.getScene().getWindow());
+            try {
+                data.setTablebases(directory);
+                updateStatus(directory == null ? "Playing without endgame tablebases"
+                        : "Endgame tablebases: " + String.join(", ", data.getTablebaseEndgames()));
+            } catch (Exception ex) {
+                Utils.showAlert(Alert.AlertType.ERROR,
+                        "Tablebase Error", "Failed to load tablebases: " + ex.getMessage());
+            }
+            updateModeStyles();
+        });
+
+        mnNoClock.setOnAction(e -> {
+            data.setTimeControl(0, 0);
+            updateStatus("Clock disabled");
+            updateClock();
+        });
+
+        mnBlitz.setOnAction(e -> {
+            data.setTimeControl(5 * 60_000, 3_000);
+            updateStatus("Clock set to 5 minutes + 3 seconds per move");
+        });
+
+        mnRapid.setOnAction(e -> {
+            data.setTimeControl(15 * 60_000, 10_000);
+            updateStatus("Clock set to 15 minutes + 10 seconds per move");
+        });
+
         mnUndo.setOnAction(e -> {
             // Se estiver em modo de aprendizagem
             if (!mnShowMoves.isDisable()) {
@@ -308,6 +442,11 @@ public class RootPane extends BorderPane {
             boolean isNormalMode = mnShowMoves.isDisable();
             mnNormal.getStyleableNode().setStyle(isNormalMode ? "-fx-background-color: #b3e5fc;" : "");
             mnLearning.getStyleableNode().setStyle(isNormalMode ? "" : "-fx-background-color: #b3e5fc;");
+            mnVsEngine.getStyleableNode().setStyle(data.isEngineMode() ? "-fx-background-color: #b3e5fc;" : "");
+            mnAnalysis.getStyleableNode().setStyle(data.isAnalysisMode() ? "-fx-background-color: #b3e5fc;" : "");
+            mnPonder.getStyleableNode().setStyle(data.isEnginePonderingEnabled() ? "-fx-background-color: #b3e5fc;" : "");
+            mnNetwork.getStyleableNode().setStyle(data.isEngineUsingNetwork() ? "-fx-background-color: #b3e5fc;" : "");
+            mnTablebases.getStyleableNode().setStyle(data.getTablebaseEndgames().isEmpty() ? "" : "-fx-background-color: #b3e5fc;");
         });
     }
 
@@ -368,6 +507,33 @@ public class RootPane extends BorderPane {
         lbStatus.setText(message);
     }
 
+    private void updateAnalysis(List<?> lines) {
+        lvAnalysis.getItems().clear();
+        for (int i = 0; i < lines.size(); i++) {
+            SearchInfo info = (SearchInfo) lines.get(i);
+            // Scores are from the side to move; shown from White's point of view
+            int sign = data.getCurrentPlayer().equals("White") ? 1 : -1;
+            String score = info.isMate() ? "#" + sign * info.mateIn() : String.format("%+.2f", sign * info.score() / 100.0);
+            lvAnalysis.getItems().add((i + 1) + ". " + score + "  d" + info.depth() + "  " + info.pvString());
+        }
+    }
+
+    private void updateClock() {
+        if (!data.hasClock()) {
+            lbClock.setText("");
+            return;
+        }
+        lbClock.setText("White " + formatClock(data.getClockMillis(true)) + "  |  Black " + formatClock(data.getClockMillis(false)));
+    }
+
+    // m:ss, with tenths of a second in the last ten seconds
+    private static String formatClock(long millis) {
+        long seconds = millis / 1000;
+        if (millis < 10_000)
+            return String.format("%d.%d", seconds, millis % 1000 / 100);
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
     private void update() {
         if(!mnShowMoves.isDisable())
         {
@@ -0,0 +1,227 @@
+package pt.isec.pa.chess.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.model.ChessGame;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineTest {
+
+    private Engine engine;
+    private ChessGame game;
+
+    @BeforeEach
+    void setUp() {
+        engine = new Engine();
+        game = new ChessGame();
+        game.setPlayerNames("Branco", "Preto");
+        game.startNewGame();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    private boolean isLegal(int move) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(game.getBoard(), game.isWhiteTurn(), moves);
+        return moves.contains(move);
+    }
+
+    @Test
+    void testFindsMateInOne() {
+        game.importGame("WHITE,kh8,Qa7,Kg6");
+        long key = game.getPositionKey();
+
+        SearchInfo info = engine.search(game.getBoard(), SearchLimits.depth(4), null);
+
+        assertEquals(key, game.getPositionKey(), "A pesquisa não deveria alterar o tabuleiro do jogo.");
+        assertTrue(info.isMate(), "Deveria encontrar o mate: " + info);
+        assertEquals(1, info.mateIn(), "Deveria ser mate em 1.");
+        int move = info.bestMove();
+        ChessGame.MoveResult result = game.move(Move.squareName(Move.from(move)), Move.squareName(Move.to(move)));
+        assertEquals(ChessGame.MoveResult.CHECKMATEc, result, "A jogada escolhida deveria dar mate: " + Move.toString(move));
+    }
+
+    @Test
+    void testWinsHangingQueen() {
+        game.importFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+
+        SearchInfo info = engine.search(game.getBoard(), SearchLimits.depth(3), null);
+
+        assertEquals("d1d5", Move.toString(info.bestMove()), "A torre deveria capturar a dama.");
+        assertTrue(info.score() > 300, "As Brancas deveriam ficar com vantagem: " + info);
+    }
+
+    @Test
+    void testQuiescenceSeesRecapture() {
+        game.importFen("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+
+        SearchInfo info = engine.search(game.getBoard(), SearchLimits.depth(1), null);
+
+        assertNotEquals("d1d5", Move.toString(info.bestMove()), "A dama não deveria capturar um peão defendido: " + info);
+        assertTrue(info.score() < game.getEvaluation() + 100, "A avaliação não deveria contar com o peão ganho: " + info);
+    }
+
+    @Test
+    void testPruningCanBeSwitchedOff() {
+        game.importFen("r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 4 4");
+
+        for (Pruning technique : Pruning.values())
+            engine.setPruning(technique, false);
+        SearchInfo full = engine.search(game.getBoard(), SearchLimits.depth(4), null);
+        assertEquals(PruningStats.NONE, engine.getPruningStats(), "Sem poda seletiva nenhuma técnica deveria atuar.");
+
+        for (Pruning technique : Pruning.values())
+            engine.setPruning(technique, true);
+        engine.clearHash();
+        SearchInfo pruned = engine.search(game.getBoard(), SearchLimits.depth(4), null);
+        PruningStats stats = engine.getPruningStats();
+
+        for (Pruning technique : Pruning.values())
+            assertTrue(stats.count(technique) > 0, technique + " deveria atuar: " + stats);
+        assertTrue(pruned.nodes() < full.nodes(), "A poda deveria reduzir os nós: " + full.nodes() + " vs " + pruned.nodes());
+        assertTrue(isLegal(pruned.bestMove()), "A melhor jogada deveria ser legal: " + pruned);
+        OrderingStats ordering = engine.getOrderingStats();
+        assertTrue(ordering.cutoffs() > 0 && ordering.firstMoveRate() > 0.5, "A primeira jogada deveria cortar na maioria dos nós: " + ordering);
+    }
+
+    @Test
+    void testBackgroundSearchReportsIterations() throws Exception {
+        List<SearchInfo> reported = Collections.synchronizedList(new ArrayList<>());
+
+        Future<SearchInfo> pending = engine.start(game.getBoard(), SearchLimits.time(300), reported::add, null);
+        SearchInfo result = pending.get(5, TimeUnit.SECONDS);
+
+        assertFalse(reported.isEmpty(), "Deveria reportar as iterações completas.");
+        for (int i = 0; i < reported.size(); i++)
+            assertEquals(i + 1, reported.get(i).depth(), "As iterações deveriam ir aprofundando uma a uma.");
+        SearchInfo last = reported.get(reported.size() - 1);
+        assertEquals(last.depth(), result.depth(), "O resultado deveria ser a última iteração.");
+        assertEquals(last.bestMove(), result.bestMove(), "O resultado deveria ser a última iteração.");
+        assertTrue(result.nodes() > 0 && result.nps() > 0, "Deveria contar nós: " + result);
+        // A variante principal pode ser cortada pela tabela de transposição ou estendida pela pesquisa de capturas
+        assertTrue(result.pv().length >= 1, "Deveria haver uma variante principal.");
+        Board line = game.getBoard().clone();
+        MoveList moves = new MoveList();
+        for (int move : result.pv()) {
+            MoveGenerator.generate(line, line.isWhiteToMove(), moves);
+            assertTrue(moves.contains(move), "A variante principal deveria ser jogável: " + result);
+            line.makeMove(move);
+        }
+        assertTrue(isLegal(result.bestMove()), "A melhor jogada deveria ser legal: " + result);
+        assertFalse(engine.isSearching(), "O motor não deveria continuar a pensar.");
+    }
+
+    @Test
+    void testStopReturnsLegalMove() throws Exception {
+        Future<SearchInfo> pending = engine.start(game.getBoard(), SearchLimits.infinite(), null, null);
+        Thread.sleep(100);
+        assertTrue(engine.isSearching(), "Uma pesquisa sem limites deveria continuar até ser parada.");
+
+        engine.stop();
+        SearchInfo result = pending.get(2, TimeUnit.SECONDS);
+
+        assertTrue(isLegal(result.bestMove()), "Mesmo parada, a pesquisa deveria dar uma jogada legal: " + result);
+    }
+
+    @Test
+    void testPonderHitKeepsSearching() throws Exception {
+        Future<SearchInfo> pending = engine.ponder(game.getBoard(), null, null);
+        Thread.sleep(100);
+        assertTrue(engine.isPondering(), "Sem a jogada esperada, a pesquisa deveria continuar.");
+
+        long hit = System.nanoTime();
+        assertTrue(engine.ponderHit(SearchLimits.time(100)), "A pesquisa em curso deveria aceitar os limites.");
+        SearchInfo result = pending.get(2, TimeUnit.SECONDS);
+        long elapsed = (System.nanoTime() - hit) / 1_000_000;
+
+        assertFalse(engine.isPondering(), "Depois do acerto, já não deveria estar a ponderar.");
+        assertTrue(isLegal(result.bestMove()), "Deveria dar uma jogada legal: " + result);
+        assertTrue(elapsed < 2 * 100, "O tempo deveria contar a partir do acerto: " + elapsed + " ms");
+        assertFalse(engine.ponderHit(SearchLimits.time(100)), "Sem pesquisa em curso, não deveria haver acerto.");
+    }
+
+    @Test
+    void testAnalysisReportsSeveralLines() throws Exception {
+        BlockingQueue<List<SearchInfo>> reports = new LinkedBlockingQueue<>();
+        engine.analyse(game.getBoard(), 3, reports::add);
+
+        List<SearchInfo> lines;
+        do {
+            lines = reports.poll(5, TimeUnit.SECONDS);
+            assertNotNull(lines, "A análise deveria ir reportando as linhas.");
+        } while (lines.get(0).depth() < 4);
+        engine.stop();
+
+        assertEquals(3, lines.size(), "Deveria reportar as três melhores linhas.");
+        assertEquals(3, lines.stream().mapToInt(SearchInfo::bestMove).distinct().count(), "Cada linha deveria começar por outra jogada.");
+        for (SearchInfo line : lines) {
+            assertTrue(isLegal(line.bestMove()), "Cada linha deveria começar por uma jogada legal: " + line);
+            assertEquals(lines.get(0).depth(), line.depth(), "Todas as linhas deveriam vir da mesma iteração.");
+        }
+        assertThrows(IllegalArgumentException.class, () -> engine.analyse(game.getBoard(), 0, null), "0 linhas não deveria ser aceite.");
+    }
+
+    @Test
+    void testHardDeadlineIsRespected() {
+        SearchLimits limits = TimeManager.limits(2_000, 0);
+        assertTrue(limits.timeMillis() <= limits.hardTimeMillis(), "O limite suave não deveria passar o rígido: " + limits);
+        assertTrue(limits.hardTimeMillis() <= 500, "Não deveria gastar mais de um quarto do tempo restante: " + limits);
+
+        long start = System.nanoTime();
+        SearchInfo info = engine.search(game.getBoard(), new SearchLimits(0, 10_000, 100), null);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(isLegal(info.bestMove()), "Deveria devolver uma jogada legal.");
+        assertTrue(elapsed < 2 * 100, "A pesquisa deveria parar no limite rígido, não no suave: " + elapsed + " ms");
+    }
+
+    @Test
+    void testNoMovesWhenMated() {
+        game.importGame("BLACK,kh8,Qg7,Kg6");
+
+        SearchInfo info = engine.search(game.getBoard(), SearchLimits.depth(3), null);
+
+        assertEquals(Move.NONE, info.bestMove(), "Não deveria haver jogada quando se está em mate.");
+        assertEquals(-SearchInfo.MATE, info.score(), "Deveria ser avaliado como mate.");
+    }
+
+    @Test
+    void testSmpSearchAgreesOnMate() {
+        engine.setThreads(4);
+        game.importGame("WHITE,kh8,Qa7,Kg6");
+
+        SearchInfo info = engine.search(game.getBoard(), SearchLimits.depth(5), null);
+
+        assertTrue(info.isMate(), "Com várias threads deveria encontrar o mesmo mate: " + info);
+        assertEquals(1, info.mateIn(), "Deveria ser mate em 1.");
+    }
+
+    @Test
+    void testSmpSearchCountsAllThreads() throws Exception {
+        engine.setThreads(4);
+
+        SearchInfo result = engine.start(game.getBoard(), SearchLimits.time(300), null, null).get(5, TimeUnit.SECONDS);
+
+        assertTrue(isLegal(result.bestMove()), "A melhor jogada deveria ser legal: " + result);
+        assertTrue(result.depth() >= 1, "Deveria completar pelo menos uma iteração: " + result);
+        assertFalse(engine.isSearching(), "As threads auxiliares deveriam parar com a principal.");
+        assertThrows(IllegalArgumentException.class, () -> engine.setThreads(0), "Zero threads não deveria ser aceite.");
+    }
+}
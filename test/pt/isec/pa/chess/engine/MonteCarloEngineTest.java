@@ -0,0 +1,78 @@
+package pt.isec.pa.chess.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.model.ChessGame;
+import pt.isec.pa.chess.model.data.Move;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloEngineTest {
+
+    private MonteCarloEngine engine;
+    private ChessGame game;
+
+    @BeforeEach
+    void setUp() {
+        engine = new MonteCarloEngine();
+        game = new ChessGame();
+        game.setPlayerNames("Branco", "Preto");
+        game.startNewGame();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void testWinsHangingQueen() {
+        game.importFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        long key = game.getPositionKey();
+
+        SearchInfo info = engine.search(game.getBoard(), SearchLimits.time(300), null);
+
+        assertEquals(key, game.getPositionKey(), "A pesquisa não deveria alterar o tabuleiro do jogo.");
+        assertEquals("d1d5", Move.toString(info.bestMove()), "A torre deveria capturar a dama: " + info);
+        assertTrue(info.score() > 300, "As Brancas deveriam ficar com vantagem: " + info);
+    }
+
+    @Test
+    void testFindsMateInOne() {
+        game.importGame("WHITE,kh8,Qa7,Kg6");
+
+        SearchInfo info = engine.search(game.getBoard(), SearchLimits.time(300), null);
+
+        int move = info.bestMove();
+        ChessGame.MoveResult result = game.move(Move.squareName(Move.from(move)), Move.squareName(Move.to(move)));
+        assertEquals(ChessGame.MoveResult.CHECKMATEc, result, "A jogada escolhida deveria dar mate: " + Move.toString(move));
+    }
+
+    @Test
+    void testStatsAreReported() {
+        engine.setThreads(2);
+
+        engine.search(game.getBoard(), SearchLimits.time(200), null);
+        MonteCarloStats stats = engine.getStats();
+
+        assertTrue(stats.playouts() > 0, "Deveria contar as simulações: " + stats);
+        assertTrue(stats.playoutsPerSecond() > 0, "Deveria calcular as simulações por segundo: " + stats);
+        assertTrue(stats.nodes() > 1 && stats.nodes() <= stats.capacity(), "A árvore deveria ter crescido: " + stats);
+        assertEquals(MonteCarloEngine.DEFAULT_MEMORY_MB * 1024L * 1024 / stats.bytesPerNode(), stats.capacity(),
+                "A capacidade deveria vir do orçamento de memória.");
+    }
+
+    @Test
+    void testMemoryBudgetIsRespected() {
+        engine.setMemory(1);
+
+        SearchInfo info = engine.search(game.getBoard(), SearchLimits.time(1500), null);
+        MonteCarloStats stats = engine.getStats();
+
+        assertTrue(stats.memoryBytes() <= 1024 * 1024, "A árvore não deveria passar de 1 MB: " + stats);
+        assertTrue(stats.nodes() <= stats.capacity(), "Os nós não deveriam passar da capacidade: " + stats);
+        assertNotEquals(Move.NONE, info.bestMove(), "Deveria continuar a escolher uma jogada com a árvore cheia.");
+        assertThrows(IllegalArgumentException.class, () -> engine.setMemory(0), "Deveria recusar um orçamento nulo.");
+    }
+}
@@ -0,0 +1,66 @@
+package pt.isec.pa.chess.engine;
+
+import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.model.ChessGame;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveOrderingTest {
+
+    private static Board boardOf(String fen) {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("Branco", "Preto");
+        game.importFen(fen);
+        return game.getBoard();
+    }
+
+    private static MoveList ordered(MoveOrdering ordering, Board board, int ply, int previousMove) {
+        MoveList moves = new MoveList();
+        int n = MoveGenerator.generate(board, board.isWhiteToMove(), moves);
+        ordering.order(moves, n, ply, Move.NONE, Move.NONE, previousMove, new int[n]);
+        return moves;
+    }
+
+    private static int indexOf(MoveList moves, String move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (Move.toString(moves.get(i)).equals(move))
+                return i;
+        }
+        return -1;
+    }
+
+    @Test
+    void testCapturesByVictimThenAttacker() {
+        // O peão e a dama podem tomar a torre em d5; a dama pode tomar o peão h5, defendido pelo peão g6
+        Board board = boardOf("6k1/8/6p1/3r3p/4P3/8/8/3Q2K1 w - - 0 1");
+        MoveList moves = ordered(new MoveOrdering(board, 8), board, 0, Move.NONE);
+
+        assertEquals("e4d5", Move.toString(moves.get(0)), "O peão deveria tomar a torre primeiro.");
+        assertEquals("d1d5", Move.toString(moves.get(1)), "Depois a dama deveria tomar a torre.");
+        assertEquals(moves.size() - 1, indexOf(moves, "d1h5"), "Uma captura que perde material deveria ficar para o fim.");
+    }
+
+    @Test
+    void testKillerAndCountermoveBeforeOtherQuietMoves() {
+        Board board = boardOf("4k3/8/8/8/8/8/8/R3K2R w - - 0 1");
+        MoveOrdering ordering = new MoveOrdering(board, 8);
+        int killer = Move.of(56, 48);  // Ra1-a2
+        int counter = Move.of(63, 55); // Rh1-h2
+        int previous = Move.of(3, 4);  // Kd8-e8, a jogada das pretas que levou à posição
+
+        ordering.cutoff(killer, 3, 2, 4, Move.NONE);
+        ordering.cutoff(counter, 5, 1, 4, previous);
+
+        MoveList moves = ordered(ordering, board, 2, previous);
+        assertEquals(killer, moves.get(0), "O killer da profundidade deveria vir primeiro.");
+        assertEquals(counter, moves.get(1), "A resposta à jogada anterior deveria vir a seguir.");
+
+        OrderingStats stats = new OrderingStats(ordering.cutoffs(), ordering.firstMoveCutoffs());
+        assertEquals(2, stats.cutoffs(), "Deveria contar os cortes.");
+        assertEquals(0L, stats.firstMoveCutoffs(), "Nenhum corte foi na primeira jogada.");
+    }
+}
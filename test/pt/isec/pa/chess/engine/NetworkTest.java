@@ -0,0 +1,145 @@
+package pt.isec.pa.chess.engine;
+
+import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.model.ChessGame;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetworkTest {
+
+    private static final Network NETWORK = Network.random(32, 8, 6);
+
+    private static Board board(String fen) {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("Branco", "Preto");
+        game.startNewGame();
+        game.importFen(fen);
+        return game.getBoard().clone();
+    }
+
+    @Test
+    void testAccumulatorFollowsMoves() {
+        Board board = board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        NetworkAccumulator accumulator = new NetworkAccumulator(NETWORK, board, new ScalarKernel());
+        accumulator.evaluate(true);
+        SplittableRandom random = new SplittableRandom(1);
+        MoveList moves = new MoveList();
+
+        for (int game = 0; game < 20; game++) {
+            int played = 0;
+            for (; played < 12; played++) {
+                int n = MoveGenerator.generate(board, board.isWhiteToMove(), moves);
+                if (n == 0)
+                    break;
+                board.makeMove(moves.get(random.nextInt(n)));
+                assertTrue(accumulator.isConsistent(), "O acumulador deveria acompanhar as jogadas.");
+                Board copy = board.clone();
+                assertEquals(new NetworkAccumulator(NETWORK, copy, new ScalarKernel()).evaluate(copy.isWhiteToMove()),
+                        accumulator.evaluate(board.isWhiteToMove()), "A avaliação incremental deveria ser igual à calculada de raiz.");
+            }
+            for (int i = 0; i < played; i++)
+                board.unmakeMove();
+            assertTrue(accumulator.isConsistent(), "O acumulador deveria voltar ao início ao desfazer as jogadas.");
+        }
+    }
+
+    @Test
+    void testOnlyKingMovesRefresh() {
+        Board board = board("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+        NetworkAccumulator accumulator = new NetworkAccumulator(NETWORK, board, new ScalarKernel());
+        accumulator.evaluate(true);
+        long refreshes = accumulator.refreshes();
+
+        board.makeMove(Move.of(59, 27, null, Move.CAPTURE)); // d1xd5
+        accumulator.evaluate(false);
+        assertEquals(refreshes, accumulator.refreshes(), "Uma jogada da torre não deveria reconstruir os acumuladores.");
+
+        board.makeMove(Move.of(4, 12, null, 0)); // e8-e7
+        accumulator.evaluate(true);
+        assertEquals(refreshes + 1, accumulator.refreshes(), "Uma jogada do rei deveria reconstruir só o acumulador do seu lado.");
+    }
+
+    @Test
+    void testKernelsAgree() {
+        NetworkKernel best = NetworkKernel.best();
+        NetworkKernel scalar = new ScalarKernel();
+        SplittableRandom random = new SplittableRandom(2);
+        for (int length : new int[]{1, 15, 64, 100, 257}) {
+            short[] a = new short[length], b = new short[length + 3];
+            for (int i = 0; i < length; i++)
+                a[i] = (short) random.nextInt(Short.MIN_VALUE, Short.MAX_VALUE + 1);
+            for (int i = 0; i < b.length; i++)
+                b[i] = (short) random.nextInt(Short.MIN_VALUE, Short.MAX_VALUE + 1);
+
+            short[] x = a.clone(), y = a.clone();
+            scalar.add(x, b, 2);
+            best.add(y, b, 2);
+            scalar.subtract(x, b, 1);
+            best.subtract(y, b, 1);
+            assertArrayEquals(x, y, "A soma e a subtração deveriam ser iguais: " + best);
+            int[] s = new int[length + 1], t = new int[length + 1];
+            scalar.clippedRelu(x, s, 1, (short) 127);
+            best.clippedRelu(y, t, 1, (short) 127);
+            assertArrayEquals(s, t, "O ReLU limitado deveria ser igual: " + best);
+
+            int[] weights = random.ints(length + 3, -128, 128).toArray();
+            assertEquals(scalar.dot(s, 1, weights, 3, length), best.dot(t, 1, weights, 3, length), "O produto interno deveria ser igual: " + best);
+            int[] matrix = random.ints(length * 40, -128, 128).toArray();
+            int[] u = new int[length + 1 + 40], v = new int[length + 1 + 40];
+            System.arraycopy(s, 0, u, 0, s.length);
+            System.arraycopy(t, 0, v, 0, t.length);
+            int[] active = IntStream.range(0, length).filter(i -> s[i + 1] != 0).toArray();
+            scalar.affine(u, 1, active, active.length, matrix, length + 1, 40);
+            best.affine(v, 1, active, active.length, matrix, length + 1, 40);
+            assertArrayEquals(u, v, "O produto matriz-vetor deveria ser igual: " + best);
+        }
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        Path file = Files.createTempFile("chess", ".nnue");
+        try {
+            NETWORK.save(file);
+            Network loaded = Network.load(file);
+
+            Board board = board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+            assertEquals(NETWORK.getHiddenSize(), loaded.getHiddenSize(), "O tamanho da camada deveria ser preservado.");
+            assertEquals(new NetworkAccumulator(NETWORK, board.clone(), new ScalarKernel()).evaluate(true),
+                    new NetworkAccumulator(loaded, board.clone(), new ScalarKernel()).evaluate(true),
+                    "A rede lida deveria avaliar como a original.");
+
+            Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+            assertThrows(IOException.class, () -> Network.load(file), "Deveria recusar um ficheiro que não é uma rede.");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testEngineSearchesWithNetwork() {
+        Engine engine = new Engine();
+        try {
+            engine.setNetwork(NETWORK);
+            ChessGame game = new ChessGame();
+            game.setPlayerNames("Branco", "Preto");
+            game.startNewGame();
+            game.importGame("WHITE,kh8,Qa7,Kg6");
+
+            SearchInfo info = engine.search(game.getBoard(), SearchLimits.depth(4), null);
+
+            assertEquals(1, info.mateIn(), "Com a rede, deveria encontrar na mesma o mate em 1: " + info);
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package pt.isec.pa.chess.engine;
+
+import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.model.ChessGame;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PawnTableTest {
+
+    private static Board board(String fen) {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("Branco", "Preto");
+        game.startNewGame();
+        game.importFen(fen);
+        return game.getBoard().clone();
+    }
+
+    @Test
+    void testPawnTerms() {
+        PawnTable table = new PawnTable(64);
+
+        int symmetric = table.probe(board("4k3/pppp1ppp/8/8/8/8/PPPP1PPP/4K3 w - - 0 1"));
+        assertEquals(0, table.midgame(symmetric), "Estruturas simétricas deveriam valer o mesmo.");
+        assertEquals(0L, table.passed(symmetric), "Não deveria haver peões passados.");
+
+        int doubled = table.probe(board("4k3/p1pp1ppp/8/8/8/2P5/P1PP1PPP/4K3 w - - 0 1"));
+        assertTrue(table.endgame(doubled) < 0, "Peões dobrados deveriam ser penalizados: " + table.endgame(doubled));
+
+        int isolated = table.probe(board("4k3/ppp3pp/8/8/8/8/P1P3PP/4K3 w - - 0 1"));
+        assertTrue(table.endgame(isolated) < 0, "Um peão isolado deveria ser penalizado: " + table.endgame(isolated));
+
+        Board passer = board("4k3/8/8/3P4/8/8/6p1/4K3 w - - 0 1");
+        int passed = table.probe(passer);
+        assertEquals(1L << 27 | 1L << 54, table.passed(passed), "d5 e g2 deveriam ser peões passados.");
+        assertTrue(table.endgame(passed) < 0, "O passado na penúltima fila deveria valer mais do que o de d5.");
+    }
+
+    @Test
+    void testCachedByPawnKey() {
+        PawnTable table = new PawnTable(64);
+        Board board = board("4k3/pp3ppp/2p5/3p4/3P4/2P5/PP3PPP/4K1N1 w - - 0 1");
+        int slot = table.probe(board);
+        int midgame = table.midgame(slot), endgame = table.endgame(slot);
+        assertEquals(1, table.misses(), "A primeira consulta deveria calcular a estrutura.");
+
+        board.makeMove(Move.of(62, 45)); // Ng1-f3
+        board.makeMove(Move.of(4, 3));   // Ke8-d8
+        slot = table.probe(board);
+        assertEquals(1, table.hits(), "Jogadas sem peões deveriam encontrar a estrutura guardada.");
+        assertEquals(midgame, table.midgame(slot), "A entrada guardada deveria manter a pontuação.");
+        assertEquals(endgame, table.endgame(slot), "A entrada guardada deveria manter a pontuação.");
+
+        board.makeMove(Move.of(54, 38)); // g2-g4
+        table.probe(board);
+        assertEquals(2, table.misses(), "Uma jogada de peão deveria obrigar a calcular a estrutura.");
+    }
+
+    @Test
+    void testEngineReportsPawnHash() {
+        Engine engine = new Engine();
+        try {
+            engine.search(board("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3"),
+                    SearchLimits.depth(5), null);
+            PawnHashStats stats = engine.getPawnHashStats();
+
+            assertEquals(1, stats.tables(), "Deveria haver uma tabela por thread.");
+            assertEquals(PawnTable.DEFAULT_ENTRIES, stats.entries(), "O tamanho da tabela deveria ser reportado.");
+            assertTrue(stats.hitRate() > 0.8, "A maior parte das avaliações deveria reutilizar a estrutura: " + stats);
+
+            engine.clearHash();
+            assertEquals(PawnHashStats.NONE, engine.getPawnHashStats(), "Limpar deveria repor os contadores.");
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
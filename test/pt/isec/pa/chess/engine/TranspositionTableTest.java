@@ -0,0 +1,84 @@
+package pt.isec.pa.chess.engine;
+
+import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.model.ChessGame;
+import pt.isec.pa.chess.model.data.Move;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    private static final long KEY = 0x1234_5678_9ABC_DEF0L;
+
+    @Test
+    void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        int move = Move.of(12, 28, null, Move.CAPTURE);
+
+        table.store(KEY, move, -1234, 7, TranspositionTable.LOWER);
+        long entry = table.probe(KEY);
+
+        assertNotEquals(0L, entry, "A posição guardada deveria ser encontrada.");
+        assertEquals(move, TranspositionTable.move(entry), "A jogada deveria ser preservada.");
+        assertEquals(-1234, TranspositionTable.score(entry), "A pontuação negativa deveria ser preservada.");
+        assertEquals(7, TranspositionTable.depth(entry), "A profundidade deveria ser preservada.");
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry), "O tipo de limite deveria ser preservado.");
+        assertEquals(0L, table.probe(KEY ^ 1L << 40), "Outra posição no mesmo índice não deveria ser encontrada.");
+    }
+
+    @Test
+    void testSizeIsPowerOfTwo() {
+        assertEquals(1 << 16, new TranspositionTable(1).capacity(), "1 MB deveria dar 2^16 entradas de 16 bytes.");
+        assertEquals(1 << 17, new TranspositionTable(3).capacity(), "3 MB deveria arredondar para baixo, para 2^17 entradas.");
+    }
+
+    @Test
+    void testDeeperEntryIsKeptWithinASearch() {
+        TranspositionTable table = new TranspositionTable(1);
+        long other = KEY + table.capacity(); // same slot, another position
+
+        table.store(KEY, Move.NONE, 10, 8, TranspositionTable.LOWER);
+        assertFalse(table.store(other, Move.NONE, 20, 2, TranspositionTable.UPPER), "Não deveria substituir uma entrada mais profunda.");
+        assertNotEquals(0L, table.probe(KEY), "A entrada mais profunda deveria continuar na tabela.");
+
+        table.newSearch();
+        assertTrue(table.store(other, Move.NONE, 20, 2, TranspositionTable.UPPER), "Entradas de pesquisas anteriores deveriam ser substituídas.");
+        assertEquals(0L, table.probe(KEY), "A entrada antiga deveria ter sido substituída.");
+        assertNotEquals(0L, table.probe(other), "A nova entrada deveria estar na tabela.");
+    }
+
+    @Test
+    void testMateScoresAreRelativeToTheNode() {
+        int mateFromRoot = SearchInfo.MATE - 9; // mate found 5 plies below a node at ply 4
+
+        int stored = TranspositionTable.toTable(mateFromRoot, 4);
+
+        assertEquals(SearchInfo.MATE - 5, stored, "Na tabela, o mate deveria contar a partir do nó.");
+        assertEquals(SearchInfo.MATE - 7, TranspositionTable.fromTable(stored, 2), "Noutra profundidade, a distância ao mate deveria ser ajustada.");
+        assertEquals(55, TranspositionTable.fromTable(TranspositionTable.toTable(55, 9), 3), "Pontuações normais não deveriam mudar.");
+    }
+
+    @Test
+    void testSearchReusesEntries() {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("Branco", "Preto");
+        game.startNewGame();
+        Engine engine = new Engine();
+        engine.setHashSize(2);
+
+        SearchInfo first = engine.search(game.getBoard(), SearchLimits.depth(5), null);
+        HashStats stats = engine.getHashStats();
+        SearchInfo second = engine.search(game.getBoard(), SearchLimits.depth(5), null);
+
+        assertTrue(stats.hits() > 0 && stats.misses() > 0, "Deveria contar acertos e falhas: " + stats);
+        assertTrue(stats.permilleFull() > 0, "A tabela deveria ter entradas: " + stats);
+        assertEquals(2, stats.megabytes(), "A tabela deveria ter o tamanho pedido.");
+        assertTrue(second.nodes() * 2 < first.nodes(), "A segunda pesquisa deveria reutilizar a primeira: "
+                + first.nodes() + " vs " + second.nodes());
+
+        engine.clearHash();
+        assertEquals(0, engine.getHashStats().hits(), "Limpar a tabela deveria repor os contadores.");
+        assertThrows(IllegalArgumentException.class, () -> engine.setHashSize(0), "0 MB não deveria ser aceite.");
+        engine.shutdown();
+    }
+}
@@ -2,6 +2,17 @@ package pt.isec.pa.chess.model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.engine.SearchLimits;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveList;
+import pt.isec.pa.chess.model.data.Spot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,4 +75,201 @@ class ChessGameManagerTest {
         assertFalse(gameManager.canUndo(), "Após Undo de M1: Não deveria haver mais nada para desfazer.");
         assertTrue(gameManager.canRedo(), "Após Undo de M1: Deveria ser possível fazer redo (para M1 e depois M2).");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUndoSpecialMoves() {
+        gameManager.startNewGame("JogadorBranco", "JogadorPreto");
+        gameManager.move("e2", "e4");
+        gameManager.move("a7", "a6");
+        gameManager.move("e4", "e5");
+        gameManager.move("d7", "d5");
+
+        // En passant: o peão tomado volta para o lado da origem
+        String beforeEnPassant = gameManager.queryBoard();
+        assertEquals(ChessGame.MoveResult.EN_PASSANT, gameManager.move("e5", "d6"), "exd6 deveria ser en passant.");
+        String afterEnPassant = gameManager.queryBoard();
+        assertTrue(gameManager.undo(), "Deveria desfazer o en passant.");
+        assertEquals(beforeEnPassant, gameManager.queryBoard(), "Após Undo: O peão de d5 deveria voltar.");
+        assertTrue(gameManager.redo(), "Deveria refazer o en passant.");
+        assertEquals(afterEnPassant, gameManager.queryBoard(), "Após Redo: O tabuleiro deveria ser o mesmo.");
+
+        gameManager.move("a6", "a5");
+        gameManager.move("g1", "f3");
+        gameManager.move("a5", "a4");
+        gameManager.move("f1", "c4");
+        gameManager.move("b7", "b6");
+
+        // Roque: o rei e a torre voltam às casas iniciais e o roque volta a ser legal
+        String beforeCastling = gameManager.queryBoard();
+        assertEquals(ChessGame.MoveResult.CASTLING, gameManager.move("e1", "g1"), "O-O deveria ser roque.");
+        String afterCastling = gameManager.queryBoard();
+        assertTrue(gameManager.undo(), "Deveria desfazer o roque.");
+        assertEquals(beforeCastling, gameManager.queryBoard(), "Após Undo: O rei e a torre deveriam voltar.");
+        assertTrue(gameManager.hasMove(new Spot(7, 4), 7, 6), "Após Undo: O roque deveria voltar a ser legal.");
+        assertTrue(gameManager.redo(), "Deveria refazer o roque.");
+        assertEquals(afterCastling, gameManager.queryBoard(), "Após Redo: O tabuleiro deveria ser o mesmo.");
+    }
+
+    @Test
+    void testUndoCheckmate() {
+        gameManager.startNewGame("JogadorBranco", "JogadorPreto");
+        gameManager.move("f2", "f3");
+        gameManager.move("e7", "e5");
+        gameManager.move("g2", "g4");
+        String beforeMate = gameManager.queryBoard();
+
+        ChessGame.MoveResult mate = gameManager.move("d8", "h4");
+        assertEquals(ChessGame.GameState.CHECKMATEc, gameManager.getGameState(), "Dh4 deveria ser mate.");
+
+        // O mate não passa a vez: desfazê-lo tem de devolver a vez às Pretas
+        assertTrue(gameManager.undo(), "Deveria desfazer o mate.");
+        assertEquals(beforeMate, gameManager.queryBoard(), "Após Undo: O tabuleiro deveria voltar a antes do mate.");
+        assertEquals("Black", gameManager.getCurrentPlayer(), "Após Undo: Deveria ser a vez das Pretas.");
+        assertEquals(ChessGame.GameState.RUNNING, gameManager.getGameState(), "Após Undo: O jogo deveria continuar.");
+
+        assertEquals(mate, gameManager.move("d8", "h4"), "Dh4 deveria voltar a dar mate.");
+        assertEquals(ChessGame.GameState.CHECKMATEc, gameManager.getGameState(), "O jogo deveria acabar de novo.");
+        assertTrue(gameManager.undo(), "Deveria desfazer o mate outra vez.");
+        assertTrue(gameManager.redo(), "Deveria refazer o mate.");
+        assertEquals(ChessGame.GameState.CHECKMATEc, gameManager.getGameState(), "Após Redo: O jogo deveria estar acabado.");
+    }
+
+    @Test
+    void testLegalMovesCache() {
+        gameManager.startNewGame("JogadorBranco", "JogadorPreto");
+
+        // A mesma posição deveria ser servida pela cache
+        MoveList first = gameManager.getLegalMoves();
+        assertEquals(20, first.size(), "T0: As Brancas deveriam ter 20 jogadas.");
+        assertSame(first, gameManager.getLegalMoves(), "T0: A segunda consulta deveria vir da cache.");
+        assertTrue(gameManager.hasMove(new Spot(6, 4), 4, 4), "T0: e2-e4 deveria ser legal.");
+
+        gameManager.move("e2", "e4");
+        gameManager.move("e7", "e5");
+        assertEquals(29, gameManager.getLegalMoves().size(), "T2: As Brancas deveriam ter 29 jogadas após e4 e5.");
+
+        // Undo/redo alteram o tabuleiro fora do ChessGame; a cache tem de acompanhar
+        gameManager.undo();
+        assertEquals("Black", gameManager.getCurrentPlayer(), "Após Undo: Deveria ser a vez das Pretas.");
+        assertEquals(20, gameManager.getLegalMoves().size(), "Após Undo: As Pretas deveriam ter 20 jogadas.");
+        assertTrue(gameManager.hasMoves(1, 4), "Após Undo: O peão de e7 deveria poder mover-se.");
+
+        gameManager.redo();
+        assertEquals(29, gameManager.getLegalMoves().size(), "Após Redo: As Brancas deveriam voltar a ter 29 jogadas.");
+        assertTrue(gameManager.getLegalMoves().contains(Move.of(Board.square(7, 4), Board.square(6, 4))), "Após Redo: Ke1-e2 deveria ser legal.");
+    }
+
+    @Test
+    void testPlayVsEngine() throws Exception {
+        // Os eventos do motor são entregues numa fila, como se fosse a thread da interface
+        BlockingQueue<Runnable> uiThread = new LinkedBlockingQueue<>();
+        gameManager.setEventExecutor(uiThread::add);
+        gameManager.setEngineLimits(SearchLimits.depth(2));
+        List<Object> infos = new ArrayList<>();
+        gameManager.addPropertyChangeListener(ChessGameManager.PROP_ENGINE_INFO, evt -> infos.add(evt.getNewValue()));
+
+        gameManager.startNewGame("JogadorBranco", "Motor");
+        gameManager.playVsEngine(false);
+        assertFalse(gameManager.isEngineTurn(), "T0: Deveria ser a vez do jogador.");
+
+        assertEquals(ChessGame.MoveResult.VALID_MOVE, gameManager.move("e2", "e4"), "T1: e2-e4 deveria ser válido.");
+        assertTrue(gameManager.isEngineTurn(), "T1: Deveria ser a vez do motor.");
+        assertEquals(ChessGame.MoveResult.INVALID_ORIGIN, gameManager.move("e7", "e5"), "T1: Não se deveria jogar pelo motor.");
+
+        // Act: Executar os eventos do motor até ele jogar
+        while (gameManager.isEngineTurn()) {
+            Runnable event = uiThread.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "O motor deveria responder a tempo.");
+            event.run();
+        }
+
+        // Assert
+        assertEquals("White", gameManager.getCurrentPlayer(), "T2: Deveria ser outra vez a vez das Brancas.");
+        assertEquals(2, infos.size(), "T2: Deveria ter recebido uma informação por iteração.");
+        assertTrue(gameManager.canUndo(), "T2: A jogada do motor deveria poder ser desfeita.");
+
+        // Undo contra o motor desfaz a jogada do motor e a do jogador
+        assertTrue(gameManager.undo(), "Undo deveria ser bem-sucedido.");
+        assertEquals("White", gameManager.getCurrentPlayer(), "Após Undo: Deveria ser a vez das Brancas.");
+        assertFalse(gameManager.canUndo(), "Após Undo: Não deveria haver mais nada para desfazer.");
+        gameManager.playVsHuman();
+    }
+
+    @Test
+    void testAnalysisFollowsThePosition() throws Exception {
+        BlockingQueue<Runnable> uiThread = new LinkedBlockingQueue<>();
+        gameManager.setEventExecutor(uiThread::add);
+        List<List<?>> reports = new ArrayList<>();
+        gameManager.addPropertyChangeListener(ChessGameManager.PROP_ANALYSIS, evt -> reports.add((List<?>) evt.getNewValue()));
+        gameManager.startNewGame("JogadorBranco", "JogadorPreto");
+
+        gameManager.setAnalysisMode(true);
+        assertTrue(gameManager.isEngineThinking(), "A análise deveria começar logo.");
+        long start = System.nanoTime();
+        Thread.sleep(600);
+        while (!uiThread.isEmpty())
+            uiThread.poll().run();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+
+        assertFalse(reports.isEmpty(), "Deveria ter recebido linhas da análise.");
+        assertTrue(reports.size() <= 2 + elapsed / ChessGameManager.ANALYSIS_REFRESH_MILLIS,
+                "As atualizações deveriam ser agrupadas: " + reports.size() + " em " + elapsed + " ms");
+        assertEquals(ChessGameManager.DEFAULT_ANALYSIS_LINES, reports.get(reports.size() - 1).size(), "Deveria mostrar as melhores linhas.");
+
+        // Uma jogada recomeça a análise na nova posição
+        assertEquals(ChessGame.MoveResult.VALID_MOVE, gameManager.move("e2", "e4"), "e2-e4 deveria ser válido.");
+        assertTrue(gameManager.isEngineThinking() && !gameManager.isEngineTurn(), "A análise deveria continuar depois da jogada.");
+        assertTrue(gameManager.undo(), "Undo deveria ser bem-sucedido.");
+        assertTrue(gameManager.isEngineThinking(), "A análise deveria continuar depois do undo.");
+
+        gameManager.setAnalysisMode(false);
+        assertFalse(gameManager.isAnalysisMode(), "A análise deveria estar desligada.");
+        Thread.sleep(50);
+        assertFalse(gameManager.isEngineThinking(), "O motor deveria parar com a análise.");
+    }
+
+    // Executa os eventos do motor até ser a vez do jogador
+    private void runEngineEvents(BlockingQueue<Runnable> uiThread) throws InterruptedException {
+        while (gameManager.isEngineTurn()) {
+            Runnable event = uiThread.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "O motor deveria responder a tempo.");
+            event.run();
+        }
+    }
+
+    @Test
+    void testPondering() throws Exception {
+        BlockingQueue<Runnable> uiThread = new LinkedBlockingQueue<>();
+        gameManager.setEventExecutor(uiThread::add);
+        gameManager.setEngineLimits(SearchLimits.depth(3));
+        gameManager.startNewGame("JogadorBranco", "Motor");
+        gameManager.playVsEngine(false);
+
+        gameManager.move("e2", "e4");
+        runEngineEvents(uiThread);
+        int expected = gameManager.getEnginePonderMove();
+        assertTrue(gameManager.isEnginePondering(), "O motor deveria pensar no tempo do jogador.");
+        assertTrue(gameManager.getLegalMoves().contains(expected), "A jogada esperada deveria ser legal.");
+
+        // Acerto: o motor continua a pesquisa que já tinha começado
+        gameManager.move(Move.squareName(Move.from(expected)), Move.squareName(Move.to(expected)));
+        assertFalse(gameManager.isEnginePondering(), "Depois da jogada esperada já não deveria ponderar.");
+        String lastLog = ModelLog.getInstance().getList().get(0); // o mais recente primeiro
+        assertTrue(lastLog.endsWith("Engine: ponder hit"), "A pesquisa deveria ser reutilizada: " + lastLog);
+        runEngineEvents(uiThread);
+        assertEquals("White", gameManager.getCurrentPlayer(), "O motor deveria ter respondido.");
+
+        // Falha: outra jogada cancela a ponderação e o motor pesquisa de novo
+        int other = Move.NONE;
+        for (int i = 0; i < gameManager.getLegalMoves().size() && other == Move.NONE; i++) {
+            int move = gameManager.getLegalMoves().get(i);
+            if (move != gameManager.getEnginePonderMove() && !Move.isPromotion(move))
+                other = move;
+        }
+        gameManager.move(Move.squareName(Move.from(other)), Move.squareName(Move.to(other)));
+        assertTrue(gameManager.isEngineTurn() && gameManager.isEngineThinking(), "O motor deveria pensar na jogada feita.");
+        runEngineEvents(uiThread);
+        assertEquals("White", gameManager.getCurrentPlayer(), "O motor deveria ter respondido à jogada inesperada.");
+        gameManager.playVsHuman();
+    }
+}
@@ -2,6 +2,7 @@ package pt.isec.pa.chess.model; // Certifique-se que este é o mesmo pacote de C
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.model.data.Spot;
 import static org.junit.jupiter.api.Assertions.*;
 
 class ChessGameTest {
@@ -31,6 +32,18 @@ class ChessGameTest {
                 "O GameState deveria ser CHECKMATEc (Brancas vencem) após importar esta posição de xeque-mate.");
     }
 
+    @Test
+    void testLossOnTime() throws InterruptedException {
+        game.setTimeControl(1, 0);
+        game.startNewGame();
+        Thread.sleep(5);
+
+        assertTrue(game.checkTime(), "As Brancas deveriam perder por tempo.");
+        assertEquals(ChessGame.GameState.TIMEOUT, game.getGameState(), "O jogo deveria terminar por tempo.");
+        assertFalse(game.getClock().isRunning(), "O relógio deveria parar no fim do jogo.");
+        assertFalse(game.checkTime(), "Um jogo terminado não deveria voltar a perder por tempo.");
+    }
+
     @Test
     void testStalemate() {
         // Arrange: Configura o estado inicial do teste para um empate (stalemate)
@@ -151,8 +164,47 @@ class ChessGameTest {
         assertEquals("Black", game.getCurrentPlayer(), "Deveria ser a vez das Pretas após a promoção.");
     }
 
+    @Test
+    void testMoveOutcome() {
+        // Arrange: Dama branca pode dar mate em g7, protegida pelo rei
+        game.importGame("WHITE,kh8,Qa7,Kg6");
+
+        // Act
+        ChessGame.MoveResult result = game.move("a7", "g7");
+
+        // Assert: O resultado da jogada descreve o mate numa só passagem
+        assertEquals(ChessGame.MoveResult.CHECKMATEc, result, "Qa7-g7 deveria dar xeque-mate.");
+        ChessGame.MoveOutcome outcome = game.getLastOutcome();
+        assertTrue(outcome.check(), "O rei preto deveria estar em xeque.");
+        assertTrue(outcome.checkmate(), "Deveria ser xeque-mate.");
+        assertFalse(outcome.stalemate(), "Não deveria ser stalemate.");
+        assertEquals(ChessGame.GameState.CHECKMATEc, game.getGameState(), "As Brancas deveriam ganhar.");
+        assertFalse(game.hasMoves(0, 7), "O rei preto não deveria ter jogadas.");
+    }
 
-}
-
+    @Test
+    void testInvalidMoveKeepsTurn() {
+        game.resetGame();
 
+        assertEquals(ChessGame.MoveResult.INVALID_MOVE, game.move("e2", "e5"), "e2-e5 não deveria ser válido.");
+        assertEquals(ChessGame.MoveResult.INVALID_ORIGIN, game.move("e7", "e5"), "As Pretas não deveriam jogar primeiro.");
+        assertEquals(ChessGame.MoveResult.INVALID_ORIGIN, game.move("e4", "e5"), "Casa de origem vazia deveria ser rejeitada.");
+        assertEquals("White", game.getCurrentPlayer(), "Jogadas rejeitadas não deveriam passar a vez.");
+        assertTrue(game.hasMove(new Spot(6, 4), 4, 4), "e2-e4 deveria continuar legal.");
+    }
 
+    @Test
+    void testPromotionCheckmate() {
+        // Arrange: A promoção em a8 dá mate, mas só depois de escolhida a peça
+        game.importGame("WHITE,kh8,Pa7,Kg6");
+        assertEquals(ChessGame.MoveResult.PROMOTION, game.move("a7", "a8"), "a7-a8 deveria resultar em PROMOTION.");
+        assertEquals(ChessGame.GameState.RUNNING, game.getGameState(), "O jogo deveria continuar antes da promoção.");
+
+        // Act
+        game.promotePawn("QUEEN");
+
+        // Assert
+        assertTrue(game.getLastOutcome().checkmate(), "A dama promovida deveria dar xeque-mate.");
+        assertEquals(ChessGame.GameState.CHECKMATEe, game.getGameState(), "As Brancas (adversário do jogador atual) deveriam ganhar.");
+    }
+}
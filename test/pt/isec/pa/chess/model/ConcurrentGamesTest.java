@@ -0,0 +1,83 @@
+package pt.isec.pa.chess.model;
+
+import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentGamesTest {
+
+    private static final int GAMES = 2000;
+    private static final int MAX_PLIES = 40;
+
+    // Joga um jogo aleatório mas determinístico (a semente define as jogadas)
+    private static String playGame(long seed) {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("Branco" + seed, "Preto" + seed);
+        game.startNewGame();
+
+        Random random = new Random(seed);
+        MoveList moves = new MoveList();
+        for (int ply = 0; ply < MAX_PLIES && game.getGameState() == ChessGame.GameState.RUNNING; ply++) {
+            boolean white = game.isWhiteTurn();
+            int n = MoveGenerator.generate(game.getBoard(), white, moves);
+            if (n == 0)
+                break;
+            int move = moves.get(random.nextInt(n));
+
+            ChessGame.MoveResult result = game.move(Move.squareName(Move.from(move)), Move.squareName(Move.to(move)));
+            assertNotEquals(ChessGame.MoveResult.INVALID_MOVE, result, "Jogada gerada deveria ser válida: " + Move.toString(move));
+            if (result == ChessGame.MoveResult.PROMOTION)
+                game.promotePawn("QUEEN");
+            if (game.getGameState() == ChessGame.GameState.RUNNING)
+                assertEquals(!white, game.isWhiteTurn(), "A vez deveria ter passado ao adversário.");
+        }
+        assertEquals(game.getBoard().computeKey(), game.getPositionKey(), "A chave da posição deveria estar correta.");
+        return game.exportGame() + "|" + game.isWhiteTurn() + "|" + game.getPositionKey();
+    }
+
+    @Test
+    void testManyGamesInParallel() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < GAMES; i++) {
+                long seed = i;
+                results.add(pool.submit(() -> playGame(seed)));
+            }
+
+            // Cada jogo tem de acabar exatamente como se tivesse sido jogado sozinho
+            for (int i = 0; i < GAMES; i += 97) {
+                assertEquals(playGame(i), results.get(i).get(), "O jogo " + i + " foi afetado pelos outros jogos.");
+            }
+            for (Future<String> result : results) {
+                assertNotNull(result.get(), "Todos os jogos deveriam terminar.");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTurnIsPerGame() {
+        ChessGame first = new ChessGame();
+        first.setPlayerNames("A", "B");
+        first.startNewGame();
+        ChessGame second = new ChessGame();
+        second.setPlayerNames("C", "D");
+        second.startNewGame();
+
+        first.move("e2", "e4");
+        assertFalse(first.isWhiteTurn(), "Deveria ser a vez das pretas no primeiro jogo.");
+        assertTrue(second.isWhiteTurn(), "O segundo jogo não deveria ser afetado pelo primeiro.");
+    }
+}
@@ -0,0 +1,47 @@
+package pt.isec.pa.chess.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameClockTest {
+
+    private long now; // fake time source, in nanoseconds
+
+    private void advance(long millis) {
+        now += millis * 1_000_000;
+    }
+
+    @Test
+    void testTimeRunsForThePlayerToMove() {
+        GameClock clock = new GameClock(60_000, 2_000, () -> now);
+        clock.start(true);
+
+        advance(5_000);
+        assertEquals(55_000, clock.getRemainingMillis(true), "O tempo das Brancas deveria estar a correr.");
+        assertEquals(60_000, clock.getRemainingMillis(false), "O tempo das Pretas não deveria correr.");
+
+        clock.press(true);
+        advance(1_000);
+        assertEquals(57_000, clock.getRemainingMillis(true), "As Brancas deveriam receber o incremento.");
+        assertEquals(59_000, clock.getRemainingMillis(false), "Depois da jogada deveria correr o tempo das Pretas.");
+
+        clock.stop();
+        advance(10_000);
+        assertEquals(59_000, clock.getRemainingMillis(false), "Com o relógio parado o tempo não deveria correr.");
+    }
+
+    @Test
+    void testTimeRunsOut() {
+        GameClock clock = new GameClock(1_000, 0, () -> now);
+        clock.start(false);
+
+        advance(999);
+        assertFalse(clock.hasExpired(false), "Ainda deveria haver tempo.");
+        advance(2);
+        assertTrue(clock.hasExpired(false), "O tempo das Pretas deveria ter acabado.");
+        assertEquals(0, clock.getRemainingMillis(false), "O tempo restante não deveria ser negativo.");
+        assertFalse(clock.hasExpired(true), "O tempo das Brancas não deveria ter acabado.");
+        assertThrows(IllegalArgumentException.class, () -> new GameClock(0, 0), "Um tempo base nulo não deveria ser aceite.");
+    }
+}
@@ -0,0 +1,41 @@
+package pt.isec.pa.chess.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    private static ChessGame load(String fen) {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("JogadorBranco", "JogadorPreto");
+        game.importFen(fen);
+        return game;
+    }
+
+    @Test
+    void testReferencePositions() {
+        // Profundidades baixas para o teste ser rápido; o main de Perft corre as restantes
+        for (int i = 0; i < Perft.POSITIONS.length; i++) {
+            int depth = Math.min(3, Perft.NODES[i].length);
+            assertEquals(Perft.NODES[i][depth - 1], Perft.perft(load(Perft.POSITIONS[i]), depth),
+                    "Contagem perft errada para " + Perft.POSITIONS[i]);
+        }
+    }
+
+    @Test
+    void testDivideLeavesPositionUnchanged() {
+        ChessGame game = load(Perft.POSITIONS[1]);
+        String before = game.queryBoard();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long nodes = Perft.divide(game, 2, new PrintStream(out));
+
+        assertEquals(2039, nodes, "Divide deveria somar os mesmos nós que perft.");
+        assertTrue(out.toString().contains("e1g1: "), "O roque deveria aparecer como jogada de raiz.");
+        assertEquals(before, game.queryBoard(), "O tabuleiro não deveria mudar depois do perft.");
+    }
+}
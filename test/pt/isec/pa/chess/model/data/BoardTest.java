@@ -0,0 +1,242 @@
+package pt.isec.pa.chess.model.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardTest {
+
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+        board.initializer();
+    }
+
+    // Os bitboards têm de descrever exatamente o que está na grelha de peças
+    private void assertBitboardsMatchGrid() {
+        long white = 0, black = 0;
+        for (int row = 0; row < Board.getBoardSize(); row++) {
+            for (int col = 0; col < Board.getBoardSize(); col++) {
+                Piece piece = board.getPiece(row, col);
+                long bit = Board.squareBit(row, col);
+                if (piece == null) {
+                    assertEquals(0L, board.getOccupied() & bit, "Casa vazia marcada como ocupada: " + row + "," + col);
+                    continue;
+                }
+                assertNotEquals(0L, board.getBitboard(piece.getType(), piece.isWhite()) & bit,
+                        "Bitboard em falta para " + piece);
+                if (piece.isWhite()) white |= bit; else black |= bit;
+            }
+        }
+        assertEquals(white, board.getOccupancy(true), "Ocupação das brancas incorreta.");
+        assertEquals(black, board.getOccupancy(false), "Ocupação das pretas incorreta.");
+        assertEquals(white | black, board.getOccupied(), "Ocupação total incorreta.");
+    }
+
+    @Test
+    void testInitialBitboards() {
+        assertBitboardsMatchGrid();
+        assertEquals(8, board.countPieces(PieceFactory.PieceType.PAWN, true), "Deveriam existir 8 peões brancos.");
+        assertEquals(2, board.countPieces(PieceFactory.PieceType.KNIGHT, false), "Deveriam existir 2 cavalos pretos.");
+        assertEquals(Board.squareBit(7, 4), board.getBitboard(PieceFactory.PieceType.KING, true), "Rei branco deveria estar em e1.");
+        assertNotNull(board.getKing(false), "Rei preto deveria existir.");
+    }
+
+    @Test
+    void testBitboardsFollowMoves() {
+        board.movePiece(new Spot(6, 4), new Spot(4, 4)); // e2-e4
+        board.movePiece(new Spot(1, 3), new Spot(3, 3)); // d7-d5
+        Piece blackPawn = board.getPiece(3, 3);
+        board.movePiece(new Spot(4, 4), new Spot(3, 3)); // e4xd5
+        assertBitboardsMatchGrid();
+        assertEquals(7, board.countPieces(PieceFactory.PieceType.PAWN, false), "Um peão preto deveria ter sido capturado.");
+
+        board.undoMove(new Spot(4, 4), new Spot(3, 3), blackPawn, true);
+        assertBitboardsMatchGrid();
+        assertEquals(8, board.countPieces(PieceFactory.PieceType.PAWN, false), "O peão preto deveria ter sido reposto.");
+    }
+
+    @Test
+    void testMakeUnmakeRestoresPosition() {
+        board.movePiece(new Spot(6, 4), new Spot(4, 4)); // e2-e4
+        String before = board.toString();
+        long occupiedBefore = board.getOccupied();
+        int enPassantBefore = board.getEnPassantSquare();
+        assertEquals(Board.square(5, 4), enPassantBefore, "Casa de en passant deveria ser e3.");
+
+        board.makeMove(Move.of(Board.square(1, 3), Board.square(3, 3))); // d7-d5
+        assertEquals(Board.square(2, 3), board.getEnPassantSquare(), "Casa de en passant deveria ser d6.");
+        board.makeMove(Move.of(Board.square(4, 4), Board.square(3, 3), null, Move.CAPTURE)); // e4xd5
+        assertEquals(7, board.countPieces(PieceFactory.PieceType.PAWN, false), "Peão preto deveria estar capturado.");
+        assertBitboardsMatchGrid();
+
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(before, board.toString(), "O tabuleiro deveria voltar ao estado inicial.");
+        assertEquals(occupiedBefore, board.getOccupied(), "A ocupação deveria voltar ao estado inicial.");
+        assertEquals(enPassantBefore, board.getEnPassantSquare(), "A casa de en passant deveria ser reposta.");
+        assertFalse(board.getPiece(1, 3).hasMoved(), "O peão d7 não deveria contar como movido.");
+        assertTrue(board.getPiece(1, 3).isAlive(), "O peão d7 deveria estar vivo.");
+        assertBitboardsMatchGrid();
+    }
+
+    @Test
+    void testSquareAttacks() {
+        int f3 = Board.square(5, 5);
+        assertEquals(Board.squareBit(6, 4) | Board.squareBit(6, 6) | Board.squareBit(7, 6), board.attackersOf(f3, true),
+                "f3 deveria ser atacada pelos peões e2, g2 e pelo cavalo g1.");
+        assertFalse(board.isSquareAttacked(Board.square(4, 3), true), "d4 não deveria estar atacada no início.");
+        assertFalse(board.isSquareAttacked(f3, false), "As pretas não deveriam atacar f3.");
+
+        board.movePiece(new Spot(6, 4), new Spot(4, 4)); // e2-e4
+        board.movePiece(new Spot(1, 3), new Spot(3, 3)); // d7-d5
+        int d5 = Board.square(3, 3);
+        assertEquals(Board.squareBit(4, 4) | Board.squareBit(0, 3), board.attackersOf(d5),
+                "d5 deveria ser atacada pelo peão e4 e defendida pela dama d8.");
+        assertFalse(board.getKing(true).isInCheck(), "O rei branco não deveria estar em xeque.");
+    }
+
+    @Test
+    void testKeyFollowsIncrementalUpdates() {
+        long initial = board.getKey();
+        assertEquals(board.computeKey(), initial, "A chave inicial deveria coincidir com a calculada.");
+
+        board.movePiece(new Spot(6, 4), new Spot(4, 4)); // e2-e4
+        board.movePiece(new Spot(1, 3), new Spot(3, 3)); // d7-d5
+        Piece blackPawn = board.getPiece(3, 3);
+        board.movePiece(new Spot(4, 4), new Spot(3, 3)); // e4xd5
+        assertEquals(board.computeKey(), board.getKey(), "A chave incremental deveria coincidir com a calculada.");
+
+        board.undoMove(new Spot(4, 4), new Spot(3, 3), blackPawn, true);
+        assertEquals(board.computeKey(), board.getKey(), "A chave deveria acompanhar o undo.");
+
+        Piece knight = board.getPiece(7, 6);
+        board.remPieceBoard(knight);
+        assertNotEquals(initial, board.getKey(), "Remover uma peça deveria mudar a chave.");
+        assertEquals(board.computeKey(), board.getKey(), "A chave deveria acompanhar a remoção.");
+    }
+
+    @Test
+    void testKeyOfTranspositions() {
+        long initial = board.getKey();
+        board.makeMove(Move.of(62, 45)); // Ng1-f3
+        assertNotEquals(initial, board.getKey(), "Uma jogada deveria mudar a chave.");
+        board.makeMove(Move.of(6, 21));  // Ng8-f6
+        board.makeMove(Move.of(57, 42)); // Nb1-c3
+        long viaF3 = board.getKey();
+        assertFalse(board.isWhiteToMove(), "Deveria ser a vez das pretas.");
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(initial, board.getKey(), "Desfazer as jogadas deveria repor a chave.");
+
+        board.makeMove(Move.of(57, 42)); // Nb1-c3
+        board.makeMove(Move.of(6, 21));  // Ng8-f6
+        board.makeMove(Move.of(62, 45)); // Ng1-f3
+        assertEquals(viaF3, board.getKey(), "Transposições deveriam ter a mesma chave.");
+
+        board.setWhiteToMove(true);
+        assertNotEquals(viaF3, board.getKey(), "O lado a jogar deveria fazer parte da chave.");
+    }
+
+    @Test
+    void testKeyCastlingAndEnPassant() {
+        long initial = board.getKey();
+        board.setEnPassantSquare(Board.square(2, 4)); // e6 sem peão branco que o possa capturar
+        assertEquals(initial, board.getKey(), "Um en passant impossível não deveria mudar a chave.");
+        board.setEnPassantSquare(-1);
+
+        board.getPiece(7, 7).setMoved(true); // torre h1 perde o roque
+        assertEquals(Zobrist.WHITE_QUEENSIDE | Zobrist.BLACK_KINGSIDE | Zobrist.BLACK_QUEENSIDE, board.getCastlingRights(),
+                "Só o roque pequeno das brancas deveria ter sido perdido.");
+        assertNotEquals(initial, board.getKey(), "Os direitos de roque deveriam fazer parte da chave.");
+    }
+
+    @Test
+    void testPawnKeyFollowsPawnsOnly() {
+        long initial = board.getPawnKey();
+        assertEquals(board.computePawnKey(), initial, "A chave dos peões inicial deveria coincidir com a calculada.");
+
+        board.makeMove(Move.of(62, 45)); // Ng1-f3
+        board.makeMove(Move.of(6, 21));  // Ng8-f6
+        assertEquals(initial, board.getPawnKey(), "Jogadas de cavalo não deveriam mudar a chave dos peões.");
+        assertNotEquals(initial, board.getKey(), "A chave completa deveria mudar na mesma.");
+
+        board.makeMove(Move.of(52, 36)); // e2-e4
+        assertNotEquals(initial, board.getPawnKey(), "Uma jogada de peão deveria mudar a chave dos peões.");
+        board.makeMove(Move.of(11, 27)); // d7-d5
+        board.makeMove(Move.of(36, 27, null, Move.CAPTURE)); // e4xd5
+        assertEquals(board.computePawnKey(), board.getPawnKey(), "A chave dos peões deveria acompanhar a captura.");
+        board.makeMove(Move.of(21, 27, null, Move.CAPTURE)); // Nf6xd5
+        assertEquals(board.computePawnKey(), board.getPawnKey(), "A captura de um peão deveria mudar a chave dos peões.");
+
+        for (int i = 0; i < 6; i++)
+            board.unmakeMove();
+        assertEquals(initial, board.getPawnKey(), "Desfazer as jogadas deveria repor a chave dos peões.");
+
+        Board endgame = new Board();
+        endgame.addPieceBoard(PieceFactory.createPieceFromText(endgame, "Ke1"));
+        endgame.addPieceBoard(PieceFactory.createPieceFromText(endgame, "ke8"));
+        assertEquals(0L, endgame.getPawnKey(), "Sem peões a chave dos peões deveria ser 0.");
+        endgame.addPieceBoard(PieceFactory.createPieceFromText(endgame, "Pa7"));
+        endgame.makeMove(Move.of(8, 0, PieceFactory.PieceType.QUEEN, 0)); // a7-a8=D
+        assertEquals(0L, endgame.getPawnKey(), "A promoção deveria tirar o peão da chave.");
+        endgame.unmakeMove();
+        assertEquals(endgame.computePawnKey(), endgame.getPawnKey(), "Desfazer a promoção deveria repor o peão na chave.");
+        assertNotEquals(0L, endgame.getPawnKey(), "O peão deveria voltar à chave.");
+    }
+
+    @Test
+    void testEvaluationFollowsIncrementalUpdates() {
+        assertEquals(0, board.evaluate(), "A posição inicial deveria ser equilibrada.");
+        assertEquals(24, board.getGamePhase(), "A posição inicial deveria estar na fase máxima.");
+
+        board.movePiece(new Spot(6, 4), new Spot(4, 4)); // e2-e4
+        assertTrue(board.evaluate() > 0, "Ocupar o centro deveria favorecer as brancas.");
+        board.movePiece(new Spot(1, 3), new Spot(3, 3)); // d7-d5
+        Piece blackPawn = board.getPiece(3, 3);
+        board.movePiece(new Spot(4, 4), new Spot(3, 3)); // e4xd5
+        assertEquals(board.computeEvaluation(), board.evaluate(), "A avaliação incremental deveria coincidir com a calculada.");
+        assertTrue(board.evaluate() > 50, "Ganhar um peão deveria valer pelo menos meio peão.");
+
+        board.undoMove(new Spot(4, 4), new Spot(3, 3), blackPawn, true);
+        assertEquals(board.computeEvaluation(), board.evaluate(), "A avaliação deveria acompanhar o undo.");
+
+        int before = board.evaluate();
+        board.makeMove(Move.of(62, 45)); // Ng1-f3
+        board.makeMove(Move.of(6, 21));  // Ng8-f6
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(before, board.evaluate(), "Desfazer as jogadas deveria repor a avaliação.");
+
+        board.remPieceBoard(board.getPiece(0, 3)); // dama preta
+        assertEquals(board.computeEvaluation(), board.evaluate(), "A avaliação deveria acompanhar a remoção.");
+        assertEquals(20, board.getGamePhase(), "Sem a dama a fase deveria descer 4.");
+    }
+
+    @Test
+    void testEvaluationOfPromotion() {
+        Board endgame = new Board();
+        endgame.addPieceBoard(PieceFactory.createPieceFromText(endgame, "Ke1"));
+        endgame.addPieceBoard(PieceFactory.createPieceFromText(endgame, "ke8"));
+        endgame.addPieceBoard(PieceFactory.createPieceFromText(endgame, "Pa7"));
+        int pawn = endgame.evaluate();
+        assertEquals(0, endgame.getGamePhase(), "Só com reis e peões deveria ser final.");
+
+        endgame.makeMove(Move.of(8, 0, PieceFactory.PieceType.QUEEN, 0)); // a7-a8=D
+        assertEquals(endgame.computeEvaluation(), endgame.evaluate(), "A promoção deveria atualizar a avaliação.");
+        assertTrue(endgame.evaluate() > pawn + 500, "Uma dama deveria valer muito mais do que o peão.");
+
+        endgame.unmakeMove();
+        assertEquals(pawn, endgame.evaluate(), "Desfazer a promoção deveria repor a avaliação.");
+
+        // Como em ChessGame.promotePawn: o peão sai do tabuleiro e entra a peça nova
+        endgame.remPieceBoard(endgame.getPiece(1, 0));
+        endgame.addPieceBoard(PieceFactory.createPieceFromText(endgame, "Ra7"));
+        assertEquals(endgame.computeEvaluation(), endgame.evaluate(), "Trocar o peão por outra peça deveria atualizar a avaliação.");
+        assertEquals(2, endgame.getGamePhase(), "Uma torre deveria contar 2 para a fase.");
+    }
+}
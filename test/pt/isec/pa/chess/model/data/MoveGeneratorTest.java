@@ -0,0 +1,100 @@
+package pt.isec.pa.chess.model.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTest {
+
+    private static Board boardWith(String... pieces) {
+        Board board = new Board();
+        for (String text : pieces) {
+            Piece piece = PieceFactory.createPieceFromText(board, text);
+            piece.setMoved(true);
+            board.addPieceBoard(piece);
+        }
+        return board;
+    }
+
+    private static long bit(String spot) {
+        return Board.squareBit(Board.getBoardSize() - (spot.charAt(1) - '0'), spot.charAt(0) - 'a');
+    }
+
+    private static long targetsOf(Board board, String spot) {
+        return MoveGenerator.legalTargets(board, Long.numberOfTrailingZeros(bit(spot)));
+    }
+
+    @Test
+    void testStartPositionHasTwentyMoves() {
+        Board board = new Board();
+        board.initializer();
+        assertEquals(20, MoveGenerator.generate(board, true, new MoveList()), "As brancas deveriam ter 20 jogadas iniciais.");
+        assertEquals(20, MoveGenerator.generate(board, false, new MoveList()), "As pretas deveriam ter 20 jogadas iniciais.");
+    }
+
+    @Test
+    void testPromotionsAreExpanded() {
+        Board board = boardWith("Ka1", "Pe7", "kh8", "rd8");
+        MoveList moves = new MoveList();
+        MoveGenerator.generate(board, true, moves);
+
+        int e7 = Long.numberOfTrailingZeros(bit("e7"));
+        int e8 = Long.numberOfTrailingZeros(bit("e8"));
+        int d8 = Long.numberOfTrailingZeros(bit("d8"));
+        assertTrue(moves.contains(Move.of(e7, e8, PieceFactory.PieceType.KNIGHT, 0)), "Deveria existir a sub-promoção a cavalo.");
+        assertTrue(moves.contains(Move.of(e7, d8, PieceFactory.PieceType.QUEEN, Move.CAPTURE)), "Deveria existir a captura com promoção.");
+        assertEquals("e7d8q", Move.toString(Move.of(e7, d8, PieceFactory.PieceType.QUEEN, Move.CAPTURE)));
+
+        board.makeMove(Move.of(e7, d8, PieceFactory.PieceType.QUEEN, Move.CAPTURE));
+        assertEquals(PieceFactory.PieceType.QUEEN, board.getPiece(0, 3).getType(), "Deveria existir uma dama em d8.");
+        assertEquals(0, board.countPieces(PieceFactory.PieceType.ROOK, false), "A torre preta deveria ter sido capturada.");
+        board.unmakeMove();
+        assertEquals(PieceFactory.PieceType.PAWN, board.getPiece(1, 4).getType(), "O peão deveria voltar a e7.");
+        assertEquals(PieceFactory.PieceType.ROOK, board.getPiece(0, 3).getType(), "A torre preta deveria voltar a d8.");
+    }
+
+    @Test
+    void testPinnedPieceStaysOnPinLine() {
+        // A torre em e4 está cravada pela dama em e8 contra o rei em e1
+        Board board = boardWith("Ke1", "Re4", "qe8", "ka8");
+        long expected = bit("e2") | bit("e3") | bit("e5") | bit("e6") | bit("e7") | bit("e8");
+        assertEquals(expected, targetsOf(board, "e4"), "A torre cravada só se pode mover ao longo da cravada.");
+
+        // O cavalo cravado não tem qualquer jogada
+        Board knightPinned = boardWith("Ke1", "Ne4", "qe8", "ka8");
+        assertEquals(0L, targetsOf(knightPinned, "e4"), "O cavalo cravado não deveria ter jogadas.");
+    }
+
+    @Test
+    void testCheckEvasionOnly() {
+        // Xeque da torre em e8: o bispo só pode intercetar em e5 e o rei não pode ficar na coluna e
+        Board board = boardWith("Ke1", "Bc3", "re8", "ka8");
+        assertEquals(bit("e5"), targetsOf(board, "c3"), "O bispo só deveria poder bloquear o xeque.");
+        assertEquals(0L, targetsOf(board, "e1") & (bit("e2") | bit("e1")), "O rei não pode continuar na linha da torre.");
+
+        // Xeque duplo: só o rei se pode mover
+        Board doubleCheck = boardWith("Ke1", "Bc3", "re8", "nd3", "ka8");
+        assertEquals(0L, targetsOf(doubleCheck, "c3"), "Em xeque duplo apenas o rei se pode mover.");
+    }
+
+    @Test
+    void testEnPassantCapturingCheckingPawn() {
+        // O peão preto acabou de avançar c7-c5 e dá xeque ao rei em b4
+        Board board = boardWith("Kb4", "Pb5", "pc5", "kh8");
+        board.setEnPassantSquare(Long.numberOfTrailingZeros(bit("c6")));
+        assertEquals(bit("c6"), targetsOf(board, "b5"), "O peão deveria poder capturar en passant o peão que dá xeque.");
+    }
+
+    @Test
+    void testGenerateCapturesOnly() {
+        Board board = boardWith("Ke1", "Pb7", "Pe4", "Nc3", "ke8", "pd5", "ra8");
+        MoveList moves = new MoveList();
+        MoveGenerator.generateCaptures(board, true, moves);
+
+        assertEquals(4 + 4 + 2, moves.size(), "Deveria haver 8 promoções (b8 e bxa8) e 2 capturas em d5.");
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            assertTrue(Move.isCapture(move) || Move.isPromotion(move), "Só capturas e promoções: " + Move.toString(move));
+        }
+    }
+}
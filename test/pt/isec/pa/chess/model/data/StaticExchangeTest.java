@@ -0,0 +1,77 @@
+package pt.isec.pa.chess.model.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticExchangeTest {
+
+    private static Board boardWith(String... pieces) {
+        Board board = new Board();
+        for (String text : pieces) {
+            Piece piece = PieceFactory.createPieceFromText(board, text);
+            piece.setMoved(true);
+            board.addPieceBoard(piece);
+        }
+        return board;
+    }
+
+    private static int square(String spot) {
+        return Board.square(Board.getBoardSize() - (spot.charAt(1) - '0'), spot.charAt(0) - 'a');
+    }
+
+    private static int capture(String from, String to) {
+        return Move.of(square(from), square(to), null, Move.CAPTURE);
+    }
+
+    @Test
+    void testDefendedPieces() {
+        Board board = boardWith("Ka1", "Pe4", "kh8", "nd5", "pe6");
+        Board queen = boardWith("Ka1", "Qd1", "kh8", "nd5", "pe6");
+
+        assertEquals(320 - 100, StaticExchange.evaluate(board, capture("e4", "d5")),
+                "Peão por cavalo, com recaptura, deveria ganhar a diferença.");
+        assertEquals(320 - 900, StaticExchange.evaluate(queen, capture("d1", "d5")),
+                "A dama por cavalo defendido deveria perder material.");
+    }
+
+    @Test
+    void testRecaptureThatLosesIsNotPlayed() {
+        Board board = boardWith("Ka1", "Pe4", "Qd1", "kh8", "nd5", "pe6");
+
+        assertEquals(320, StaticExchange.evaluate(board, capture("e4", "d5")),
+                "Recapturar perderia o peão para a dama, por isso as pretas deveriam parar.");
+    }
+
+    @Test
+    void testXRayJoinsTheExchange() {
+        Board doubled = boardWith("Ka1", "Rd1", "Rd2", "kh8", "pd5", "rd8");
+        Board single = boardWith("Ka1", "Rd2", "kh8", "pd5", "rd8");
+
+        assertEquals(100, StaticExchange.evaluate(doubled, capture("d2", "d5")),
+                "A torre de trás deveria recapturar e ganhar o peão.");
+        assertEquals(100 - 500, StaticExchange.evaluate(single, capture("d2", "d5")),
+                "Sem apoio, a torre deveria perder-se pelo peão.");
+    }
+
+    @Test
+    void testKingOnlyTakesUndefendedPieces() {
+        Board defended = boardWith("Ke2", "Qd3", "ke8", "rd8", "qh7");
+        Board undefended = boardWith("Ke2", "Qd3", "ke8", "qh7");
+
+        assertEquals(900, StaticExchange.evaluate(defended, capture("h7", "d3")),
+                "Com a torre a defender, o rei não deveria poder recapturar.");
+        assertEquals(0, StaticExchange.evaluate(undefended, capture("h7", "d3")),
+                "Sem defesa, o rei deveria recapturar e a troca ficar igual.");
+    }
+
+    @Test
+    void testHangingPieces() {
+        Board board = boardWith("Ka1", "Rc1", "Rg1", "kh8", "nc6", "ng6", "ph7");
+
+        assertTrue(StaticExchange.isHanging(board, square("c6")), "O cavalo sem defesa deveria estar pendurado.");
+        assertFalse(StaticExchange.isHanging(board, square("g6")), "O cavalo defendido por peão não deveria estar pendurado.");
+        assertFalse(StaticExchange.isHanging(board, square("c1")), "A torre não está atacada.");
+        assertFalse(StaticExchange.isHanging(board, square("e4")), "Uma casa vazia não tem peça pendurada.");
+    }
+}
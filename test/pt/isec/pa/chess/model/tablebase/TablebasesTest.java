@@ -0,0 +1,221 @@
+package pt.isec.pa.chess.model.tablebase;
+
+import org.junit.jupiter.api.Test;
+import pt.isec.pa.chess.engine.Engine;
+import pt.isec.pa.chess.engine.SearchInfo;
+import pt.isec.pa.chess.engine.SearchLimits;
+import pt.isec.pa.chess.model.ChessGame;
+import pt.isec.pa.chess.model.data.Board;
+import pt.isec.pa.chess.model.data.Move;
+import pt.isec.pa.chess.model.data.MoveGenerator;
+import pt.isec.pa.chess.model.data.MoveList;
+import pt.isec.pa.chess.model.data.Piece;
+import pt.isec.pa.chess.model.data.PieceFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebasesTest {
+
+    private static Path directory;
+    private static Tablebases tablebases;
+
+    // KPK and the tables it leads to (KQK, KRK), built once for every test
+    private static synchronized Tablebases tablebases() throws IOException {
+        if (tablebases == null) {
+            directory = Files.createTempDirectory("tablebases");
+            directory.toFile().deleteOnExit();
+            TablebaseGenerator generator = new TablebaseGenerator(directory, 2);
+            try {
+                assertEquals(List.of("KQK", "KRK", "KPK"), generator.generate("KPK"),
+                        "Deveria gerar primeiro as tabelas para onde a promoção leva.");
+            } finally {
+                generator.shutdown();
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(file -> file.toFile().deleteOnExit());
+            }
+            tablebases = Tablebases.load(directory);
+        }
+        return tablebases;
+    }
+
+    private static Board board(String position) {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("Branco", "Preto");
+        game.startNewGame();
+        game.importGame(position);
+        return game.getBoard().clone();
+    }
+
+    @Test
+    void testKnownPositions() throws IOException {
+        Tablebases tables = tablebases();
+        assertEquals(List.of("KPK", "KQK", "KRK"), tables.getEndgames(), "Deveria ler as três tabelas.");
+
+        int mateInOne = tables.probe(board("WHITE,kh8,Qa7,Kg6"));
+        assertTrue(Tablebases.isWin(mateInOne), "As brancas deveriam ganhar: " + Tablebases.describe(mateInOne));
+        assertEquals(1, Tablebases.plies(mateInOne), "Deveria ser mate em 1.");
+
+        int mated = tables.probe(board("BLACK,kh8,Qg7,Kg6"));
+        assertTrue(Tablebases.isLoss(mated), "As pretas deveriam estar em mate.");
+        assertEquals(0, Tablebases.plies(mated), "O mate já está no tabuleiro.");
+
+        int mirrored = tables.probe(board("BLACK,Kh1,qa2,kg3"));
+        assertEquals(mateInOne, mirrored, "Com as cores trocadas deveria dar o mesmo resultado.");
+
+        assertEquals(Tablebases.DRAW, tables.probe(board("WHITE,Ke1,Bc1,ke8")), "Rei e bispo não dão mate.");
+        assertEquals(Tablebases.DRAW, tables.probe(board("WHITE,Ke4,ke6")), "Dois reis sozinhos são empate.");
+        assertEquals(Tablebases.UNKNOWN, tables.probe(board("WHITE,Ke1,Bc1,Nb1,ke8")), "Sem a tabela KBNK não deveria saber.");
+        assertEquals(Tablebases.UNKNOWN, tables.probe(board("WHITE,Ke1,Qd1,ke8,qd8")), "Peças dos dois lados não têm tabela.");
+    }
+
+    @Test
+    void testAgreesWithMoveGenerator() throws IOException {
+        Tablebases tables = tablebases();
+        SplittableRandom random = new SplittableRandom(4);
+        String[] pieces = {"Q", "R", "P"};
+        int checked = 0;
+        while (checked < 600) {
+            boolean strongWhite = random.nextBoolean();
+            Board board = randomPosition(random, pieces[checked % pieces.length], strongWhite, random.nextBoolean());
+            if (board == null)
+                continue;
+            checked++;
+            assertEquals(expected(tables, board), tables.probe(board), "O resultado deveria seguir das jogadas legais.");
+        }
+    }
+
+    // A random legal position: the strong side's king and piece against a lone king
+    private static Board randomPosition(SplittableRandom random, String piece, boolean strongWhite, boolean whiteToMove) {
+        int[] squares = random.ints(0, 64).distinct().limit(3).toArray();
+        Board board = new Board();
+        String[] texts = {"K", "K", piece};
+        for (int i = 0; i < 3; i++) {
+            boolean white = (i != 1) == strongWhite;
+            String text = (white ? texts[i] : texts[i].toLowerCase()) + Move.squareName(squares[i]);
+            Piece created = PieceFactory.createPieceFromText(board, text);
+            created.setMoved(true);
+            board.addPieceBoard(created);
+        }
+        board.setWhiteToMove(whiteToMove);
+        int row = squares[2] / 8;
+        int blackKing = Long.numberOfTrailingZeros(board.getBitboard(PieceFactory.PieceType.KING, false));
+        int whiteKing = Long.numberOfTrailingZeros(board.getBitboard(PieceFactory.PieceType.KING, true));
+        boolean legal = !(piece.equals("P") && (row == 0 || row == 7))
+                && !board.isSquareAttacked(whiteToMove ? blackKing : whiteKing, whiteToMove);
+        return legal ? board : null;
+    }
+
+    // The result the tables should give, from the results after each legal move
+    private static int expected(Tablebases tables, Board board) {
+        boolean white = board.isWhiteToMove();
+        MoveList moves = new MoveList();
+        int n = MoveGenerator.generate(board, white, moves);
+        if (n == 0) {
+            int king = Long.numberOfTrailingZeros(board.getBitboard(PieceFactory.PieceType.KING, white));
+            return board.isSquareAttacked(king, !white) ? 1 : Tablebases.DRAW;
+        }
+        int fastestWin = Integer.MAX_VALUE, slowestLoss = -1;
+        boolean draw = false;
+        for (int i = 0; i < n; i++) {
+            board.makeMove(moves.get(i));
+            int after = tables.probe(board);
+            board.unmakeMove();
+            assertNotEquals(Tablebases.UNKNOWN, after, "Todas as posições seguintes deveriam estar nas tabelas.");
+            if (Tablebases.isLoss(after))
+                fastestWin = Math.min(fastestWin, Tablebases.plies(after) + 1);
+            else if (after == Tablebases.DRAW)
+                draw = true;
+            else
+                slowestLoss = Math.max(slowestLoss, Tablebases.plies(after) + 1);
+        }
+        return fastestWin < Integer.MAX_VALUE ? fastestWin + 1 : draw ? Tablebases.DRAW : slowestLoss + 1;
+    }
+
+    @Test
+    void testEngineReadsTheTables() throws IOException {
+        Engine engine = new Engine();
+        engine.setTablebases(tablebases());
+        try {
+            SearchInfo mate = engine.search(board("WHITE,kh8,Qa7,Kg6"), SearchLimits.depth(20), null);
+            assertEquals(1, mate.mateIn(), "Deveria anunciar o mate em 1 sem pesquisar.");
+            assertEquals(1, mate.pv().length, "A linha deveria ser só a jogada de mate.");
+
+            SearchInfo rook = engine.search(board("WHITE,Kd4,Rh2,ka8"), SearchLimits.depth(1), null);
+            assertEquals(SearchInfo.MATE - (Tablebases.plies(tablebases().probe(board("WHITE,Kd4,Rh2,ka8")))), rook.score(),
+                    "O resultado deveria ser o da tabela.");
+            assertEquals(rook.mateIn() * 2 - 1, rook.pv().length, "A linha deveria ir até ao mate.");
+
+            // Five pieces have no table, but the capture leads to one: a shallow search sees the mate behind it
+            SearchInfo capture = engine.search(board("WHITE,Ke1,Qa1,ke8,rh8"), SearchLimits.depth(2), null);
+            assertEquals("a1h8", Move.toString(capture.bestMove()), "Deveria tomar a torre.");
+            assertTrue(capture.isMate() && capture.score() > 0, "Depois da captura, a tabela deveria dar o mate.");
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void testGameEndsInTablebaseDraw() throws IOException {
+        ChessGame game = new ChessGame();
+        game.setPlayerNames("Branco", "Preto");
+        game.setTablebases(tablebases());
+        game.startNewGame();
+
+        game.importGame("WHITE,Ka1,Rd7,ke8");
+        assertEquals(ChessGame.GameState.RUNNING, game.getGameState(), "Rei e torre ainda podem ganhar.");
+        assertEquals(ChessGame.MoveResult.DRAW, game.move("d7", "e7"), "Com a torre perdida, a partida deveria acabar empatada.");
+        assertEquals(ChessGame.GameState.DRAW, game.getGameState(), "O GameState deveria ser DRAW.");
+
+        game.importGame("WHITE,Ke1,Bc1,ke8");
+        assertEquals(ChessGame.GameState.DRAW, game.getGameState(), "Rei e bispo contra rei é empate ao importar.");
+    }
+
+    @Test
+    void testParallelGenerationIsDeterministic() throws IOException {
+        Path single = Files.createTempDirectory("tablebases"), parallel = Files.createTempDirectory("tablebases");
+        TablebaseGenerator one = new TablebaseGenerator(single, 1), three = new TablebaseGenerator(parallel, 3);
+        try {
+            one.generate("KRK");
+            three.generate("KRK");
+            assertEquals(-1L, Files.mismatch(single.resolve("KRK.dtm"), parallel.resolve("KRK.dtm")),
+                    "O número de threads não deveria mudar a tabela.");
+        } finally {
+            one.shutdown();
+            three.shutdown();
+            for (Path dir : new Path[]{single, parallel}) {
+                Files.deleteIfExists(dir.resolve("KRK.dtm"));
+                Files.delete(dir);
+            }
+        }
+    }
+
+    @Test
+    void testRejectsInvalidFiles() throws IOException {
+        tablebases();
+        Path broken = Files.createTempDirectory("tablebases");
+        Path file = broken.resolve("KQK.dtm");
+        TablebaseGenerator generator = new TablebaseGenerator(broken, 1);
+        try {
+            Files.write(file, Files.readAllBytes(directory.resolve("KQK.dtm")), StandardOpenOption.CREATE);
+            Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+            assertThrows(IOException.class, () -> Tablebases.load(broken), "Deveria recusar um ficheiro com o tamanho errado.");
+            Files.delete(file);
+            assertThrows(IOException.class, () -> Tablebases.load(broken), "Deveria recusar uma pasta sem tabelas.");
+            assertThrows(IllegalArgumentException.class, () -> generator.generate("KBK"),
+                    "Rei e bispo nunca dão mate: não há tabela a gerar.");
+        } finally {
+            generator.shutdown();
+            Files.deleteIfExists(file);
+            Files.delete(broken);
+        }
+    }
+}